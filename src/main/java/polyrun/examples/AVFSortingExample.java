@@ -1,15 +1,23 @@
 package polyrun.examples;
 
 
-import polyrun.PolytopeRunner;
-import polyrun.SampleConsumer;
 import polyrun.constraints.Constraint;
-import polyrun.constraints.ConstraintsSystem;
 import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.lp.ConflictFinder;
+import polyrun.examples.lp.RobustAssignments;
+import polyrun.examples.lp.SimplexSolver;
+import polyrun.examples.sampling.ReusableSampleSet;
+import polyrun.examples.scoring.ClassAcceptability;
+import polyrun.examples.scoring.LevelTableAssignmentModel;
 import polyrun.sampling.HitAndRun;
 import polyrun.thinning.MNThinningFunction;
+import polyrun.thinning.ThinningFunction;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class AVFSortingExample {
 
@@ -140,6 +148,15 @@ public class AVFSortingExample {
                 new int[]{48, 5}
         };
 
+        // Further assignments may be given as arguments in form alternative:class (1-based), e.g. 33:2.
+        // They are added one at a time to the sampled model (see below).
+        final int numberOfInitialAssignments = assignments.length;
+        for (String arg : args) {
+            String[] parts = arg.split(":");
+            assignments = Arrays.copyOf(assignments, assignments.length + 1);
+            assignments[assignments.length - 1] = new int[]{Integer.parseInt(parts[0]), Integer.parseInt(parts[1])};
+        }
+
         // Small positive value
         double epsilon = 1e-4;
 
@@ -232,10 +249,15 @@ public class AVFSortingExample {
 
         }
 
-        // Add all assignments of reference alternatives as constraints to the model
+        // Constraints which do not depend on reference assignments
+        List<Constraint> background = new ArrayList<Constraint>(constraints);
+
+        // Add all assignments of reference alternatives as constraints to the model (one group per assignment)
+        List<List<Constraint>> assignmentConstraints = new ArrayList<List<Constraint>>();
         for (int[] assignment : assignments) {
             int alternative = assignment[0] - 1;
             int desiredClass = assignment[1] - 1;
+            List<Constraint> group = new ArrayList<Constraint>();
 
             if (desiredClass > 0) {
                 lhs = new double[numberOfVariables];
@@ -248,7 +270,7 @@ public class AVFSortingExample {
 
                 lhs[lhs.length - numberOfClasses + desiredClass] = -1.0;
 
-                constraints.add(new SimpleConstraint(lhs, ">=", 0));
+                group.add(new SimpleConstraint(lhs, ">=", 0));
             }
 
             if (desiredClass < numberOfClasses - 1) {
@@ -262,57 +284,121 @@ public class AVFSortingExample {
 
                 lhs[lhs.length - numberOfClasses + desiredClass + 1] = -1.0;
 
-                constraints.add(new SimpleConstraint(lhs, "<=", -epsilon));
+                group.add(new SimpleConstraint(lhs, "<=", -epsilon));
             }
+
+            assignmentConstraints.add(group);
+            constraints.addAll(group);
         }
 
-        // Prepare storage for class indices
-        final double[][] classIndices = new double[alternativesToAssign.length][numberOfClasses];
+        // Reference assignments which cannot be reproduced by any value function make the polytope empty,
+        // so find a minimal subset of conflicting ones instead of sampling
+        if (!SimplexSolver.isFeasible(constraints)) {
+            int[] conflict = new ConflictFinder(background).find(assignmentConstraints);
+
+            // No assignment is to blame if the constraints of the model are infeasible on their own
+            if (conflict.length == 0) {
+                System.out.println("The base model (monotonicity, normalization and thresholds) is infeasible.");
+                return;
+            }
+
+            System.out.println("Reference assignments are inconsistent. Minimal subset of conflicting assignments:");
+            for (int i : conflict) {
+                System.out.println("a_" + assignments[i][0] + " -> class " + assignments[i][1]);
+            }
+
+            return;
+        }
+
+        // Collect variables forming comprehensive values of alternatives to assign
+        int[][] variableIndices = new int[alternativesToAssign.length][];
+        for (int i = 0; i < alternativesToAssign.length; i++) {
+            List<Integer> indices = new ArrayList<Integer>();
+
+            for (Integer variableIndex : valuesIndices[alternativesToAssign[i]]) {
+                if (variableIndex != null) {
+                    indices.add(variableIndex);
+                }
+            }
+
+            variableIndices[i] = new int[indices.size()];
+            for (int j = 0; j < indices.size(); j++) {
+                variableIndices[i][j] = indices.get(j);
+            }
+        }
 
-        // Initialize polytope runner
-        PolytopeRunner runner = new PolytopeRunner(new ConstraintsSystem(constraints));
+        // Prepare storage for class indices
+        ClassAcceptability acceptability = new ClassAcceptability(
+                new LevelTableAssignmentModel(numberOfVariables, variableIndices, numberOfClasses));
+
+        // Compute possible and necessary assignments (LPs over the same constraints) while the chain is running
+        final RobustAssignments robustAssignments = new RobustAssignments(constraints, variableIndices, numberOfClasses, epsilon);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<RobustAssignments> robustAssignmentsFuture = executor.submit(new Callable<RobustAssignments>() {
+            public RobustAssignments call() throws Exception {
+                robustAssignments.compute(Runtime.getRuntime().availableProcessors());
+                return robustAssignments;
+            }
+        });
+        executor.shutdown();
 
-        // Setup Chebyshev center as a start point
-        runner.setAnyStartPoint();
+        // Sample the model with the initial reference assignments (the chain starts from the Chebyshev center)
+        List<Constraint> initialConstraints = new ArrayList<Constraint>(background);
+        for (int k = 0; k < numberOfInitialAssignments; k++) {
+            initialConstraints.addAll(assignmentConstraints.get(k));
+        }
 
-        // Generate 100 samples and calculate
         final int numberOfSamples = 100;
-        runner.chain(
-                new HitAndRun(new Random(1)), // seed is set for reproducible results
-                new MNThinningFunction(0.5),
-                numberOfSamples,
-                new SampleConsumer() {
-                    public void consume(double[] sample) {
-                        for (int i = 0; i < alternativesToAssign.length; i++) {
-                            double value = 0.0;
-
-                            for (Integer variableIndex : valuesIndices[alternativesToAssign[i]]) {
-                                if (variableIndex != null) {
-                                    value += sample[variableIndex];
-                                }
-                            }
-
-                            int assignment = 0;
-
-                            for (int t = sample.length - numberOfClasses + 1; t < sample.length; t++) {
-                                if (value > sample[t]) {
-                                    assignment++;
-                                }
-                            }
-
-                            classIndices[i][assignment] += 1.0 / numberOfSamples;
-                        }
-                    }
-                });
+        HitAndRun randomWalk = new HitAndRun(new Random(1)); // seed is set for reproducible results
+        ThinningFunction thinningFunction = new MNThinningFunction(0.5);
+
+        ReusableSampleSet sampleSet = new ReusableSampleSet(initialConstraints);
+        sampleSet.sample(numberOfSamples, randomWalk, thinningFunction);
+        sampleSet.consume(numberOfSamples, acceptability);
+
+        // Print rank acceptability indices (see part CAE_1 of Table 8 in the paper)
+        System.out.println("Stochastic assignments for non-reference alternatives");
+        print(acceptability, alternativesToAssign, numberOfClasses);
+
+        // Every further assignment tightens the polytope: samples that reproduce it are kept and only the missing
+        // ones are generated, starting from a kept sample
+        for (int k = numberOfInitialAssignments; k < assignments.length; k++) {
+            int retained = sampleSet.tighten(assignmentConstraints.get(k));
+            int generated = sampleSet.sample(numberOfSamples, randomWalk, thinningFunction);
+
+            acceptability = acceptability.emptyCopy();
+            sampleSet.consume(numberOfSamples, acceptability);
+
+            System.out.println("\nAfter adding a_" + assignments[k][0] + " -> class " + assignments[k][1]
+                    + " (retained " + retained + " samples, generated " + generated + ")");
+            print(acceptability, alternativesToAssign, numberOfClasses);
+        }
+
+        // Print possible and necessary assignments
+        robustAssignmentsFuture.get();
+        int[] lowestPossibleClasses = robustAssignments.getLowestPossibleClasses();
+        int[] highestPossibleClasses = robustAssignments.getHighestPossibleClasses();
+
+        System.out.println("\nPossible and necessary assignments for non-reference alternatives\n\tpossible\tnecessary");
+        for (int i = 0; i < alternativesToAssign.length; i++) {
+            int necessaryClass = robustAssignments.getNecessaryClass(i);
+
+            System.out.println("a_" + (alternativesToAssign[i] + 1) + "\t["
+                    + (lowestPossibleClasses[i] + 1) + ", " + (highestPossibleClasses[i] + 1) + "]\t\t"
+                    + (necessaryClass >= 0 ? String.valueOf(necessaryClass + 1) : "-"));
+        }
+    }
+
+    private static void print(ClassAcceptability acceptability, int[] alternativesToAssign, int numberOfClasses) {
+        double[][] classIndices = acceptability.getClassAcceptabilityIndices();
 
         // Print header
-        System.out.print("Stochastic assignments for non-reference alternatives\nclass\t");
+        System.out.print("class\t");
         for (int j = 1; j <= numberOfClasses; j++) {
             System.out.print(j + "\t");
         }
         System.out.println();
 
-        // Print rank acceptability indices (see part CAE_1 of Table 8 in the paper)
         DoubleFormatter formatter = new DoubleFormatter();
         for (int i = 0; i < alternativesToAssign.length; i++) {
             System.out.print("a_" + (alternativesToAssign[i] + 1) + "\t");
@@ -0,0 +1,79 @@
+package polyrun.examples;
+
+import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.checkpoint.CheckpointingRunner;
+import polyrun.examples.random.SplitMix64Random;
+import polyrun.examples.sampling.RandomWalkFactory;
+import polyrun.examples.scoring.BlockBuffer;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.sampling.HitAndRun;
+import polyrun.sampling.RandomWalk;
+import polyrun.thinning.NCubedThinningFunction;
+
+import java.io.File;
+import java.util.Random;
+
+public class CheckpointExample {
+
+    public static void main(String[] args) throws Exception {
+        // This example calculates rank acceptability indices over a long chain that is checkpointed
+        // every 100000 samples. Interrupt it and run it again - it will continue from the last checkpoint
+        // and give exactly the same results as an uninterrupted run.
+
+        File checkpointFile = new File(args.length > 0 ? args[0] : "polyrun-checkpoint.bin");
+
+        // Weight space: w1, w2, w3 >= 0, w1 + w2 + w3 = 1, 3 * w1 + 0.5 * w2 - 0.75 * w3 >= 0
+        double[][] lhs = new double[][]{
+                {1, 0, 0},
+                {0, 1, 0},
+                {0, 0, 1},
+                {1, 1, 1},
+                {3, 0.5, -0.75}
+        };
+        String[] dir = new String[]{">=", ">=", ">=", "=", ">="};
+        double[] rhs = new double[]{0, 0, 0, 1, 0};
+
+        // Marginal values of alternatives
+        double[][] marginalValues = new double[][]{
+                {1.0, 0.2, 0.3},
+                {0.4, 0.9, 0.1},
+                {0.3, 0.4, 0.8},
+                {0.6, 0.6, 0.5}
+        };
+
+        // Accumulate indices in blocks (the buffer is flushed whenever a checkpoint is written)
+        RankAcceptability acceptability = new RankAcceptability(new WeightedSumModel(marginalValues));
+        BlockBuffer buffer = new BlockBuffer(marginalValues[0].length, acceptability);
+
+        CheckpointingRunner runner = new CheckpointingRunner(
+                new ConstraintsSystem(lhs, dir, rhs),
+                new RandomWalkFactory() {
+                    public RandomWalk create(Random random) {
+                        return new HitAndRun(random);
+                    }
+                },
+                new NCubedThinningFunction(1.0),
+                checkpointFile,
+                100000);
+
+        final long numberOfSamples = 1000000;
+        long generated = runner.chain(
+                new SplitMix64Random(1), // seed is set for reproducible results
+                numberOfSamples,
+                buffer);
+        buffer.flush();
+
+        System.out.println("Generated " + generated + " of " + numberOfSamples + " samples in this run"
+                + " (checkpoint: " + checkpointFile.getAbsolutePath() + ")");
+
+        // Print rank acceptability indices
+        DoubleFormatter formatter = new DoubleFormatter();
+        double[][] rankAcceptabilityIndex = acceptability.getRankAcceptabilityIndices();
+
+        System.out.println("Table of rank acceptability indices:\nrank\t1\t2\t3\t4");
+        for (int i = 0; i < marginalValues.length; i++) {
+            System.out.println("a" + (i + 1) + "\t" + formatter.format(rankAcceptabilityIndex[i]));
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package polyrun.examples;
+
+import polyrun.constraints.Constraint;
+import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.pipeline.ChainCoalescer;
+import polyrun.examples.sampling.RandomWalkFactory;
+import polyrun.examples.scoring.BlockBuffer;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.sampling.HitAndRun;
+import polyrun.sampling.RandomWalk;
+import polyrun.thinning.NCubedThinningFunction;
+import polyrun.thinning.ThinningFunction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class CoalescingExample {
+
+    // Shared instances, so that requests using them are recognized as the same chain
+    private static final RandomWalkFactory HIT_AND_RUN = new RandomWalkFactory() {
+        public RandomWalk create(Random random) {
+            return new HitAndRun(random);
+        }
+    };
+    private static final ThinningFunction THINNING = new NCubedThinningFunction(1.0);
+
+    public static void main(String[] args) throws Exception {
+        // This example simulates a burst of requests that evaluate different subsets of the actions of
+        // WeightSpaceExample over the same weight space. Requests with the same seed share a single chain.
+
+        String[] actions = WeightSpaceExample.ACTIONS;
+        int numberOfCriteria = WeightSpaceExample.MARGINAL_VALUES[0].length;
+
+        // Each request evaluates the actions in the corresponding row
+        final int[][] requests = new int[][]{
+                {0, 1, 2, 3, 4},
+                {0, 2, 3},
+                {1, 2},
+                {0, 3, 4},
+                {2, 3, 4},
+                {0, 1}
+        };
+        final int numberOfSamples = 10000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        ChainCoalescer coalescer = new ChainCoalescer(executor);
+
+        try {
+            List<RankAcceptability> acceptabilities = new ArrayList<RankAcceptability>();
+            List<BlockBuffer> buffers = new ArrayList<BlockBuffer>();
+            List<Future<Long>> futures = new ArrayList<Future<Long>>();
+
+            for (int r = 0; r < requests.length; r++) {
+                double[][] marginalValues = new double[requests[r].length][];
+                for (int i = 0; i < requests[r].length; i++) {
+                    marginalValues[i] = WeightSpaceExample.MARGINAL_VALUES[requests[r][i]];
+                }
+
+                RankAcceptability acceptability = new RankAcceptability(new WeightedSumModel(marginalValues));
+                BlockBuffer buffer = new BlockBuffer(numberOfCriteria, acceptability);
+                acceptabilities.add(acceptability);
+                buffers.add(buffer);
+
+                // Every request builds its own (equal) list of constraints
+                futures.add(coalescer.submit(buildConstraints(), HIT_AND_RUN, THINNING, 11, numberOfSamples, buffer));
+            }
+
+            for (int r = 0; r < requests.length; r++) {
+                futures.get(r).get();
+                buffers.get(r).flush();
+
+                double[][] rankAcceptabilityIndex = acceptabilities.get(r).getRankAcceptabilityIndices();
+
+                System.out.println("Request " + (r + 1) + " - first rank acceptability indices:");
+                for (int i = 0; i < requests[r].length; i++) {
+                    System.out.println("\t" + actions[requests[r][i]] + "\t"
+                            + BigDecimal.valueOf(rankAcceptabilityIndex[i][0]).setScale(3, RoundingMode.HALF_UP));
+                }
+            }
+
+            System.out.println("\nRequests: " + coalescer.getNumberOfRequests() + ", chains: " + coalescer.getNumberOfChains());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static List<Constraint> buildConstraints() {
+        int numberOfCriteria = WeightSpaceExample.MARGINAL_VALUES[0].length;
+        List<Constraint> constraints = new ArrayList<Constraint>();
+
+        // Normalization and bounds given by both decision makers
+        double[] ones = new double[numberOfCriteria];
+        for (int j = 0; j < numberOfCriteria; j++) {
+            ones[j] = 1.0;
+        }
+        constraints.add(new SimpleConstraint(ones, "=", 1.0));
+
+        for (int j = 0; j < numberOfCriteria; j++) {
+            double[] lhs = new double[numberOfCriteria];
+            lhs[j] = 1.0;
+
+            constraints.add(new SimpleConstraint(lhs, ">=", Math.min(WeightSpaceExample.DM1_WEIGHTS[j], WeightSpaceExample.DM2_WEIGHTS[j])));
+            constraints.add(new SimpleConstraint(lhs, "<=", Math.max(WeightSpaceExample.DM1_WEIGHTS[j], WeightSpaceExample.DM2_WEIGHTS[j])));
+        }
+
+        return constraints;
+    }
+}
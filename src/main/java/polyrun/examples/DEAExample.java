@@ -3,16 +3,24 @@ package polyrun.examples;
 
 import polyrun.PolytopeRunner;
 import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.scoring.Blocks;
+import polyrun.examples.scoring.EfficiencyAcceptability;
+import polyrun.examples.scoring.RatioEfficiencyModel;
+import polyrun.examples.storage.FloatSampleStore;
 import polyrun.sampling.HitAndRun;
 import polyrun.thinning.NCubedThinningFunction;
 
 import java.text.DecimalFormat;
+import java.util.Arrays;
 import java.util.Random;
 
 public class DEAExample {
 
     public static void main(String[] args) throws Exception {
         // Example for data set from paper https://doi.org/10.1016/j.omega.2016.03.003
+        // Run with --float to keep samples as 32-bit floats and evaluate efficiencies on them directly.
+
+        final boolean floats = Arrays.asList(args).contains("--float");
 
         String[] DMUName = new String[]{"WAW", "KRK", "KAT", "WRO", "POZ", "LCJ", "GDN", "SZZ", "BZG", "RZE", "IEG"};
         double[][] inputs = new double[][]{
@@ -44,8 +52,6 @@ public class DEAExample {
         };
 
         int numberOfDMUs = DMUName.length;
-        int numberOfInputs = inputs[0].length;
-        int numberOfOutputs = outputs[0].length;
 
         // Define basic weight space for u and v
         double[][] lhs = new double[][]{
@@ -70,73 +76,41 @@ public class DEAExample {
         // Setup Chebyshev center as start point
         runner.setAnyStartPoint();
 
-        // Generate 10000 samples
-        double[][] samples = runner.chain(
-                new HitAndRun(new Random(0)),
-                new NCubedThinningFunction(1.0),
-                10000);
-
         int numberOfIntervals = 10;
         double intervalSize = 1.0 / (double) numberOfIntervals;
 
-        int[][] acceptedSamplesPerInterval = new int[numberOfDMUs][numberOfIntervals];
-
-        for (int i = 0; i < samples.length; i++) {
-            double[] v = new double[numberOfInputs];
-            double[] u = new double[numberOfOutputs];
-
-            System.arraycopy(samples[i], 0, v, 0, numberOfInputs);
-            System.arraycopy(samples[i], numberOfInputs, u, 0, numberOfOutputs);
-            double[] efficiency = new double[numberOfDMUs];
-            for (int j = 0; j < numberOfDMUs; j++) {
-                efficiency[j] = calculateEfficiency(inputs[j], outputs[j], v, u);
-            }
-
-            double maximalEfficiency = max(efficiency);
-
-            for (int j = 0; j < numberOfDMUs; j++) {
-                acceptedSamplesPerInterval[j][efficiency[j] == 0.0 ? 0 : (int) Math.ceil(efficiency[j] / maximalEfficiency / intervalSize) - 1]++;
-            }
+        // Distribution of efficiencies E = (u^T * output) / (v^T * input) relative to the best DMU
+        RatioEfficiencyModel model = new RatioEfficiencyModel(inputs, outputs);
+        EfficiencyAcceptability acceptability = new EfficiencyAcceptability(model, numberOfIntervals);
+
+        // Generate 10000 samples and calculate the distribution
+        if (floats) {
+            FloatSampleStore store = new FloatSampleStore(model.getSampleDimension(), 10000);
+            runner.chain(
+                    new HitAndRun(new Random(0)),
+                    new NCubedThinningFunction(1.0),
+                    10000,
+                    store);
+            store.consume(model, acceptability);
+        } else {
+            double[][] samples = runner.chain(
+                    new HitAndRun(new Random(0)),
+                    new NCubedThinningFunction(1.0),
+                    10000);
+            Blocks.consume(samples, acceptability);
         }
 
+        double[][] efficiencyAcceptabilityIndex = acceptability.getEfficiencyAcceptabilityIndices();
+
         DecimalFormat format = new DecimalFormat("#.###");
 
         for (int i = 0; i < numberOfDMUs; i++) {
             System.out.println("DMU: " + DMUName[i]);
             for (int j = 0; j < numberOfIntervals; j++) {
                 System.out.println("    " + (j == 0 ? "[" : "(") + format.format(intervalSize * j) + ";" + format.format(intervalSize * (j + 1)) + "]: " +
-                        format.format(acceptedSamplesPerInterval[i][j] / (double) samples.length));
+                        format.format(efficiencyAcceptabilityIndex[i][j]));
             }
             System.out.println();
         }
     }
-
-    private static double max(double[] array) {
-        double max = array[0];
-
-        for (int i = 1; i < array.length; i++) {
-            if (max < array[i]) {
-                max = array[i];
-            }
-        }
-
-        return max;
-    }
-
-    private static double calculateEfficiency(double[] input, double[] output, double[] v, double[] u) {
-        // E = (u^T  * output) / (v^T * input)
-
-        double nom = 0.0;
-        double denom = 0.0;
-
-        for (int i = 0; i < output.length; i++) {
-            nom += output[i] * u[i];
-        }
-
-        for (int i = 0; i < input.length; i++) {
-            denom += input[i] * v[i];
-        }
-
-        return nom / denom;
-    }
 }
@@ -4,6 +4,13 @@ import polyrun.PolytopeRunner;
 import polyrun.constraints.Constraint;
 import polyrun.constraints.ConstraintsSystem;
 import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.constraints.EqualityReduction;
+import polyrun.examples.scoring.AssignmentModel;
+import polyrun.examples.scoring.BitsetConcordanceAssignmentModel;
+import polyrun.examples.scoring.Blocks;
+import polyrun.examples.scoring.ClassAcceptability;
+import polyrun.examples.scoring.ConcordanceAssignmentModel;
+import polyrun.examples.scoring.VolumeClassAcceptability;
 import polyrun.sampling.HitAndRun;
 import polyrun.thinning.NCubedThinningFunction;
 
@@ -18,6 +25,11 @@ public class ElectreTRIrCExample {
     public static void main(String[] args) throws Exception {
         // This example contains calculation of stochastic results for ELECTRE TRI rC presented
         // https://doi.org/10.1016/j.enbuild.2018.05.032
+        // Run with --bitsets to evaluate concordance indices on packed marginal concordance indicators,
+        // or with --volume to compute class acceptabilities from volumes of the weight space instead of samples.
+
+        final boolean bitsets = Arrays.asList(args).contains("--bitsets");
+        final boolean volume = Arrays.asList(args).contains("--volume");
 
         final int numberOfCriteria = 7;
 
@@ -68,19 +80,34 @@ public class ElectreTRIrCExample {
         int[] weightIndex = getWeightIndicesForCriteria(numberOfCriteria, criteriaOrder);
 
         // Build constraints
-        ConstraintsSystem constraints = buildConstraintsSystem(criteriaOrder, preferenceIntensity, Z);
+        List<Constraint> constraintsList = buildConstraints(criteriaOrder, preferenceIntensity, Z);
+
+        double[][] assignments;
 
-        // Sample
-        double[][] samples = sample(constraints, 1);
+        if (volume) {
+            // Partition the 3-dimensional (after eliminating both equalities) weight space
+            VolumeClassAcceptability acceptability = new VolumeClassAcceptability(
+                    new BitsetConcordanceAssignmentModel(alternatives, characteristicProfiles, criteriaDirections, weightIndex, lambda),
+                    EqualityReduction.of(constraintsList));
+            acceptability.compute(7);
+            assignments = acceptability.getClassAcceptabilityIndices();
 
-        // Calculate stochastic assignments
-        double[][] assignments = calculateAssignments(
-                alternatives,
-                characteristicProfiles,
-                criteriaDirections,
-                samples,
-                weightIndex,
-                lambda);
+            System.out.println("Share of volume with assignment taken from the center of a box: "
+                    + BigDecimal.valueOf(100.0 * acceptability.getUnresolvedShare()).setScale(2, RoundingMode.HALF_UP) + "%");
+        } else {
+            // Sample
+            double[][] samples = sample(new ConstraintsSystem(constraintsList), 1);
+
+            // Calculate stochastic assignments
+            assignments = calculateAssignments(
+                    alternatives,
+                    characteristicProfiles,
+                    criteriaDirections,
+                    samples,
+                    weightIndex,
+                    lambda,
+                    bitsets);
+        }
 
         // Print assignments
         System.out.println("Table of assignments [in %]:");
@@ -101,71 +128,16 @@ public class ElectreTRIrCExample {
                                                    boolean[] criteriaDirections,
                                                    double[][] samples,
                                                    int[] weightIndex,
-                                                   double lambda) {
-        double[][] assignments = new double[alternatives.length][characteristicProfiles.length];
-
-        for (double[] sample : samples) {
-            for (int j = 0; j < alternatives.length; j++) {
-                Integer bestClass = null;
-                Integer worstClass = null;
-
-                double[] alternativeOutranksProfileConcordanceIndex = new double[characteristicProfiles.length];
-                double[] profileOutranksAlternativeConcordanceIndex = new double[characteristicProfiles.length];
-
-                for (int k = 0; k < characteristicProfiles.length; k++) {
-                    alternativeOutranksProfileConcordanceIndex[k] = comprehensiveConcordanceIndex(
-                            alternatives[j],
-                            characteristicProfiles[k],
-                            criteriaDirections,
-                            sample,
-                            weightIndex);
-                    profileOutranksAlternativeConcordanceIndex[k] = comprehensiveConcordanceIndex(
-                            characteristicProfiles[k],
-                            alternatives[j],
-                            criteriaDirections,
-                            sample,
-                            weightIndex);
-                }
-
-                for (int k = 0; k < characteristicProfiles.length; k++) {
-                    if (k > 0
-                            && alternativeOutranksProfileConcordanceIndex[k - 1] >= lambda
-                            && profileOutranksAlternativeConcordanceIndex[k - 1] < lambda
-                            && alternativeOutranksProfileConcordanceIndex[k] > profileOutranksAlternativeConcordanceIndex[k - 1]) {
-                        worstClass = k;
-                    }
-
-                    if (bestClass == null
-                            && k < characteristicProfiles.length - 1
-                            && profileOutranksAlternativeConcordanceIndex[k + 1] >= lambda
-                            && alternativeOutranksProfileConcordanceIndex[k + 1] < lambda
-                            && profileOutranksAlternativeConcordanceIndex[k] > alternativeOutranksProfileConcordanceIndex[k + 1]) {
-                        bestClass = k;
-                    }
-                }
+                                                   double lambda,
+                                                   boolean bitsets) {
+        AssignmentModel model = bitsets
+                ? new BitsetConcordanceAssignmentModel(alternatives, characteristicProfiles, criteriaDirections, weightIndex, lambda)
+                : new ConcordanceAssignmentModel(alternatives, characteristicProfiles, criteriaDirections, weightIndex, lambda);
+        ClassAcceptability acceptability = new ClassAcceptability(model);
 
-                if (worstClass == null) {
-                    worstClass = 0;
-                }
-
-                if (bestClass == null) {
-                    bestClass = characteristicProfiles.length - 1;
-                }
+        Blocks.consume(samples, acceptability);
 
-                for (int k = worstClass; k <= bestClass; k++) {
-                    assignments[j][k] += 1.0;
-                }
-            }
-
-        }
-
-        for (int i = 0; i < alternatives.length; i++) {
-            for (int j = 0; j < characteristicProfiles.length; j++) {
-                assignments[i][j] = assignments[i][j] / (double) samples.length;
-            }
-        }
-
-        return assignments;
+        return acceptability.getClassAcceptabilityIndices();
     }
 
     private static double[][] sample(ConstraintsSystem constraints, int seed) throws Exception {
@@ -192,7 +164,7 @@ public class ElectreTRIrCExample {
         return weightIndex;
     }
 
-    private static ConstraintsSystem buildConstraintsSystem(List<List<Integer>> criteriaOrder, List<Integer> preferenceIntensity, int bestWorstRatio) {
+    private static List<Constraint> buildConstraints(List<List<Integer>> criteriaOrder, List<Integer> preferenceIntensity, int bestWorstRatio) {
         if (bestWorstRatio < 2) {
             throw new IllegalArgumentException("bestWorstRatio");
         }
@@ -244,29 +216,7 @@ public class ElectreTRIrCExample {
         fixedRatioLhs[numberOfWeights - 1] = -1.0; // the highest weight
         constraintsList.add(new SimpleConstraint(fixedRatioLhs, "=", 0.0));
 
-        return new ConstraintsSystem(constraintsList);
-    }
-
-    private static double comprehensiveConcordanceIndex(double[] alternative1,
-                                                        double[] alternative2,
-                                                        boolean[] maximization,
-                                                        double[] weights,
-                                                        int[] weightIndex) {
-        double value = 0.0;
-
-        for (int i = 0; i < weightIndex.length; i++) {
-            value += weights[weightIndex[i]] * marginalConcordanceIndex(alternative1[i], alternative2[i], maximization[i]);
-        }
-
-        return value;
-    }
-
-    private static double marginalConcordanceIndex(double v1, double v2, boolean maximization) {
-        if (maximization) {
-            return v1 >= v2 ? 1.0 : 0.0;
-        } else {
-            return v1 <= v2 ? 1.0 : 0.0;
-        }
+        return constraintsList;
     }
 
     private static String align(int length, String text) {
@@ -0,0 +1,86 @@
+package polyrun.examples;
+
+import polyrun.constraints.Constraint;
+import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.sampling.ReusableSampleSet;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.sampling.HitAndRun;
+import polyrun.thinning.NCubedThinningFunction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class ElicitationExample {
+
+    public static void main(String[] args) throws Exception {
+        // This example simulates interactive elicitation: the decision maker compares pairs of alternatives one
+        // by one, and rank acceptability indices are recalculated after each comparison. Every comparison narrows
+        // the weight space, so samples that still satisfy it are reused and only the missing ones are generated.
+
+        // Marginal values of alternatives
+        double[][] marginalValues = new double[][]{
+                {1.0, 0.2, 0.3},
+                {0.4, 0.9, 0.1},
+                {0.3, 0.4, 0.8},
+                {0.6, 0.6, 0.5}
+        };
+
+        // Weight space: w1, w2, w3 >= 0, w1 + w2 + w3 = 1
+        List<Constraint> constraints = new ArrayList<Constraint>();
+        constraints.add(new SimpleConstraint(new double[]{1, 0, 0}, ">=", 0));
+        constraints.add(new SimpleConstraint(new double[]{0, 1, 0}, ">=", 0));
+        constraints.add(new SimpleConstraint(new double[]{0, 0, 1}, ">=", 0));
+        constraints.add(new SimpleConstraint(new double[]{1, 1, 1}, "=", 1));
+
+        // Pairwise comparisons given by the decision maker (a_i is preferred to a_j)
+        int[][] comparisons = new int[][]{
+                {3, 2},
+                {0, 1},
+                {3, 0}
+        };
+
+        final int numberOfSamples = 10000;
+        Random random = new Random(1); // seed is set for reproducible results
+        ReusableSampleSet sampleSet = new ReusableSampleSet(constraints);
+
+        for (int step = 0; step <= comparisons.length; step++) {
+            if (step > 0) {
+                int preferred = comparisons[step - 1][0];
+                int other = comparisons[step - 1][1];
+
+                // U(a_preferred) - U(a_other) >= 0
+                double[] lhs = new double[marginalValues[0].length];
+                for (int j = 0; j < lhs.length; j++) {
+                    lhs[j] = marginalValues[preferred][j] - marginalValues[other][j];
+                }
+
+                int retained = sampleSet.tighten(Collections.<Constraint>singletonList(new SimpleConstraint(lhs, ">=", 0)));
+
+                System.out.println("\na_" + (preferred + 1) + " is preferred to a_" + (other + 1)
+                        + " - retained samples: " + retained);
+            }
+
+            int generated = sampleSet.sample(numberOfSamples, new HitAndRun(random), new NCubedThinningFunction(1.0));
+            System.out.println("Generated samples: " + generated);
+
+            RankAcceptability acceptability = new RankAcceptability(new WeightedSumModel(marginalValues));
+            sampleSet.consume(numberOfSamples, acceptability);
+
+            double[][] rankAcceptabilityIndex = acceptability.getRankAcceptabilityIndices();
+            for (int i = 0; i < marginalValues.length; i++) {
+                System.out.print("a_" + (i + 1) + "\t");
+
+                for (int r = 0; r < marginalValues.length; r++) {
+                    System.out.print(BigDecimal.valueOf(rankAcceptabilityIndex[i][r]).setScale(2, RoundingMode.HALF_UP) + "\t");
+                }
+
+                System.out.println();
+            }
+        }
+    }
+}
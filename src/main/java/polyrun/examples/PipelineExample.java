@@ -0,0 +1,73 @@
+package polyrun.examples;
+
+import polyrun.PolytopeRunner;
+import polyrun.examples.pipeline.SamplePipeline;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.TopKRankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.sampling.HitAndRun;
+import polyrun.thinning.NCubedThinningFunction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+public class PipelineExample {
+
+    public static void main(String[] args) throws Exception {
+        // This example feeds one chain over the weight space of WeightSpaceExample to two analyses at once:
+        // pairwise winning and rank acceptability indices, and central weight vectors of the best alternatives.
+        // The analyses run on their own threads, overlapping with sampling.
+
+        String[] actions = WeightSpaceExample.ACTIONS;
+        WeightedSumModel model = new WeightedSumModel(WeightSpaceExample.MARGINAL_VALUES);
+
+        RankAcceptability acceptability = new RankAcceptability(model);
+        TopKRankAcceptability topAcceptability = new TopKRankAcceptability(model, 1);
+
+        SamplePipeline pipeline = new SamplePipeline(model.getSampleDimension(), acceptability, topAcceptability);
+        pipeline.start();
+
+        PolytopeRunner runner = new PolytopeRunner(WeightSpaceExample.buildWeightSpace());
+        runner.setAnyStartPoint();
+
+        try {
+            runner.chain(
+                    new HitAndRun(new Random(11)), // seed is set for reproducible results
+                    new NCubedThinningFunction(1.0),
+                    100000,
+                    pipeline);
+        } catch (RuntimeException e) {
+            // Stop the analyses, which would otherwise wait for samples that never come
+            pipeline.abort();
+            throw e;
+        }
+
+        // Wait for the analyses to consume all samples
+        pipeline.close();
+
+        double[][] pairwiseWinningIndex = acceptability.getPairwiseWinningIndices();
+        double[][] rankAcceptabilityIndex = acceptability.getRankAcceptabilityIndices();
+
+        System.out.println("Number of samples: " + pipeline.getNumberOfSamples());
+
+        for (int i = 0; i < actions.length; i++) {
+            System.out.println(actions[i]);
+            System.out.println("\trank acceptability indices: " + format(rankAcceptabilityIndex[i]));
+            System.out.println("\tpairwise winning indices:   " + format(pairwiseWinningIndex[i]));
+
+            double[] centralWeightVector = topAcceptability.getCentralWeightVector(i);
+            System.out.println("\tcentral weight vector:      " + (centralWeightVector == null ? "-" : format(centralWeightVector)));
+        }
+    }
+
+    private static String format(double[] values) {
+        StringBuilder text = new StringBuilder();
+
+        for (double value : values) {
+            text.append(BigDecimal.valueOf(value).setScale(3, RoundingMode.HALF_UP)).append(' ');
+        }
+
+        return text.toString();
+    }
+}
@@ -1,16 +1,26 @@
 package polyrun.examples;
 
-import polyrun.PolytopeRunner;
-import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.constraints.EqualityReduction;
+import polyrun.examples.sampling.ReducedPolytopeRunner;
+import polyrun.examples.scoring.Smaa2Acceptability;
+import polyrun.examples.uncertainty.CriteriaSampler;
+import polyrun.examples.uncertainty.ReplicatedEstimate;
+import polyrun.examples.uncertainty.SamplingDesign;
 import polyrun.sampling.HitAndRun;
 import polyrun.thinning.NCubedThinningFunction;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.Random;
 
 public class SMAA2Example {
 
     public static void main(String[] args) throws Exception {
         // This example is based on data set presented in paper https://doi.org/10.1287/opre.49.3.444.11220 (see Section 5)
+        // Run with random, antithetic, lhs or halton as an argument to draw criteria samples from randomized
+        // point sets (see SamplingDesign) instead of a single random stream.
+
+        final SamplingDesign design = args.length > 0 ? SamplingDesign.parse(args[0]) : null;
 
         // Define alternatives
         String[] alternatives = new String[]{
@@ -37,7 +47,7 @@ public class SMAA2Example {
         };
 
         // Criteria directions (true - max, false - min)
-        boolean[] criteriaDirections = new boolean[]{false, false, false, true, true, false, true, true, true, false, true};
+        final boolean[] criteriaDirections = new boolean[]{false, false, false, true, true, false, true, true, true, false, true};
 
         int numberOfAlternatives = alternatives.length;
         int numberOfCriteria = criteriaDirections.length;
@@ -59,10 +69,12 @@ public class SMAA2Example {
         };
         String[] dir = new String[]{">=", ">=", ">=", ">=", ">=", ">=", ">=", ">=", ">=", ">=", ">=", "="};
         double[] rhs = new double[]{0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1};
-        ConstraintsSystem constraints = new ConstraintsSystem(lhs, dir, rhs);
 
-        // Initialize polytope runner
-        PolytopeRunner runner = new PolytopeRunner(constraints);
+        // Eliminate the normalization equality, so the chain runs in numberOfCriteria - 1 dimensions
+        EqualityReduction reduction = new EqualityReduction(lhs, dir, rhs);
+
+        // Initialize polytope runner (samples are lifted back to the original weight space)
+        ReducedPolytopeRunner runner = new ReducedPolytopeRunner(reduction);
 
         // Setup Chebyshev center as start point
         runner.setAnyStartPoint();
@@ -73,6 +85,14 @@ public class SMAA2Example {
                 new NCubedThinningFunction(1.0),
                 1000);
 
+        // Check the reduction
+        double maximalResidual = 0.0;
+        for (double[] weights : sampledWeights) {
+            maximalResidual = Math.max(maximalResidual, reduction.equalityResidual(weights));
+        }
+        System.out.println("Sampled in " + reduction.getReducedDimension() + " of " + reduction.getOriginalDimension()
+                + " dimensions (max. equality residual: " + maximalResidual + ")\n");
+
         // Find the minimum and maximum values per criterion
         double[] minimums = new double[numberOfCriteria];
         double[] maximums = new double[numberOfCriteria];
@@ -90,71 +110,63 @@ public class SMAA2Example {
             }
         }
 
-        // Sample criteria values
-        Random random = new Random(1); // seed is set for reproducible results
-        double[][][] sampledCriteriaValues = new double[1000][numberOfAlternatives][numberOfCriteria];
+        // Criteria values are uncertain - they are distributed uniformly within +/- 10% of the range of each criterion
+        double[] halfWidths = new double[numberOfCriteria];
+        for (int k = 0; k < numberOfCriteria; k++) {
+            halfWidths[k] = (maximums[k] - minimums[k]) / 10.0;
+        }
+        CriteriaSampler criteriaSampler = CriteriaSampler.uniform(criteriaValues, halfWidths);
 
-        for (int i = 0; i < 1000; i++) {
-            for (int j = 0; j < numberOfAlternatives; j++) {
-                for (int k = 0; k < numberOfCriteria; k++) {
-                    double interval = (maximums[k] - minimums[k]) / 10.0;
-                    sampledCriteriaValues[i][j][k] = (criteriaValues[j][k] - interval) + random.nextDouble() * 2.0 * interval;
-                }
-            }
+        // Flatten sampled weights into a single block
+        final double[] weightsBlock = new double[sampledWeights.length * numberOfCriteria];
+        for (int i = 0; i < sampledWeights.length; i++) {
+            System.arraycopy(sampledWeights[i], 0, weightsBlock, i * numberOfCriteria, numberOfCriteria);
         }
 
-        // Calculate acceptability indices
-        double[][] rankAcceptabilityIndex = new double[numberOfAlternatives][numberOfAlternatives];
-        for (int s = 0; s < sampledCriteriaValues.length; s++) {
-            // find best and worst (for scaling)
-            double[] worst = new double[numberOfCriteria];
-            double[] best = new double[numberOfCriteria];
-            System.arraycopy(sampledCriteriaValues[s][0], 0, worst, 0, numberOfCriteria);
-            System.arraycopy(sampledCriteriaValues[s][0], 0, best, 0, numberOfCriteria);
-            for (int i = 1; i < numberOfAlternatives; i++) {
-                for (int k = 0; k < numberOfCriteria; k++) {
-                    if (criteriaDirections[k]) {
-                        if (sampledCriteriaValues[s][i][k] < worst[k]) {
-                            worst[k] = sampledCriteriaValues[s][i][k];
-                        }
-
-                        if (sampledCriteriaValues[s][i][k] > best[k]) {
-                            best[k] = sampledCriteriaValues[s][i][k];
-                        }
-                    } else {
-                        if (sampledCriteriaValues[s][i][k] < best[k]) {
-                            best[k] = sampledCriteriaValues[s][i][k];
-                        }
-
-                        if (sampledCriteriaValues[s][i][k] > worst[k]) {
-                            worst[k] = sampledCriteriaValues[s][i][k];
-                        }
-                    }
-                }
+        // Calculate acceptability indices, central weight vectors and confidence factors in a single pass
+        // (confidence factors are evaluated on a reservoir of 200 criteria samples)
+        final Smaa2Acceptability acceptability = new Smaa2Acceptability(numberOfAlternatives, numberOfCriteria, 200,
+                new Random(1)); // seed is set for reproducible results
+        final double[] marginalValues = new double[numberOfAlternatives * numberOfCriteria];
+        final int numberOfWeights = sampledWeights.length;
+
+        // Sample 1000 performance tables in 10 replicates of 100 (only a single replicate is kept in memory).
+        // Replicates are consecutive parts of one random stream or independently randomized point sets, so
+        // the spread of their rank acceptability indices measures the error of the result.
+        final int numberOfReplicates = 10;
+        final int replicateSize = 100;
+        double[] criteriaSamples = new double[replicateSize * criteriaSampler.getSampleDimension()];
+        ReplicatedEstimate estimate = new ReplicatedEstimate(numberOfAlternatives * numberOfAlternatives);
+        long[] previousCounts = new long[numberOfAlternatives * numberOfAlternatives];
+
+        for (int r = 0; r < numberOfReplicates; r++) {
+            if (design == null) {
+                criteriaSampler.sample(1, r * replicateSize, (r + 1) * replicateSize, criteriaSamples); // seed is set for reproducible results
+            } else {
+                criteriaSampler.sample(design.createPointSet(criteriaSampler.getSampleDimension(), replicateSize, r + 1),
+                        0, replicateSize, criteriaSamples);
             }
 
-            for (int j = 0; j < sampledWeights.length; j++) {
-                double[] comprehensiveValues = new double[numberOfAlternatives];
-                for (int i = 0; i < numberOfAlternatives; i++) {
-                    comprehensiveValues[i] = u(sampledCriteriaValues[s][i], sampledWeights[j], worst, best);
-                }
-
-                for (int i = 0; i < numberOfAlternatives; i++) {
-                    int rank = 1;
+            for (int s = 0; s < replicateSize; s++) {
+                Smaa2Acceptability.scale(criteriaSamples, s * marginalValues.length, criteriaDirections, marginalValues);
+                acceptability.consume(marginalValues, weightsBlock, numberOfWeights);
+            }
 
-                    for (int k = 0; k < numberOfAlternatives; k++) {
-                        if (i != k) {
-                            if (comprehensiveValues[i] < comprehensiveValues[k]) {
-                                rank++;
-                            }
-                        }
-                    }
+            // Indices of the replicate are differences of cumulative counts
+            long[] counts = acceptability.getRankCounts();
+            double[] replicateIndices = new double[counts.length];
 
-                    rankAcceptabilityIndex[i][rank - 1] += 1.0 / (double) (sampledWeights.length * sampledCriteriaValues.length);
-                }
+            for (int k = 0; k < counts.length; k++) {
+                replicateIndices[k] = (counts[k] - previousCounts[k]) / (double) (replicateSize * numberOfWeights);
             }
+
+            previousCounts = counts;
+
+            estimate.add(replicateIndices);
         }
 
+        double[][] rankAcceptabilityIndex = acceptability.getRankAcceptabilityIndices();
+
         // Print header
         System.out.print("Table of rank acceptability indices [in %]:\nrank\t");
         for (int j = 1; j <= numberOfAlternatives; j++) {
@@ -172,15 +184,27 @@ public class SMAA2Example {
 
             System.out.println();
         }
-    }
 
-    private static double u(double[] criteriaValues, double[] weightsVector, double[] worst, double[] best) {
-        double value = 0.0;
+        System.out.println("\nMax. standard error of rank acceptability indices ("
+                + (design == null ? "random stream" : design.getSymbol()) + "): "
+                + BigDecimal.valueOf(100.0 * estimate.getMaximalStandardError()).setScale(2, RoundingMode.HALF_UP) + "%");
 
-        for (int i = 0; i < criteriaValues.length; i++) {
-            value += (criteriaValues[i] * weightsVector[i] - worst[i]) / (best[i] - worst[i]);
+        // Print central weight vectors and confidence factors
+        System.out.print("\nCentral weight vectors and confidence factors:\n\t");
+        for (int j = 1; j <= numberOfCriteria; j++) {
+            System.out.print("w" + j + "\t");
         }
+        System.out.println("p^c");
+
+        DoubleFormatter formatter = new DoubleFormatter();
+        double[] confidenceFactors = acceptability.getConfidenceFactors();
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            double[] centralWeights = acceptability.getCentralWeightVector(i);
 
-        return value;
+            if (centralWeights != null) {
+                System.out.println(alternatives[i] + "\t" + formatter.format(centralWeights) + "\t"
+                        + formatter.format(confidenceFactors[i]));
+            }
+        }
     }
 }
@@ -0,0 +1,61 @@
+package polyrun.examples;
+
+import polyrun.PolytopeRunner;
+import polyrun.examples.random.FastRandom;
+import polyrun.examples.scoring.BlockBuffer;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.examples.shard.ShardCoordinator;
+import polyrun.examples.shard.ShardTask;
+import polyrun.sampling.HitAndRun;
+import polyrun.thinning.NCubedThinningFunction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public class ShardedWeightSpaceExample {
+
+    // Executed by worker processes - every shard runs its own chain over the weight space of WeightSpaceExample
+    public static class Task implements ShardTask<RankAcceptability> {
+
+        public RankAcceptability createAccumulator() {
+            return new RankAcceptability(new WeightedSumModel(WeightSpaceExample.MARGINAL_VALUES));
+        }
+
+        public void run(FastRandom random, long numberOfSamples, RankAcceptability accumulator) throws Exception {
+            PolytopeRunner runner = new PolytopeRunner(WeightSpaceExample.buildWeightSpace());
+            runner.setAnyStartPoint();
+
+            BlockBuffer buffer = new BlockBuffer(WeightSpaceExample.MARGINAL_VALUES[0].length, accumulator);
+            runner.chain(new HitAndRun(random), new NCubedThinningFunction(1.0), Math.toIntExact(numberOfSamples), buffer);
+            buffer.flush();
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        // This example calculates rank acceptability indices of WeightSpaceExample in 16 shards of 100000 samples
+        // executed by worker processes (4 by default). Results are the same for any number of workers.
+
+        int numberOfWorkers = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+
+        ShardCoordinator coordinator = new ShardCoordinator(16, 11, 100000);
+        RankAcceptability acceptability = coordinator.run(Task.class, numberOfWorkers);
+
+        double[][] rankAcceptabilityIndex = acceptability.getRankAcceptabilityIndices();
+        String[] actions = WeightSpaceExample.ACTIONS;
+
+        System.out.println("Number of samples: " + acceptability.getNumberOfSamples());
+        System.out.println("Table of rank acceptability indices:");
+
+        for (int i = 0; i < actions.length; i++) {
+            System.out.print(String.format("%12s", actions[i]) + "\t");
+
+            for (int j = 0; j < actions.length; j++) {
+                System.out.print(BigDecimal.valueOf(rankAcceptabilityIndex[i][j])
+                        .setScale(2, RoundingMode.HALF_UP) + "\t");
+            }
+
+            System.out.println();
+        }
+    }
+}
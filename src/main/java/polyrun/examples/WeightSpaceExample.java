@@ -4,74 +4,67 @@ import polyrun.PolytopeRunner;
 import polyrun.constraints.Constraint;
 import polyrun.constraints.ConstraintsSystem;
 import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.scoring.Blocks;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.examples.storage.QuantizedSampleStore;
 import polyrun.sampling.HitAndRun;
 import polyrun.thinning.NCubedThinningFunction;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 public class WeightSpaceExample {
 
+    // Define actions
+    static final String[] ACTIONS = new String[]{
+            "GREENWAY", "RAIL-BANKING", "TRANSPORT", "OLD STATION", "NO ACTION"
+    };
+
+    static final double[] DM1_WEIGHTS = new double[]{0.11666667, 0.13333333, 0.08333333, 0.16666667, 0.16000000, 0.02000000, 0.08000000, 0.20000000, 0.04000000};
+    static final double[] DM2_WEIGHTS = new double[]{0.1724138, 0.0862069, 0.1379310, 0.1034483, 0.0937500, 0.0468750, 0.1562500, 0.1250000, 0.0781250};
+
+    // Criteria values (Table 1 in the paper)
+//    Object[][] criteriaValues = new Object[][]{
+//            new Integer[] { 165000, 0, 0, 40000, 0 },
+//            new String[] { "Good", "Very good", "Very good", "Low", "Very good" },
+//            new Integer[] { 12, 1, 1, 5, 0 },
+//            new String[] { "Very positive", "Irrelevant", "Irrelevant", "Very positive", "Negative" },
+//            new Integer[] { 830000, 170000, 170000, 240000, 0 },
+//            new Integer[] { 4, 0, 3, 5, 0 },
+//            new String[] { "High", "None", "Medium", "High", "None" },
+//            new Integer[] { 75000, 0, 249200, 19400, 0 },
+//            new Integer[] { 78, 0, 33, 32, 0 },
+//    };
+
+    // Marginal values of the actions (Table 2 in the paper)
+    static final double[][] MARGINAL_VALUES = new double[][]{
+            new double[]{1, 0.6, 0, 1, 0, 0.8, 1, 0.340909090909091, 1},
+            new double[]{0, 1, 0.916666666666667, 0.2, 0.590361445783133, 0, 0, 0, 0},
+            new double[]{0, 1, 0.916666666666667, 0.2, 0.590361445783133, 0.6, 0.7, 1, 0.608333333333333},
+            new double[]{0.3125, 0, 0.5, 1, 0.460843373493976, 1, 1, 0.0881818181818182, 0.6},
+            new double[]{0, 1, 1, 0, 1, 0, 0, 0, 0}
+    };
+
     public static void main(String[] args) throws Exception {
         // This example contains calculation of pairwise wining indices and rank acceptability indices
         // when weight space is defined a priori and known marginal value functions. The case is presented
         // in https://doi.org/10.1016/j.dss.2017.10.010
+        // Run with --quantized to keep samples as 16-bit codes within the weight bounds and score them directly.
 
-        // Define actions
-        String[] actions = new String[]{
-                "GREENWAY", "RAIL-BANKING", "TRANSPORT", "OLD STATION", "NO ACTION"
-        };
-
-        double[] dm1Weights = new double[]{0.11666667, 0.13333333, 0.08333333, 0.16666667, 0.16000000, 0.02000000, 0.08000000, 0.20000000, 0.04000000};
-        double[] dm2Weights = new double[]{0.1724138, 0.0862069, 0.1379310, 0.1034483, 0.0937500, 0.0468750, 0.1562500, 0.1250000, 0.0781250};
-
-        // Criteria values (Table 1 in the paper)
-//        Object[][] criteriaValues = new Object[][]{
-//                new Integer[] { 165000, 0, 0, 40000, 0 },
-//                new String[] { "Good", "Very good", "Very good", "Low", "Very good" },
-//                new Integer[] { 12, 1, 1, 5, 0 },
-//                new String[] { "Very positive", "Irrelevant", "Irrelevant", "Very positive", "Negative" },
-//                new Integer[] { 830000, 170000, 170000, 240000, 0 },
-//                new Integer[] { 4, 0, 3, 5, 0 },
-//                new String[] { "High", "None", "Medium", "High", "None" },
-//                new Integer[] { 75000, 0, 249200, 19400, 0 },
-//                new Integer[] { 78, 0, 33, 32, 0 },
-//        };
-
-        // Marginal values of the actions (Table 2 in the paper)
-        double[][] marginalValues = new double[][]{
-                new double[]{1, 0.6, 0, 1, 0, 0.8, 1, 0.340909090909091, 1},
-                new double[]{0, 1, 0.916666666666667, 0.2, 0.590361445783133, 0, 0, 0, 0},
-                new double[]{0, 1, 0.916666666666667, 0.2, 0.590361445783133, 0.6, 0.7, 1, 0.608333333333333},
-                new double[]{0.3125, 0, 0.5, 1, 0.460843373493976, 1, 1, 0.0881818181818182, 0.6},
-                new double[]{0, 1, 1, 0, 1, 0, 0, 0, 0}
-        };
-
-        int numberOfActions = actions.length;
-        int numberOfCriteria = marginalValues[0].length;
-
-        // Collect constraints on the weight space
-        List<Constraint> constraintsList = new ArrayList<Constraint>();
+        final boolean quantized = Arrays.asList(args).contains("--quantized");
 
-        // Normalization - sum_{i = 1,...,numberOfCriteria} w_i = 1
-        constraintsList.add(new SimpleConstraint(
-                ones(numberOfCriteria), "=", 1.0
-        ));
+        String[] actions = ACTIONS;
+        double[][] marginalValues = MARGINAL_VALUES;
 
-        // Boundaries
-        for (int i = 0; i < numberOfCriteria; i++) {
-            double[] lhs = new double[numberOfCriteria];
-            lhs[i] = 1.0;
-
-            constraintsList.add(new SimpleConstraint(lhs, ">=", Math.min(dm1Weights[i], dm2Weights[i])));
-            constraintsList.add(new SimpleConstraint(lhs, "<=", Math.max(dm1Weights[i], dm2Weights[i])));
-        }
+        int numberOfActions = actions.length;
 
         // Define weight space
-        ConstraintsSystem constraints = new ConstraintsSystem(constraintsList);
+        ConstraintsSystem constraints = buildWeightSpace();
 
         // Initialize polytope runner
         PolytopeRunner runner = new PolytopeRunner(constraints);
@@ -79,51 +72,41 @@ public class WeightSpaceExample {
         // Setup Chebyshev center as start point
         runner.setAnyStartPoint();
 
-        // Generate 1000 samples
-        final int numberOfSamples = 1000;
-        double[][] sampledWeights = runner.chain(
-                new HitAndRun(new Random(11)), // seed is set for reproducible results
-                new NCubedThinningFunction(1.0),
-                numberOfSamples);
-
-        // Calculate winning indices
-        double[][] pairwiseWiningIndex = new double[numberOfActions][numberOfActions];
-        double[][] rankAcceptabilityIndex = new double[numberOfActions][numberOfActions];
-
-        for (double[] weights : sampledWeights) {
-            double[] comprehensiveValues = new double[numberOfActions];
-
-            // Calculate comprehensive values for every action
-            for (int i = 0; i < numberOfActions; i++) {
-                for (int j = 0; j < numberOfCriteria; j++) {
-                    comprehensiveValues[i] += weights[j] * marginalValues[i][j];
-                }
-            }
-
-            for (int i = 0; i < numberOfActions; i++) {
-                int rank = 0;
-
-                for (int j =  0; j < numberOfActions; j++) {
-                    if (i == j)
-                        continue;
+        // Comprehensive values are weighted sums of marginal values
+        WeightedSumModel model = new WeightedSumModel(marginalValues);
+        RankAcceptability acceptability = new RankAcceptability(model);
 
-                    if (comprehensiveValues[i] < comprehensiveValues[j]) {
-                        pairwiseWiningIndex[j][i] += 1.0;
-                        rank++;
-                    }
-                }
+        // Generate 1000 samples and calculate winning indices
+        final int numberOfSamples = 1000;
 
-                rankAcceptabilityIndex[i][rank] += 1.0;
+        if (quantized) {
+            // Every weight lies between the weights of both decision makers (widest range 0.076,
+            // so the step of a code is about 1.2e-6 and the error at most 6e-7)
+            double[] lows = new double[DM1_WEIGHTS.length];
+            double[] highs = new double[DM1_WEIGHTS.length];
+            for (int j = 0; j < lows.length; j++) {
+                lows[j] = Math.min(DM1_WEIGHTS[j], DM2_WEIGHTS[j]);
+                highs[j] = Math.max(DM1_WEIGHTS[j], DM2_WEIGHTS[j]);
             }
-        }
 
-        for (int i = 0; i < numberOfActions; i++) {
-            for (int j = 0; j < numberOfActions; j++) {
-                pairwiseWiningIndex[i][j] = pairwiseWiningIndex[i][j] / (double) numberOfSamples;
-                rankAcceptabilityIndex[i][j] = rankAcceptabilityIndex[i][j] / (double) numberOfSamples;
-            }
+            QuantizedSampleStore store = new QuantizedSampleStore(lows, highs, numberOfSamples);
+            runner.chain(
+                    new HitAndRun(new Random(11)), // seed is set for reproducible results
+                    new NCubedThinningFunction(1.0),
+                    numberOfSamples,
+                    store);
+            store.consume(model, acceptability);
+        } else {
+            double[][] sampledWeights = runner.chain(
+                    new HitAndRun(new Random(11)), // seed is set for reproducible results
+                    new NCubedThinningFunction(1.0),
+                    numberOfSamples);
+            Blocks.consume(sampledWeights, acceptability);
         }
 
+        double[][] pairwiseWiningIndex = acceptability.getPairwiseWinningIndices();
+        double[][] rankAcceptabilityIndex = acceptability.getRankAcceptabilityIndices();
+
         // Find the longest action name
         int headerAlignment = 0;
         for (int i = 0; i < numberOfActions; i++) {
@@ -169,6 +152,29 @@ public class WeightSpaceExample {
         }
     }
 
+    static ConstraintsSystem buildWeightSpace() {
+        int numberOfCriteria = MARGINAL_VALUES[0].length;
+
+        // Collect constraints on the weight space
+        List<Constraint> constraintsList = new ArrayList<Constraint>();
+
+        // Normalization - sum_{i = 1,...,numberOfCriteria} w_i = 1
+        constraintsList.add(new SimpleConstraint(
+                ones(numberOfCriteria), "=", 1.0
+        ));
+
+        // Boundaries
+        for (int i = 0; i < numberOfCriteria; i++) {
+            double[] lhs = new double[numberOfCriteria];
+            lhs[i] = 1.0;
+
+            constraintsList.add(new SimpleConstraint(lhs, ">=", Math.min(DM1_WEIGHTS[i], DM2_WEIGHTS[i])));
+            constraintsList.add(new SimpleConstraint(lhs, "<=", Math.max(DM1_WEIGHTS[i], DM2_WEIGHTS[i])));
+        }
+
+        return new ConstraintsSystem(constraintsList);
+    }
+
     private static double[] ones(int number) {
         if (number < 1) {
             throw new IllegalArgumentException("number");
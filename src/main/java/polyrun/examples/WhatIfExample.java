@@ -0,0 +1,87 @@
+package polyrun.examples;
+
+import polyrun.PolytopeRunner;
+import polyrun.examples.scoring.RankingSession;
+import polyrun.sampling.HitAndRun;
+import polyrun.thinning.NCubedThinningFunction;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class WhatIfExample {
+
+    public static void main(String[] args) throws Exception {
+        // This example uses the weight space and actions of WeightSpaceExample to show what-if analysis: actions
+        // are edited, added and removed, and rank acceptability indices are updated without resampling the weights
+        // or scoring the unchanged actions again.
+
+        int numberOfCriteria = WeightSpaceExample.MARGINAL_VALUES[0].length;
+
+        // Sample the weight space once
+        PolytopeRunner runner = new PolytopeRunner(WeightSpaceExample.buildWeightSpace());
+        runner.setAnyStartPoint();
+
+        final int numberOfSamples = 10000;
+        double[][] sampledWeights = runner.chain(
+                new HitAndRun(new Random(11)), // seed is set for reproducible results
+                new NCubedThinningFunction(1.0),
+                numberOfSamples);
+
+        double[] samples = new double[numberOfSamples * numberOfCriteria];
+        for (int s = 0; s < numberOfSamples; s++) {
+            System.arraycopy(sampledWeights[s], 0, samples, s * numberOfCriteria, numberOfCriteria);
+        }
+
+        RankingSession session = new RankingSession(samples, numberOfSamples, numberOfCriteria);
+        List<String> actions = new ArrayList<String>();
+
+        for (int i = 0; i < WeightSpaceExample.ACTIONS.length; i++) {
+            session.addAlternative(WeightSpaceExample.MARGINAL_VALUES[i]);
+            actions.add(WeightSpaceExample.ACTIONS[i]);
+        }
+        print("Initial actions", actions, session);
+
+        // What if TRANSPORT had the best value on the first criterion?
+        int transport = actions.indexOf("TRANSPORT");
+        double[] edited = session.getMarginalValues(transport);
+        edited[0] = 1.0;
+        session.setAlternative(transport, edited);
+        print("TRANSPORT with u_1 = 1", actions, session);
+
+        // What if there was a compromise between GREENWAY and TRANSPORT?
+        double[] greenway = session.getMarginalValues(actions.indexOf("GREENWAY"));
+        double[] compromise = new double[numberOfCriteria];
+        for (int j = 0; j < numberOfCriteria; j++) {
+            compromise[j] = 0.5 * (greenway[j] + edited[j]);
+        }
+        session.addAlternative(compromise);
+        actions.add("COMPROMISE");
+        print("COMPROMISE added", actions, session);
+
+        // What if doing nothing was not an option?
+        int noAction = actions.indexOf("NO ACTION");
+        session.removeAlternative(noAction);
+        actions.remove(noAction);
+        print("NO ACTION removed", actions, session);
+    }
+
+    private static void print(String title, List<String> actions, RankingSession session) {
+        double[][] rankAcceptabilityIndex = session.getRankAcceptabilityIndices();
+
+        System.out.println(title + " - rank acceptability indices:");
+        for (int i = 0; i < actions.size(); i++) {
+            System.out.print(String.format("%14s", actions.get(i)) + "\t");
+
+            for (int r = 0; r < actions.size(); r++) {
+                System.out.print(BigDecimal.valueOf(rankAcceptabilityIndex[i][r]).setScale(2, RoundingMode.HALF_UP) + "\t");
+            }
+
+            System.out.println();
+        }
+
+        System.out.println();
+    }
+}
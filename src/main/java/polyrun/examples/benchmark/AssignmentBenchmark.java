@@ -0,0 +1,97 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.scoring.AdditiveValueAssignmentModel;
+import polyrun.examples.scoring.AssignmentModel;
+import polyrun.examples.scoring.LevelTableAssignmentModel;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class AssignmentBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares AdditiveValueAssignmentModel with LevelTableAssignmentModel for many non-reference alternatives.
+        // Arguments (optional): number of alternatives, number of criteria, number of levels, number of classes,
+        // number of samples
+
+        final int numberOfAlternatives = args.length > 0 ? Integer.parseInt(args[0]) : 100000;
+        final int numberOfCriteria = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int numberOfLevels = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        final int numberOfClasses = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        final int numberOfSamples = args.length > 4 ? Integer.parseInt(args[4]) : 100;
+
+        Random random = new Random(0);
+
+        // Level 0 of every criterion is the worst one (no variable)
+        int numberOfLevelVariables = numberOfCriteria * (numberOfLevels - 1);
+        int sampleDimension = numberOfLevelVariables + numberOfClasses - 1;
+
+        int[][] variableIndices = new int[numberOfAlternatives][];
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            int[] indices = new int[numberOfCriteria];
+            int count = 0;
+
+            for (int c = 0; c < numberOfCriteria; c++) {
+                int level = random.nextInt(numberOfLevels);
+
+                if (level > 0) {
+                    indices[count++] = c * (numberOfLevels - 1) + level - 1;
+                }
+            }
+
+            variableIndices[i] = Arrays.copyOf(indices, count);
+        }
+
+        // Increasing marginal values on every criterion (summing up to 1 on the best levels) and increasing thresholds
+        double[] samples = new double[numberOfSamples * sampleDimension];
+        for (int s = 0; s < numberOfSamples; s++) {
+            int offset = s * sampleDimension;
+
+            for (int c = 0; c < numberOfCriteria; c++) {
+                double value = 0.0;
+
+                for (int l = 0; l < numberOfLevels - 1; l++) {
+                    value += random.nextDouble() / (numberOfCriteria * (numberOfLevels - 1) * 0.5);
+                    samples[offset + c * (numberOfLevels - 1) + l] = value;
+                }
+            }
+
+            double threshold = 0.0;
+            for (int t = 0; t < numberOfClasses - 1; t++) {
+                threshold += random.nextDouble() / numberOfClasses;
+                samples[offset + numberOfLevelVariables + t] = threshold;
+            }
+        }
+
+        AssignmentModel additive = new AdditiveValueAssignmentModel(sampleDimension, variableIndices, numberOfClasses);
+        AssignmentModel table = new LevelTableAssignmentModel(sampleDimension, variableIndices, numberOfClasses);
+
+        int[] lowest = new int[numberOfSamples * numberOfAlternatives];
+        int[] highest = new int[numberOfSamples * numberOfAlternatives];
+        int[] expected = new int[numberOfSamples * numberOfAlternatives];
+
+        System.out.println("Alternatives: " + numberOfAlternatives + ", criteria: " + numberOfCriteria
+                + ", levels: " + numberOfLevels + ", classes: " + numberOfClasses + ", samples: " + numberOfSamples);
+
+        for (int r = 0; r < 5; r++) {
+            String prefix = r == 0 ? "(warm-up) " : "";
+
+            run(prefix + "AdditiveValueAssignmentModel", additive, samples, numberOfSamples, expected, highest);
+            run(prefix + "LevelTableAssignmentModel\t", table, samples, numberOfSamples, lowest, highest);
+
+            if (!Arrays.equals(expected, lowest)) {
+                throw new IllegalStateException("Assignments differ");
+            }
+        }
+    }
+
+    private static void run(String name, AssignmentModel model, double[] samples, int numberOfSamples,
+                            int[] lowest, int[] highest) {
+        long start = System.nanoTime();
+        model.assign(samples, numberOfSamples, lowest, highest);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(name + "\t" + String.format("%.1f", seconds * 1000.0) + " ms\t"
+                + String.format("%.0f", numberOfSamples / seconds) + " samples / s");
+    }
+}
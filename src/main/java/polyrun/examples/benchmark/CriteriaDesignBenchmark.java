@@ -0,0 +1,113 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.scoring.BlockConsumer;
+import polyrun.examples.scoring.Smaa2Acceptability;
+import polyrun.examples.uncertainty.CriteriaSampler;
+import polyrun.examples.uncertainty.PointSet;
+import polyrun.examples.uncertainty.ReplicatedEstimate;
+import polyrun.examples.uncertainty.SamplingDesign;
+
+import java.util.Random;
+
+public class CriteriaDesignBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares the number of criteria samples needed to estimate SMAA-2 rank acceptability indices
+        // with a given error for plain Monte Carlo and variance reduction designs (see SamplingDesign).
+        // The error of a single run with N criteria samples is the root mean square (over all indices)
+        // of the standard deviation between independently randomized replicates.
+        // Arguments (optional): number of alternatives, number of criteria, number of weights, tolerance, replicates
+
+        final int numberOfAlternatives = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        final int numberOfCriteria = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        final int numberOfWeights = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+        final double tolerance = args.length > 3 ? Double.parseDouble(args[3]) : 0.001;
+        final int numberOfReplicates = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        final int maximalNumberOfSamples = 1 << 16;
+
+        Random random = new Random(0);
+
+        // Performances in [0, 1], uncertain within +/- 0.2
+        double[][] values = new double[numberOfAlternatives][numberOfCriteria];
+        for (double[] row : values) {
+            for (int j = 0; j < numberOfCriteria; j++) {
+                row[j] = random.nextDouble();
+            }
+        }
+
+        double[] halfWidths = new double[numberOfCriteria];
+        for (int j = 0; j < numberOfCriteria; j++) {
+            halfWidths[j] = 0.2;
+        }
+
+        CriteriaSampler sampler = CriteriaSampler.uniform(values, halfWidths);
+
+        double[] weights = SimplexSamples.uniform(random, numberOfWeights, numberOfCriteria);
+
+        System.out.println("Alternatives: " + numberOfAlternatives + ", criteria: " + numberOfCriteria
+                + ", weights: " + numberOfWeights + ", tolerance: " + tolerance + ", replicates: " + numberOfReplicates);
+
+        SamplingDesign[] designs = SamplingDesign.values();
+        int[] samplesToTolerance = new int[designs.length];
+
+        for (int d = 0; d < designs.length; d++) {
+            System.out.println("\n" + designs[d].getSymbol() + "\nsamples\terror\ttime [ms]");
+
+            for (int n = 16; n <= maximalNumberOfSamples; n *= 2) {
+                long start = System.nanoTime();
+
+                ReplicatedEstimate estimate = new ReplicatedEstimate(numberOfAlternatives * numberOfAlternatives);
+                for (int r = 0; r < numberOfReplicates; r++) {
+                    PointSet points = designs[d].createPointSet(sampler.getSampleDimension(), n, r + 1);
+                    estimate.add(rankAcceptabilityIndices(sampler, points, weights, numberOfWeights));
+                }
+
+                double error = estimate.getRootMeanSquareStandardError() * Math.sqrt(numberOfReplicates);
+                System.out.println(n + "\t" + String.format("%.5f", error) + "\t"
+                        + String.format("%.1f", (System.nanoTime() - start) / 1e6 / numberOfReplicates));
+
+                if (error <= tolerance) {
+                    samplesToTolerance[d] = n;
+                    break;
+                }
+            }
+        }
+
+        System.out.println("\nCriteria samples needed for error " + tolerance + ":");
+        for (int d = 0; d < designs.length; d++) {
+            if (samplesToTolerance[d] == 0) {
+                System.out.println(designs[d].getSymbol() + "\t> " + maximalNumberOfSamples);
+            } else {
+                System.out.println(designs[d].getSymbol() + "\t" + samplesToTolerance[d]
+                        + (d == 0 || samplesToTolerance[0] == 0 ? "" : String.format("\t(%.1fx fewer than random)",
+                        samplesToTolerance[0] / (double) samplesToTolerance[d])));
+            }
+        }
+    }
+
+    private static double[] rankAcceptabilityIndices(CriteriaSampler sampler, PointSet points,
+                                                     final double[] weights, final int numberOfWeights) {
+        final int numberOfAlternatives = sampler.getNumberOfAlternatives();
+        final int numberOfCriteria = sampler.getNumberOfCriteria();
+        final Smaa2Acceptability acceptability = new Smaa2Acceptability(numberOfAlternatives, numberOfCriteria, 1, new Random(0));
+        final double[] marginalValues = new double[numberOfAlternatives * numberOfCriteria];
+
+        sampler.stream(points, 64, new BlockConsumer() {
+            public void consume(double[] samples, int numberOfSamples) {
+                for (int s = 0; s < numberOfSamples; s++) {
+                    // Performances are used as marginal values (all criteria are maximized)
+                    System.arraycopy(samples, s * marginalValues.length, marginalValues, 0, marginalValues.length);
+                    acceptability.consume(marginalValues, weights, numberOfWeights);
+                }
+            }
+        });
+
+        double[][] indices = acceptability.getRankAcceptabilityIndices();
+        double[] flat = new double[numberOfAlternatives * numberOfAlternatives];
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            System.arraycopy(indices[i], 0, flat, i * numberOfAlternatives, numberOfAlternatives);
+        }
+
+        return flat;
+    }
+}
@@ -0,0 +1,63 @@
+package polyrun.examples.benchmark;
+
+/**
+ * Effective sample size of a chain estimated with Geyer's initial positive sequence.
+ */
+public class EffectiveSampleSize {
+
+    private EffectiveSampleSize() {
+    }
+
+    public static double estimate(double[][] samples, int coordinate) {
+        int n = samples.length;
+        if (n < 4) {
+            throw new IllegalArgumentException("samples");
+        }
+
+        double mean = 0.0;
+        for (double[] sample : samples) {
+            mean += sample[coordinate];
+        }
+        mean /= n;
+
+        double variance = autocovariance(samples, coordinate, mean, 0);
+        if (variance == 0.0) {
+            return n;
+        }
+
+        // Sum pairs of consecutive autocorrelations while they stay positive
+        double sum = 0.0;
+        for (int lag = 1; lag + 1 < n; lag += 2) {
+            double pair = (autocovariance(samples, coordinate, mean, lag)
+                    + autocovariance(samples, coordinate, mean, lag + 1)) / variance;
+
+            if (pair <= 0.0) {
+                break;
+            }
+
+            sum += pair;
+        }
+
+        return Math.min(n, n / (1.0 + 2.0 * sum));
+    }
+
+    public static double minimum(double[][] samples) {
+        double minimum = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < samples[0].length; i++) {
+            minimum = Math.min(minimum, estimate(samples, i));
+        }
+
+        return minimum;
+    }
+
+    private static double autocovariance(double[][] samples, int coordinate, double mean, int lag) {
+        double value = 0.0;
+
+        for (int i = 0; i + lag < samples.length; i++) {
+            value += (samples[i][coordinate] - mean) * (samples[i + lag][coordinate] - mean);
+        }
+
+        return value / samples.length;
+    }
+}
@@ -0,0 +1,69 @@
+package polyrun.examples.benchmark;
+
+import polyrun.PolytopeRunner;
+import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.random.L64X128Random;
+import polyrun.examples.random.SplitMix64Random;
+import polyrun.sampling.HitAndRun;
+import polyrun.thinning.NCubedThinningFunction;
+
+import java.util.Random;
+
+public class RandomBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares java.util.Random with SplitMix64Random and L64X128Random: raw throughput of
+        // uniform and Gaussian draws, and time per hit-and-run step on the SMAA-2 weight simplex.
+        // Arguments (optional): number of draws, number of samples
+
+        final int numberOfDraws = args.length > 0 ? Integer.parseInt(args[0]) : 50000000;
+        final int numberOfSamples = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        final int dimension = 11;
+
+        // Simplex {w >= 0, sum w = 1}
+        double[][] lhs = new double[dimension + 1][dimension];
+        String[] dir = new String[dimension + 1];
+        double[] rhs = new double[dimension + 1];
+        for (int i = 0; i < dimension; i++) {
+            lhs[i][i] = 1.0;
+            lhs[dimension][i] = 1.0;
+            dir[i] = ">=";
+        }
+        dir[dimension] = "=";
+        rhs[dimension] = 1.0;
+        ConstraintsSystem constraints = new ConstraintsSystem(lhs, dir, rhs);
+
+        for (int r = 0; r < 3; r++) {
+            String prefix = r == 0 ? "(warm-up) " : "";
+            Random[] generators = new Random[]{new Random(r), new SplitMix64Random(r), new L64X128Random(r)};
+
+            for (Random random : generators) {
+                String name = prefix + random.getClass().getSimpleName();
+
+                long start = System.nanoTime();
+                double sum = 0.0;
+                for (int i = 0; i < numberOfDraws; i++) {
+                    sum += random.nextDouble();
+                }
+                double uniformNanos = (System.nanoTime() - start) / (double) numberOfDraws;
+
+                start = System.nanoTime();
+                for (int i = 0; i < numberOfDraws; i++) {
+                    sum += random.nextGaussian();
+                }
+                double gaussianNanos = (System.nanoTime() - start) / (double) numberOfDraws;
+
+                PolytopeRunner runner = new PolytopeRunner(constraints);
+                runner.setAnyStartPoint();
+                start = System.nanoTime();
+                runner.chain(new HitAndRun(random), new NCubedThinningFunction(1.0), numberOfSamples);
+                double chainMillis = (System.nanoTime() - start) / 1e6;
+
+                System.out.println(name + ":\tnextDouble " + String.format("%.2f", uniformNanos) + " ns"
+                        + "\tnextGaussian " + String.format("%.2f", gaussianNanos) + " ns"
+                        + "\tchain " + String.format("%.1f", chainMillis) + " ms"
+                        + (sum == 0.0 ? " " : "")); // use the sum, so the loops are not eliminated
+            }
+        }
+    }
+}
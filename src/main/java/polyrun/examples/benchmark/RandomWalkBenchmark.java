@@ -0,0 +1,78 @@
+package polyrun.examples.benchmark;
+
+import polyrun.PolytopeRunner;
+import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.sampling.CompiledHitAndRun;
+import polyrun.examples.sampling.CoordinateHitAndRun;
+import polyrun.sampling.HitAndRun;
+import polyrun.sampling.RandomWalk;
+import polyrun.thinning.MNThinningFunction;
+import polyrun.thinning.ThinningFunction;
+
+import java.util.Random;
+
+public class RandomWalkBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares HitAndRun, CompiledHitAndRun and CoordinateHitAndRun in terms of effective samples per second.
+        // Arguments (optional): dimension, number of samples, number of repetitions
+
+        final int dimension = args.length > 0 ? Integer.parseInt(args[0]) : 40;
+        final int numberOfSamples = args.length > 1 ? Integer.parseInt(args[1]) : 2000;
+        final int repetitions = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+
+        ConstraintsSystem constraints = buildMonotoneValueFunctionSpace(dimension, 1e-4);
+        ThinningFunction thinningFunction = new MNThinningFunction(0.5);
+
+        System.out.println("Dimension: " + dimension + ", samples: " + numberOfSamples);
+        System.out.println("walk\t\t\ttime [ms]\tmin. ESS\tESS / s");
+
+        for (int r = 0; r < repetitions; r++) {
+            // The first repetition warms up the JVM
+            String prefix = r == 0 ? "(warm-up) " : "";
+
+            run(prefix + "HitAndRun\t\t", constraints, new HitAndRun(new Random(r)), thinningFunction, numberOfSamples);
+            run(prefix + "CompiledHitAndRun\t", constraints, new CompiledHitAndRun(new Random(r)), thinningFunction, numberOfSamples);
+            run(prefix + "CoordinateHitAndRun", constraints, new CoordinateHitAndRun(new Random(r)), thinningFunction, numberOfSamples);
+        }
+    }
+
+    private static void run(String name, ConstraintsSystem constraints, RandomWalk randomWalk,
+                            ThinningFunction thinningFunction, int numberOfSamples) throws Exception {
+        PolytopeRunner runner = new PolytopeRunner(constraints);
+        runner.setAnyStartPoint();
+
+        long start = System.nanoTime();
+        double[][] samples = runner.chain(randomWalk, thinningFunction, numberOfSamples);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        double ess = EffectiveSampleSize.minimum(samples);
+
+        System.out.println(name + "\t" + String.format("%.1f", seconds * 1000.0) + "\t\t"
+                + String.format("%.1f", ess) + "\t\t" + String.format("%.1f", ess / seconds));
+    }
+
+    private static ConstraintsSystem buildMonotoneValueFunctionSpace(int dimension, double epsilon) {
+        // Space of a single marginal value function with strictly increasing values on consecutive levels
+        // (the structure of variables in AVFSortingExample): epsilon <= x_1, x_(i-1) + epsilon <= x_i, x_n <= 1
+        double[][] lhs = new double[dimension + 1][dimension];
+        String[] dir = new String[dimension + 1];
+        double[] rhs = new double[dimension + 1];
+
+        for (int i = 0; i < dimension; i++) {
+            if (i > 0) {
+                lhs[i][i - 1] = -1.0;
+            }
+
+            lhs[i][i] = 1.0;
+            dir[i] = ">=";
+            rhs[i] = epsilon;
+        }
+
+        lhs[dimension][dimension - 1] = 1.0;
+        dir[dimension] = "<=";
+        rhs[dimension] = 1.0;
+
+        return new ConstraintsSystem(lhs, dir, rhs);
+    }
+}
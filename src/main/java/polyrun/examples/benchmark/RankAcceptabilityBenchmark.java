@@ -0,0 +1,58 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.scoring.BlockAccumulator;
+import polyrun.examples.scoring.Blocks;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.TopKRankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+
+import java.util.Random;
+
+public class RankAcceptabilityBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares full ranking (RankAcceptability) with top-k selection (TopKRankAcceptability)
+        // for a weighted sum model with many alternatives.
+        // Arguments (optional): number of alternatives, number of criteria, number of samples, k
+
+        final int numberOfAlternatives = args.length > 0 ? Integer.parseInt(args[0]) : 2000;
+        final int numberOfCriteria = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int numberOfSamples = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        final int k = args.length > 3 ? Integer.parseInt(args[3]) : 3;
+
+        Random random = new Random(0);
+
+        double[][] marginalValues = new double[numberOfAlternatives][numberOfCriteria];
+        for (double[] values : marginalValues) {
+            for (int j = 0; j < numberOfCriteria; j++) {
+                values[j] = random.nextDouble();
+            }
+        }
+
+        double[][] weights = new double[numberOfSamples][numberOfCriteria];
+        for (double[] sample : weights) {
+            SimplexSamples.next(random, sample, 0, numberOfCriteria);
+        }
+
+        WeightedSumModel model = new WeightedSumModel(marginalValues);
+
+        System.out.println("Alternatives: " + numberOfAlternatives + ", criteria: " + numberOfCriteria
+                + ", samples: " + numberOfSamples + ", k: " + k);
+
+        for (int r = 0; r < 5; r++) {
+            String prefix = r == 0 ? "(warm-up) " : "";
+
+            run(prefix + "RankAcceptability\t", weights, new RankAcceptability(model));
+            run(prefix + "TopKRankAcceptability", weights, new TopKRankAcceptability(model, k));
+        }
+    }
+
+    private static <A extends BlockAccumulator<A>> void run(String name, double[][] samples, A accumulator) {
+        long start = System.nanoTime();
+        Blocks.consume(samples, accumulator);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.println(name + "\t" + String.format("%.1f", seconds * 1000.0) + " ms\t"
+                + String.format("%.0f", samples.length / seconds) + " samples / s");
+    }
+}
@@ -0,0 +1,77 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.scoring.BlockBuffer;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.RankingSession;
+import polyrun.examples.scoring.WeightedSumModel;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class RankingSessionBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares recomputation of rank acceptability indices from scratch (RankAcceptability) with
+        // an incremental update (RankingSession) after marginal values of a single alternative are edited.
+        // Arguments (optional): number of alternatives, number of criteria, number of samples
+
+        final int numberOfAlternatives = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        final int numberOfCriteria = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int numberOfSamples = args.length > 2 ? Integer.parseInt(args[2]) : 100000;
+
+        Random random = new Random(0);
+
+        double[][] marginalValues = new double[numberOfAlternatives][numberOfCriteria];
+        for (double[] values : marginalValues) {
+            for (int j = 0; j < numberOfCriteria; j++) {
+                values[j] = random.nextDouble();
+            }
+        }
+
+        double[] samples = SimplexSamples.uniform(random, numberOfSamples, numberOfCriteria);
+
+        RankingSession session = new RankingSession(samples, numberOfSamples, numberOfCriteria);
+        for (double[] values : marginalValues) {
+            session.addAlternative(values);
+        }
+
+        System.out.println("Alternatives: " + numberOfAlternatives + ", criteria: " + numberOfCriteria
+                + ", samples: " + numberOfSamples);
+
+        for (int r = 0; r < 5; r++) {
+            String prefix = r == 0 ? "(warm-up) " : "";
+
+            // Edit a random alternative
+            int alternative = random.nextInt(numberOfAlternatives);
+            for (int j = 0; j < numberOfCriteria; j++) {
+                marginalValues[alternative][j] = random.nextDouble();
+            }
+
+            long start = System.nanoTime();
+            RankAcceptability acceptability = new RankAcceptability(new WeightedSumModel(marginalValues));
+            int blockSize = BlockBuffer.DEFAULT_BLOCK_SIZE;
+            double[] block = new double[blockSize * numberOfCriteria];
+            for (int from = 0; from < numberOfSamples; from += blockSize) {
+                int size = Math.min(blockSize, numberOfSamples - from);
+                System.arraycopy(samples, from * numberOfCriteria, block, 0, size * numberOfCriteria);
+                acceptability.consume(block, size);
+            }
+            double[][] full = acceptability.getRankAcceptabilityIndices();
+            double fullTime = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            session.setAlternative(alternative, marginalValues[alternative]);
+            double[][] incremental = session.getRankAcceptabilityIndices();
+            double incrementalTime = (System.nanoTime() - start) / 1e6;
+
+            boolean equal = true;
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                equal &= Arrays.equals(full[i], incremental[i]);
+            }
+
+            System.out.println(prefix + "from scratch " + String.format("%.1f", fullTime) + " ms\tincremental "
+                    + String.format("%.1f", incrementalTime) + " ms\t" + String.format("%.0fx", fullTime / incrementalTime)
+                    + "\t" + (equal ? "same indices" : "DIFFERENT indices"));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.RankingSession;
+import polyrun.examples.scoring.WeightedSumModel;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class RankingSessionVerifier {
+
+    public static void main(String[] args) throws Exception {
+        // Checks that indices of RankingSession after random sequences of edits (adding, removing and
+        // replacing alternatives) are exactly equal to indices recomputed from scratch by RankAcceptability.
+        // Values are small integers, so that ties between alternatives are frequent.
+        // Arguments (optional): number of edits, number of criteria, number of samples, seed
+
+        final int numberOfEdits = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        final int numberOfCriteria = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        final int numberOfSamples = args.length > 2 ? Integer.parseInt(args[2]) : 3000;
+        final long seed = args.length > 3 ? Long.parseLong(args[3]) : 5;
+
+        Random random = new Random(seed);
+
+        double[] samples = new double[numberOfSamples * numberOfCriteria];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = random.nextInt(4);
+        }
+
+        RankingSession session = new RankingSession(samples, numberOfSamples, numberOfCriteria);
+        List<double[]> alternatives = new ArrayList<double[]>();
+
+        for (int edit = 0; edit < numberOfEdits; edit++) {
+            double[] values = new double[numberOfCriteria];
+            for (int j = 0; j < numberOfCriteria; j++) {
+                values[j] = random.nextInt(3);
+            }
+
+            String operation;
+            int type = alternatives.size() < 2 ? 0 : random.nextInt(3);
+
+            if (type == 0) {
+                operation = "add";
+                alternatives.add(values);
+                session.addAlternative(values);
+            } else if (type == 1) {
+                int alternative = random.nextInt(alternatives.size());
+                operation = "remove a" + alternative;
+                alternatives.remove(alternative);
+                session.removeAlternative(alternative);
+            } else {
+                int alternative = random.nextInt(alternatives.size());
+                operation = "set a" + alternative;
+                alternatives.set(alternative, values);
+                session.setAlternative(alternative, values);
+            }
+
+            RankAcceptability acceptability = new RankAcceptability(
+                    new WeightedSumModel(alternatives.toArray(new double[alternatives.size()][])));
+            acceptability.consume(samples, numberOfSamples);
+
+            if (!Arrays.deepEquals(acceptability.getRankAcceptabilityIndices(), session.getRankAcceptabilityIndices())
+                    || !Arrays.deepEquals(acceptability.getPairwiseWinningIndices(), session.getPairwiseWinningIndices())) {
+                System.out.println("Mismatch after edit " + edit + " (" + operation + ")");
+                System.exit(1);
+            }
+        }
+
+        System.out.println("Edits: " + numberOfEdits + ", criteria: " + numberOfCriteria
+                + ", samples: " + numberOfSamples + ", all indices equal");
+    }
+}
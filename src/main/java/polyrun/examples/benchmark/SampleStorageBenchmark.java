@@ -0,0 +1,101 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.scoring.Blocks;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.examples.storage.CompactSampleStore;
+import polyrun.examples.storage.FloatSampleStore;
+import polyrun.examples.storage.QuantizedSampleStore;
+
+import java.util.Random;
+
+public class SampleStorageBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares scoring of samples kept as double[][] with compact storage (32-bit floats and 16-bit codes)
+        // read directly by the kernels of WeightedSumModel, and with decoding of 16-bit codes into double blocks.
+        // Arguments (optional): number of alternatives, number of criteria, number of samples
+
+        final int numberOfAlternatives = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        final int numberOfCriteria = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        final int numberOfSamples = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+
+        Random random = new Random(0);
+
+        double[][] marginalValues = new double[numberOfAlternatives][numberOfCriteria];
+        for (double[] values : marginalValues) {
+            for (int j = 0; j < numberOfCriteria; j++) {
+                values[j] = random.nextDouble();
+            }
+        }
+
+        WeightedSumModel model = new WeightedSumModel(marginalValues);
+
+        double[][] samples = new double[numberOfSamples][numberOfCriteria];
+        FloatSampleStore floats = new FloatSampleStore(numberOfCriteria);
+        QuantizedSampleStore codes = QuantizedSampleStore.unit(numberOfCriteria);
+
+        for (double[] sample : samples) {
+            SimplexSamples.next(random, sample, 0, numberOfCriteria);
+            floats.consume(sample);
+            codes.consume(sample);
+        }
+
+        // Array of references, object header (16 bytes, 8-byte aligned) and coordinates of every sample
+        long doubleBytes = numberOfSamples * (4L + ((16L + 8L * numberOfCriteria + 7L) / 8L) * 8L);
+
+        System.out.println("Alternatives: " + numberOfAlternatives + ", criteria: " + numberOfCriteria
+                + ", samples: " + numberOfSamples);
+        System.out.println("Memory [MB]: double[][] " + String.format("%.1f", doubleBytes / 1e6)
+                + ", float " + String.format("%.1f", floats.getSizeInBytes() / 1e6)
+                + ", 16-bit " + String.format("%.1f", codes.getSizeInBytes() / 1e6));
+
+        double[][] reference = null;
+
+        for (int r = 0; r < 5; r++) {
+            String prefix = r == 0 ? "(warm-up) " : "";
+
+            long start = System.nanoTime();
+            RankAcceptability acceptability = new RankAcceptability(model);
+            Blocks.consume(samples, acceptability);
+            report(prefix + "double[][]\t", start, numberOfSamples, acceptability.getRankAcceptabilityIndices(), null);
+            reference = acceptability.getRankAcceptabilityIndices();
+
+            run(prefix + "float (direct)", floats, model, numberOfSamples, reference, true);
+            run(prefix + "16-bit (direct)", codes, model, numberOfSamples, reference, true);
+            run(prefix + "16-bit (decoded)", codes, model, numberOfSamples, reference, false);
+        }
+    }
+
+    private static void run(String name, CompactSampleStore store, WeightedSumModel model, int numberOfSamples,
+                            double[][] reference, boolean direct) {
+        long start = System.nanoTime();
+        RankAcceptability acceptability = new RankAcceptability(model);
+
+        if (direct) {
+            store.consume(model, acceptability);
+        } else {
+            store.consume(acceptability);
+        }
+
+        report(name, start, numberOfSamples, acceptability.getRankAcceptabilityIndices(), reference);
+    }
+
+    private static void report(String name, long start, int numberOfSamples, double[][] indices, double[][] reference) {
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        // Largest difference of rank acceptability indices from the result for doubles
+        double difference = 0.0;
+        if (reference != null) {
+            for (int i = 0; i < indices.length; i++) {
+                for (int r = 0; r < indices[i].length; r++) {
+                    difference = Math.max(difference, Math.abs(indices[i][r] - reference[i][r]));
+                }
+            }
+        }
+
+        System.out.println(name + "\t" + String.format("%.1f", seconds * 1000.0) + " ms\t"
+                + String.format("%.0f", numberOfSamples / seconds) + " samples / s"
+                + (reference == null ? "" : "\tmax. difference " + String.format("%.1e", difference)));
+    }
+}
@@ -0,0 +1,40 @@
+package polyrun.examples.benchmark;
+
+import java.util.Random;
+
+/**
+ * Uniform samples from the unit simplex (normalized exponential variables), used as weights by the benchmarks.
+ */
+final class SimplexSamples {
+
+    private SimplexSamples() {
+    }
+
+    /**
+     * Returns numberOfSamples samples stored row by row in a flat array.
+     */
+    static double[] uniform(Random random, int numberOfSamples, int dimension) {
+        double[] samples = new double[numberOfSamples * dimension];
+        for (int s = 0; s < numberOfSamples; s++) {
+            next(random, samples, s * dimension, dimension);
+        }
+
+        return samples;
+    }
+
+    /**
+     * Writes a single sample to samples[offset, offset + dimension).
+     */
+    static void next(Random random, double[] samples, int offset, int dimension) {
+        double sum = 0.0;
+
+        for (int j = 0; j < dimension; j++) {
+            samples[offset + j] = -Math.log(1.0 - random.nextDouble());
+            sum += samples[offset + j];
+        }
+
+        for (int j = 0; j < dimension; j++) {
+            samples[offset + j] /= sum;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package polyrun.examples.benchmark;
+
+import polyrun.constraints.Constraint;
+import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.lp.SimplexSolver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class SimplexSolverVerifier {
+
+    private static final int DIMENSION = 3;
+    private static final double TOLERANCE = 1e-6;
+
+    public static void main(String[] args) throws Exception {
+        // Checks SimplexSolver on random bounded polytopes in three dimensions against enumeration of all
+        // vertices (intersections of three constraints). Constraints are given as "<=" or negated as ">=",
+        // every second system contains an equality (stated twice, so that it is redundant) and every system
+        // is also checked to become infeasible after adding a constraint that cuts off the whole box.
+        // Arguments (optional): number of systems, number of objectives per system, seed
+
+        final int numberOfSystems = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        final int numberOfObjectives = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        final long seed = args.length > 2 ? Long.parseLong(args[2]) : 5;
+
+        Random random = new Random(seed);
+        int numberOfMismatches = 0;
+        long numberOfPivots = 0;
+
+        for (int system = 0; system < numberOfSystems; system++) {
+            // Rows of A x <= b (used for enumeration) around a point that satisfies all of them
+            List<double[]> rows = new ArrayList<double[]>();
+            List<Double> rhs = new ArrayList<Double>();
+
+            double[] point = new double[DIMENSION];
+            for (int j = 0; j < DIMENSION; j++) {
+                point[j] = random.nextGaussian();
+            }
+
+            for (int j = 0; j < DIMENSION; j++) {
+                double[] upper = new double[DIMENSION];
+                upper[j] = 1.0;
+                add(rows, rhs, upper, point[j] + 1.0 + random.nextDouble());
+
+                double[] lower = new double[DIMENSION];
+                lower[j] = -1.0;
+                add(rows, rhs, lower, -point[j] + 1.0 + random.nextDouble());
+            }
+
+            for (int k = 0; k < 6; k++) {
+                double[] row = new double[DIMENSION];
+                for (int j = 0; j < DIMENSION; j++) {
+                    row[j] = random.nextGaussian();
+                }
+
+                add(rows, rhs, row, dot(row, point) + 0.5 * random.nextDouble());
+            }
+
+            List<Constraint> constraints = new ArrayList<Constraint>();
+            for (int i = 0; i < rows.size(); i++) {
+                if (random.nextBoolean()) {
+                    constraints.add(new SimpleConstraint(rows.get(i), "<=", rhs.get(i)));
+                } else {
+                    constraints.add(new SimpleConstraint(scale(rows.get(i), -1.0), ">=", -rhs.get(i)));
+                }
+            }
+
+            if (system % 2 == 0) {
+                double[] equality = {1.0, 1.0, -1.0};
+                double value = dot(equality, point);
+
+                constraints.add(new SimpleConstraint(equality, "=", value));
+                constraints.add(new SimpleConstraint(scale(equality, 2.0), "=", 2.0 * value));
+                add(rows, rhs, equality, value);
+                add(rows, rhs, scale(equality, -1.0), -value);
+            }
+
+            SimplexSolver solver = new SimplexSolver(constraints);
+
+            for (int o = 0; o < numberOfObjectives; o++) {
+                double[] objective = new double[DIMENSION];
+                for (int j = 0; j < DIMENSION; j++) {
+                    objective[j] = random.nextGaussian();
+                }
+
+                double maximum = solver.maximize(objective);
+                double[] solution = solver.getSolution();
+                double expected = maximumOverVertices(rows, rhs, objective);
+
+                if (Math.abs(maximum - expected) > TOLERANCE
+                        || Math.abs(dot(objective, solution) - maximum) > TOLERANCE
+                        || !satisfies(rows, rhs, solution)) {
+                    numberOfMismatches++;
+                    System.out.println("Mismatch in system " + system + ": maximum " + maximum
+                            + ", expected " + expected + ", value at the solution " + dot(objective, solution));
+                }
+            }
+
+            numberOfPivots += solver.getNumberOfPivots();
+
+            // x_0 >= (upper bound of x_0) + 1 contradicts the first constraint
+            double[] cut = new double[DIMENSION];
+            cut[0] = 1.0;
+            constraints.add(new SimpleConstraint(cut, ">=", rhs.get(0) + 1.0));
+
+            if (SimplexSolver.isFeasible(constraints)) {
+                numberOfMismatches++;
+                System.out.println("Infeasible system " + system + " reported as feasible");
+            }
+        }
+
+        System.out.println("Systems: " + numberOfSystems + ", objectives: " + numberOfSystems * numberOfObjectives
+                + ", pivots: " + numberOfPivots + ", mismatches: " + numberOfMismatches);
+
+        if (numberOfMismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void add(List<double[]> rows, List<Double> rhs, double[] row, double b) {
+        rows.add(row);
+        rhs.add(b);
+    }
+
+    private static double maximumOverVertices(List<double[]> rows, List<Double> rhs, double[] objective) {
+        double maximum = Double.NEGATIVE_INFINITY;
+        int n = rows.size();
+
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                for (int k = j + 1; k < n; k++) {
+                    double[][] matrix = {rows.get(i), rows.get(j), rows.get(k)};
+                    double[] vertex = solve(matrix, new double[]{rhs.get(i), rhs.get(j), rhs.get(k)});
+
+                    if (vertex != null && satisfies(rows, rhs, vertex)) {
+                        maximum = Math.max(maximum, dot(objective, vertex));
+                    }
+                }
+            }
+        }
+
+        return maximum;
+    }
+
+    private static boolean satisfies(List<double[]> rows, List<Double> rhs, double[] x) {
+        for (int i = 0; i < rows.size(); i++) {
+            if (dot(rows.get(i), x) > rhs.get(i) + 1e-7) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    // Cramer's rule; null for (nearly) singular matrices
+    private static double[] solve(double[][] matrix, double[] b) {
+        double determinant = determinant(matrix);
+        if (Math.abs(determinant) < 1e-10) {
+            return null;
+        }
+
+        double[] x = new double[DIMENSION];
+        for (int c = 0; c < DIMENSION; c++) {
+            double[][] replaced = new double[DIMENSION][];
+
+            for (int i = 0; i < DIMENSION; i++) {
+                replaced[i] = matrix[i].clone();
+                replaced[i][c] = b[i];
+            }
+
+            x[c] = determinant(replaced) / determinant;
+        }
+
+        return x;
+    }
+
+    private static double determinant(double[][] m) {
+        return m[0][0] * (m[1][1] * m[2][2] - m[1][2] * m[2][1])
+                - m[0][1] * (m[1][0] * m[2][2] - m[1][2] * m[2][0])
+                + m[0][2] * (m[1][0] * m[2][1] - m[1][1] * m[2][0]);
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double sum = 0.0;
+        for (int j = 0; j < a.length; j++) {
+            sum += a[j] * b[j];
+        }
+
+        return sum;
+    }
+
+    private static double[] scale(double[] a, double factor) {
+        double[] result = new double[a.length];
+        for (int j = 0; j < a.length; j++) {
+            result[j] = factor * a[j];
+        }
+
+        return result;
+    }
+}
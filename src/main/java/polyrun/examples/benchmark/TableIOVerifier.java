@@ -0,0 +1,96 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.data.NumericTable;
+import polyrun.examples.data.TableIO;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.util.Random;
+
+public class TableIOVerifier {
+
+    public static void main(String[] args) throws Exception {
+        // Checks that numbers read by TableIO.readCsv (converted without strings, see DecimalConversion) are
+        // bit-for-bit equal to Double.parseDouble of the same tokens. Tokens cover random bit patterns,
+        // Double.toString of values from subnormal to huge, and plain decimals with up to 19 digits.
+        // Arguments (optional): number of values, seed
+
+        final int numberOfValues = args.length > 0 ? Integer.parseInt(args[0]) : 3000000;
+        final long seed = args.length > 1 ? Long.parseLong(args[1]) : 5;
+        final int numberOfColumns = 10;
+
+        File csv = File.createTempFile("verify", ".csv");
+        csv.deleteOnExit();
+
+        Random random = new Random(seed);
+        PrintWriter writer = new PrintWriter(csv);
+
+        try {
+            for (int i = 0; i < numberOfValues; i++) {
+                writer.print(i % numberOfColumns > 0 ? "," : "");
+                writer.print(token(random, i));
+
+                if (i % numberOfColumns == numberOfColumns - 1 || i == numberOfValues - 1) {
+                    writer.println();
+                }
+            }
+        } finally {
+            writer.close();
+        }
+
+        NumericTable table = TableIO.readCsv(csv);
+        double[] data = table.getData();
+
+        // The same seed generates the same tokens again
+        random = new Random(seed);
+        int numberOfMismatches = 0;
+
+        for (int i = 0; i < numberOfValues; i++) {
+            String token = token(random, i);
+            double expected = Double.parseDouble(token);
+
+            if (Double.doubleToRawLongBits(data[i]) != Double.doubleToRawLongBits(expected)) {
+                if (numberOfMismatches++ < 10) {
+                    System.out.println("Mismatch: " + token + " read as " + data[i] + ", expected " + expected);
+                }
+            }
+        }
+
+        System.out.println("Values: " + numberOfValues + ", mismatches: " + numberOfMismatches);
+
+        if (numberOfMismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static String token(Random random, int i) {
+        double value;
+
+        switch (i % 6) {
+            case 0:
+                do {
+                    value = Double.longBitsToDouble(random.nextLong());
+                } while (Double.isNaN(value) || Double.isInfinite(value));
+                break;
+            case 1:
+                value = random.nextDouble() * Math.pow(10, random.nextInt(40) - 20);
+                break;
+            case 2:
+                value = random.nextGaussian() * 1e5;
+                break;
+            case 3:
+                value = random.nextDouble();
+                break;
+            case 4:
+                value = Math.pow(10, random.nextInt(600) - 300) * (1 + random.nextInt(1000));
+                break;
+            default:
+                // Plain decimals, some with more digits than the fast path accepts
+                BigDecimal decimal = new BigDecimal(random.nextLong() >>> (random.nextInt(10) + 1));
+                return decimal.scaleByPowerOfTen(-random.nextInt(30)).toPlainString();
+        }
+
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,136 @@
+package polyrun.examples.benchmark;
+
+import polyrun.examples.data.NumericTable;
+import polyrun.examples.data.TableIO;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class TableLoaderBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        // Compares loading of a performance table with BufferedReader, String.split and Double.parseDouble into
+        // double[][] with the memory-mapped loader (CSV and binary) filling a single flat array.
+        // Arguments (optional): number of rows, number of columns
+
+        final int numberOfRows = args.length > 0 ? Integer.parseInt(args[0]) : 1000000;
+        final int numberOfColumns = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+
+        File csv = File.createTempFile("table", ".csv");
+        File binary = File.createTempFile("table", ".bin");
+        csv.deleteOnExit();
+        binary.deleteOnExit();
+
+        Random random = new Random(0);
+        PrintWriter writer = new PrintWriter(csv);
+
+        try {
+            for (int i = 0; i < numberOfRows; i++) {
+                for (int j = 0; j < numberOfColumns; j++) {
+                    writer.print(j > 0 ? "," : "");
+                    writer.print(random.nextDouble() * 1000.0);
+                }
+
+                writer.println();
+            }
+        } finally {
+            writer.close();
+        }
+
+        TableIO.writeBinary(binary, TableIO.readCsv(csv));
+
+        System.out.println("Rows: " + numberOfRows + ", columns: " + numberOfColumns
+                + ", CSV: " + String.format("%.1f", csv.length() / 1e6) + " MB"
+                + ", binary: " + String.format("%.1f", binary.length() / 1e6) + " MB");
+
+        for (int r = 0; r < 5; r++) {
+            String prefix = r == 0 ? "(warm-up) " : "";
+
+            long start = System.nanoTime();
+            long allocated = allocatedBytes();
+            double[][] rows = readWithSplit(csv);
+            report(prefix + "split, double[][]", start, allocated, checksum(rows));
+
+            start = System.nanoTime();
+            allocated = allocatedBytes();
+            NumericTable table = TableIO.readCsv(csv);
+            report(prefix + "mapped CSV\t", start, allocated, checksum(table));
+
+            start = System.nanoTime();
+            allocated = allocatedBytes();
+            table = TableIO.readBinary(binary);
+            report(prefix + "mapped binary\t", start, allocated, checksum(table));
+        }
+    }
+
+    private static double[][] readWithSplit(File file) throws IOException {
+        List<double[]> rows = new ArrayList<double[]>();
+        BufferedReader reader = new BufferedReader(new FileReader(file));
+
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] tokens = line.split(",");
+                double[] row = new double[tokens.length];
+
+                for (int j = 0; j < tokens.length; j++) {
+                    row[j] = Double.parseDouble(tokens[j]);
+                }
+
+                rows.add(row);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return rows.toArray(new double[rows.size()][]);
+    }
+
+    private static double checksum(double[][] rows) {
+        double sum = 0.0;
+        for (double[] row : rows) {
+            for (double value : row) {
+                sum += value;
+            }
+        }
+
+        return sum;
+    }
+
+    private static double checksum(NumericTable table) {
+        double sum = 0.0;
+        for (double value : table.getData()) {
+            sum += value;
+        }
+
+        return sum;
+    }
+
+    // Bytes allocated by the current thread or -1 if the JVM does not report them
+    private static long allocatedBytes() {
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+
+        if (bean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+
+    private static void report(String name, long start, long allocated, double checksum) {
+        long time = System.nanoTime() - start;
+        long bytes = allocated < 0 ? -1 : allocatedBytes() - allocated;
+
+        System.out.println(name + "\t" + String.format("%.1f", time / 1e6) + " ms"
+                + (bytes < 0 ? "" : ", allocated " + String.format("%.1f", bytes / 1e6) + " MB")
+                + ", checksum " + String.format("%.6e", checksum));
+    }
+}
@@ -0,0 +1,20 @@
+package polyrun.examples.checkpoint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Object whose state can be written to a binary snapshot and restored, so that the computation
+ * continues exactly as it would without interruption.
+ */
+public interface Checkpointable {
+
+    void writeState(DataOutput output) throws IOException;
+
+    /**
+     * Replaces the state of this object with the state read from input. The object has to be
+     * configured the same way (e.g. the same model) as the one that wrote the state.
+     */
+    void readState(DataInput input) throws IOException;
+}
@@ -0,0 +1,147 @@
+package polyrun.examples.checkpoint;
+
+import polyrun.PolytopeRunner;
+import polyrun.SampleConsumer;
+import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.random.FastRandom;
+import polyrun.examples.sampling.RandomWalkFactory;
+import polyrun.thinning.ThinningFunction;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Runs a long chain in segments and writes a snapshot after every segment: the number of generated samples,
+ * the current point, the state of the generator and the state of the consumer (together with the number of samples
+ * and the checkpoint interval, which have to be the same when resuming). If the snapshot file exists
+ * when the chain is started, the chain is resumed from it.
+ * <p>
+ * Every segment starts the same way - a new random walk is created and the runner is explicitly moved to the
+ * last sample - whether the chain has been interrupted or not. Hence, a resumed chain produces bit-identical
+ * samples to an uninterrupted one.
+ */
+public class CheckpointingRunner {
+
+    private static final int MAGIC = 0x504f4c59; // "POLY"
+    private static final int VERSION = 2;
+
+    private final ConstraintsSystem constraints;
+    private final RandomWalkFactory randomWalkFactory;
+    private final ThinningFunction thinningFunction;
+    private final File checkpointFile;
+    private final int checkpointInterval;
+
+    public CheckpointingRunner(ConstraintsSystem constraints,
+                               RandomWalkFactory randomWalkFactory,
+                               ThinningFunction thinningFunction,
+                               File checkpointFile,
+                               int checkpointInterval) {
+        if (checkpointInterval < 1) {
+            throw new IllegalArgumentException("checkpointInterval");
+        }
+
+        this.constraints = constraints;
+        this.randomWalkFactory = randomWalkFactory;
+        this.thinningFunction = thinningFunction;
+        this.checkpointFile = checkpointFile;
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    /**
+     * Generates numberOfSamples samples (including those generated before the last checkpoint) and passes them
+     * to the consumer. The generator and the consumer are overwritten with their saved states when resuming.
+     *
+     * @return number of samples generated by this call
+     */
+    public <C extends SampleConsumer & Checkpointable> long chain(FastRandom random,
+                                                                  long numberOfSamples,
+                                                                  final C consumer) throws Exception {
+        PolytopeRunner runner = new PolytopeRunner(constraints);
+        long numberOfGeneratedSamples = 0;
+        double[] point = null;
+
+        if (checkpointFile.exists()) {
+            DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(checkpointFile)));
+
+            try {
+                if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+                    throw new IOException("Unsupported checkpoint file: " + checkpointFile);
+                }
+
+                if (input.readLong() != numberOfSamples) {
+                    throw new IllegalStateException("Checkpoint was created for a different number of samples");
+                }
+
+                // Thinning restarts with every segment, so other segment boundaries would give another chain
+                if (input.readInt() != checkpointInterval) {
+                    throw new IllegalStateException("Checkpoint was created with a different checkpoint interval");
+                }
+
+                numberOfGeneratedSamples = input.readLong();
+                point = StateIO.readDoubles(input);
+                random.readState(input);
+                consumer.readState(input);
+            } finally {
+                input.close();
+            }
+        } else {
+            runner.setAnyStartPoint();
+        }
+
+        final long resumedFrom = numberOfGeneratedSamples;
+        final double[][] lastSample = new double[1][];
+
+        while (numberOfGeneratedSamples < numberOfSamples) {
+            int segment = (int) Math.min(checkpointInterval, numberOfSamples - numberOfGeneratedSamples);
+
+            if (point != null) {
+                runner.setStartPoint(point);
+            }
+
+            runner.chain(randomWalkFactory.create(random), thinningFunction, segment, new SampleConsumer() {
+                public void consume(double[] sample) {
+                    lastSample[0] = sample;
+                    consumer.consume(sample);
+                }
+            });
+
+            point = lastSample[0].clone();
+            numberOfGeneratedSamples += segment;
+
+            write(numberOfSamples, numberOfGeneratedSamples, point, random, consumer);
+        }
+
+        return numberOfGeneratedSamples - resumedFrom;
+    }
+
+    private void write(long numberOfSamples, long numberOfGeneratedSamples, double[] point,
+                       FastRandom random, Checkpointable consumer) throws IOException {
+        // Write to a temporary file first, so that a crash during writing does not destroy the previous snapshot
+        File temporaryFile = new File(checkpointFile.getPath() + ".tmp");
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)));
+
+        try {
+            output.writeInt(MAGIC);
+            output.writeInt(VERSION);
+            output.writeLong(numberOfSamples);
+            output.writeInt(checkpointInterval);
+            output.writeLong(numberOfGeneratedSamples);
+            StateIO.writeDoubles(output, point);
+            random.writeState(output);
+            consumer.writeState(output);
+        } finally {
+            output.close();
+        }
+
+        Files.move(temporaryFile.toPath(), checkpointFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
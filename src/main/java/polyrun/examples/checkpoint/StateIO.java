@@ -0,0 +1,63 @@
+package polyrun.examples.checkpoint;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+public class StateIO {
+
+    private StateIO() {
+    }
+
+    public static void writeLongs(DataOutput output, long[] values) throws IOException {
+        output.writeInt(values.length);
+
+        for (long value : values) {
+            output.writeLong(value);
+        }
+    }
+
+    /**
+     * Reads array written by writeLongs into target, which has to be of the same length.
+     */
+    public static void readLongs(DataInput input, long[] target) throws IOException {
+        if (input.readInt() != target.length) {
+            throw new IOException("Array length does not match the snapshot");
+        }
+
+        for (int i = 0; i < target.length; i++) {
+            target[i] = input.readLong();
+        }
+    }
+
+    public static void writeDoubles(DataOutput output, double[] values) throws IOException {
+        output.writeInt(values.length);
+
+        for (double value : values) {
+            output.writeDouble(value);
+        }
+    }
+
+    /**
+     * Reads array written by writeDoubles into target, which has to be of the same length.
+     */
+    public static void readDoubles(DataInput input, double[] target) throws IOException {
+        if (input.readInt() != target.length) {
+            throw new IOException("Array length does not match the snapshot");
+        }
+
+        for (int i = 0; i < target.length; i++) {
+            target[i] = input.readDouble();
+        }
+    }
+
+    public static double[] readDoubles(DataInput input) throws IOException {
+        double[] values = new double[input.readInt()];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = input.readDouble();
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,363 @@
+package polyrun.examples.cli;
+
+import polyrun.PolytopeRunner;
+import polyrun.constraints.Constraint;
+import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.random.SplitMix64Random;
+import polyrun.examples.scoring.BlockBuffer;
+import polyrun.examples.scoring.BlockConsumer;
+import polyrun.examples.scoring.ClassAcceptability;
+import polyrun.examples.scoring.ConcordanceAssignmentModel;
+import polyrun.examples.scoring.EfficiencyAcceptability;
+import polyrun.examples.scoring.LevelTableAssignmentModel;
+import polyrun.examples.scoring.RankAcceptability;
+import polyrun.examples.scoring.RatioEfficiencyModel;
+import polyrun.examples.scoring.Smaa2Acceptability;
+import polyrun.examples.scoring.TopKRankAcceptability;
+import polyrun.examples.scoring.WeightedSumModel;
+import polyrun.examples.uncertainty.CriteriaSampler;
+import polyrun.examples.uncertainty.Distribution;
+import polyrun.examples.uncertainty.ExactValue;
+import polyrun.examples.uncertainty.SamplingDesign;
+import polyrun.examples.uncertainty.UniformDistribution;
+import polyrun.sampling.HitAndRun;
+import polyrun.thinning.MNThinningFunction;
+import polyrun.thinning.NCubedThinningFunction;
+import polyrun.thinning.ThinningFunction;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Command-line entry point running the analyses of the examples on models read from files
+ * (see ModelFile and the files in src/main/resources/models).
+ * <p>
+ * Usage: java -cp &lt;classpath&gt; polyrun.examples.cli.Main &lt;model file&gt;...
+ * <p>
+ * Common keys: analysis (rank, topk, efficiency, concordance, avf, smaa2), samples (default 1000), seed (default 1),
+ * thinning (ncubed or mn followed by a constant, default ncubed 1.0) and constraint lines.
+ * <ul>
+ * <li>rank - pairwise winning and rank acceptability indices of a weighted sum;
+ * "alternative name marginal values..."</li>
+ * <li>topk - acceptability indices of the first k ranks and central weight vectors; as rank, plus k</li>
+ * <li>efficiency - DEA efficiency acceptability indices; inputs (number of inputs), intervals (default 10) and
+ * "unit name inputs... outputs..."; the sample is [input weights, output weights]</li>
+ * <li>concordance - ELECTRE TRI-rC class acceptability indices; "alternative name performances...",
+ * "profile name performances..." (from the worst class), direction (max or min for each criterion),
+ * weight-index (index of the weight of each criterion) and lambda</li>
+ * <li>avf - class acceptability indices of threshold-based sorting with an additive value function; classes and
+ * "alternative name variable indices..." (see AdditiveValueAssignmentModel)</li>
+ * <li>smaa2 - SMAA-2 rank acceptability indices, central weight vectors and confidence factors with uncertain
+ * criteria; "alternative name performances..." (numbers or distributions, see ModelFile), direction,
+ * criteria-samples (default 1000), reservoir (criteria samples kept for confidence factors, default 200), optional
+ * spread (exact performances become uniform within +/- spread times the range of the criterion) and optional
+ * design (random, antithetic, lhs or halton - see SamplingDesign)</li>
+ * </ul>
+ */
+public class Main {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: polyrun.examples.cli.Main <model file>...");
+            System.exit(2);
+        }
+
+        for (String path : args) {
+            ModelFile model = ModelFile.read(new File(path));
+
+            long start = System.nanoTime();
+            run(model, System.out);
+            System.out.println(String.format(Locale.ROOT, "# %s: %.1f ms", model.getName(), (System.nanoTime() - start) / 1e6));
+        }
+    }
+
+    public static void run(ModelFile model, PrintStream out) throws Exception {
+        String analysis = model.getString("analysis");
+
+        if ("rank".equals(analysis)) {
+            runRank(model, out);
+        } else if ("topk".equals(analysis)) {
+            runTopK(model, out);
+        } else if ("efficiency".equals(analysis)) {
+            runEfficiency(model, out);
+        } else if ("concordance".equals(analysis)) {
+            runConcordance(model, out);
+        } else if ("avf".equals(analysis)) {
+            runAvf(model, out);
+        } else if ("smaa2".equals(analysis)) {
+            runSmaa2(model, out);
+        } else {
+            throw new IllegalArgumentException(model.getName() + ": unknown analysis '" + analysis + "'");
+        }
+    }
+
+    private static void runRank(ModelFile model, PrintStream out) throws Exception {
+        String[] names = names(model, "alternative");
+        double[][] marginalValues = model.getMatrix("alternative", 1);
+
+        RankAcceptability acceptability = new RankAcceptability(new WeightedSumModel(marginalValues));
+        sample(model, marginalValues[0].length, acceptability);
+
+        print(out, "rank acceptability indices", names, acceptability.getRankAcceptabilityIndices());
+        print(out, "pairwise winning indices", names, acceptability.getPairwiseWinningIndices());
+    }
+
+    private static void runTopK(ModelFile model, PrintStream out) throws Exception {
+        String[] names = names(model, "alternative");
+        double[][] marginalValues = model.getMatrix("alternative", 1);
+
+        TopKRankAcceptability acceptability = new TopKRankAcceptability(new WeightedSumModel(marginalValues), model.getInt("k"));
+        sample(model, marginalValues[0].length, acceptability);
+
+        print(out, "rank acceptability indices (first " + acceptability.getK() + " ranks)", names,
+                acceptability.getRankAcceptabilityIndices());
+
+        double[][] centralWeightVectors = new double[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            centralWeightVectors[i] = acceptability.getCentralWeightVector(i);
+        }
+        print(out, "central weight vectors", names, centralWeightVectors);
+    }
+
+    private static void runEfficiency(ModelFile model, PrintStream out) throws Exception {
+        String[] names = names(model, "unit");
+        double[][] data = model.getMatrix("unit", 1);
+        int numberOfInputs = model.getInt("inputs");
+
+        double[][] inputs = new double[data.length][numberOfInputs];
+        double[][] outputs = new double[data.length][data[0].length - numberOfInputs];
+        for (int i = 0; i < data.length; i++) {
+            System.arraycopy(data[i], 0, inputs[i], 0, numberOfInputs);
+            System.arraycopy(data[i], numberOfInputs, outputs[i], 0, outputs[i].length);
+        }
+
+        EfficiencyAcceptability acceptability = new EfficiencyAcceptability(
+                new RatioEfficiencyModel(inputs, outputs), model.getInt("intervals", 10));
+        sample(model, data[0].length, acceptability);
+
+        print(out, "efficiency acceptability indices (intervals of size " + acceptability.getIntervalSize() + ")",
+                names, acceptability.getEfficiencyAcceptabilityIndices());
+    }
+
+    private static void runConcordance(ModelFile model, PrintStream out) throws Exception {
+        String[] names = names(model, "alternative");
+        double[][] alternatives = model.getMatrix("alternative", 1);
+        double[][] profiles = model.getMatrix("profile", 1);
+        int[] weightIndex = model.getInts("weight-index", 0, 0);
+        boolean[] directions = directions(model);
+
+        ConcordanceAssignmentModel assignmentModel = new ConcordanceAssignmentModel(
+                alternatives, profiles, directions, weightIndex, model.getDouble("lambda"));
+        ClassAcceptability acceptability = new ClassAcceptability(assignmentModel);
+        sample(model, assignmentModel.getSampleDimension(), acceptability);
+
+        print(out, "class acceptability indices", names, acceptability.getClassAcceptabilityIndices());
+    }
+
+    private static void runAvf(ModelFile model, PrintStream out) throws Exception {
+        String[] names = names(model, "alternative");
+        int numberOfVariables = constraintDimension(model);
+
+        int[][] variableIndices = new int[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            variableIndices[i] = model.getInts("alternative", i, 1);
+        }
+
+        ClassAcceptability acceptability = new ClassAcceptability(
+                new LevelTableAssignmentModel(numberOfVariables, variableIndices, model.getInt("classes")));
+        sample(model, numberOfVariables, acceptability);
+
+        print(out, "class acceptability indices", names, acceptability.getClassAcceptabilityIndices());
+    }
+
+    private static void runSmaa2(ModelFile model, PrintStream out) throws Exception {
+        String[] names = names(model, "alternative");
+        final boolean[] directions = directions(model);
+        final int numberOfCriteria = directions.length;
+        long seed = model.getLong("seed", 1);
+
+        CriteriaSampler criteriaSampler = new CriteriaSampler(distributions(model, names.length, numberOfCriteria));
+
+        // Weights are sampled once and evaluated with every criteria sample
+        final int numberOfWeights = model.getInt("samples", 1000);
+        final double[] weights = new double[numberOfWeights * numberOfCriteria];
+        sample(model, numberOfCriteria, new BlockConsumer() {
+            private int offset;
+
+            public void consume(double[] samples, int numberOfSamples) {
+                System.arraycopy(samples, 0, weights, offset, numberOfSamples * numberOfCriteria);
+                offset += numberOfSamples * numberOfCriteria;
+            }
+        });
+
+        final Smaa2Acceptability acceptability = new Smaa2Acceptability(names.length, numberOfCriteria,
+                model.getInt("reservoir", 200), new SplitMix64Random(seed));
+        final double[] marginalValues = new double[criteriaSampler.getSampleDimension()];
+
+        BlockConsumer criteriaConsumer = new BlockConsumer() {
+            public void consume(double[] samples, int numberOfSamples) {
+                for (int s = 0; s < numberOfSamples; s++) {
+                    Smaa2Acceptability.scale(samples, s * marginalValues.length, directions, marginalValues);
+                    acceptability.consume(marginalValues, weights, numberOfWeights);
+                }
+            }
+        };
+
+        int numberOfCriteriaSamples = model.getInt("criteria-samples", 1000);
+        if (model.contains("design")) {
+            SamplingDesign design = SamplingDesign.parse(model.getString("design"));
+            criteriaSampler.stream(design.createPointSet(criteriaSampler.getSampleDimension(), numberOfCriteriaSamples, seed),
+                    CriteriaSampler.CHUNK_SIZE, criteriaConsumer);
+        } else {
+            criteriaSampler.stream(seed, numberOfCriteriaSamples, CriteriaSampler.CHUNK_SIZE, criteriaConsumer);
+        }
+
+        print(out, "rank acceptability indices", names, acceptability.getRankAcceptabilityIndices());
+
+        double[] factors = acceptability.getConfidenceFactors();
+        double[][] centralWeightVectors = new double[names.length][];
+        double[][] confidenceFactors = new double[names.length][];
+        for (int i = 0; i < names.length; i++) {
+            centralWeightVectors[i] = acceptability.getCentralWeightVector(i);
+            confidenceFactors[i] = new double[]{factors[i]};
+        }
+        print(out, "central weight vectors", names, centralWeightVectors);
+        print(out, "confidence factors", names, confidenceFactors);
+    }
+
+    private static Distribution[][] distributions(ModelFile model, int numberOfAlternatives, int numberOfCriteria) {
+        Distribution[][] distributions = new Distribution[numberOfAlternatives][];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            distributions[i] = model.getDistributions("alternative", i, 1);
+
+            if (distributions[i].length != numberOfCriteria) {
+                throw new IllegalArgumentException(model.getName() + ": alternative " + (i + 1) + " should have "
+                        + numberOfCriteria + " performances");
+            }
+        }
+
+        if (!model.contains("spread")) {
+            return distributions;
+        }
+
+        // Exact performances become uniform within +/- spread times the range of exact performances of the criterion
+        double spread = model.getDouble("spread");
+
+        for (int j = 0; j < numberOfCriteria; j++) {
+            double minimum = Double.POSITIVE_INFINITY;
+            double maximum = Double.NEGATIVE_INFINITY;
+
+            for (Distribution[] row : distributions) {
+                if (row[j] instanceof ExactValue) {
+                    minimum = Math.min(minimum, ((ExactValue) row[j]).getValue());
+                    maximum = Math.max(maximum, ((ExactValue) row[j]).getValue());
+                }
+            }
+
+            for (Distribution[] row : distributions) {
+                if (row[j] instanceof ExactValue) {
+                    double value = ((ExactValue) row[j]).getValue();
+                    row[j] = new UniformDistribution(value - spread * (maximum - minimum), value + spread * (maximum - minimum));
+                }
+            }
+        }
+
+        return distributions;
+    }
+
+    private static boolean[] directions(ModelFile model) {
+        if (!model.contains("direction")) {
+            throw new IllegalArgumentException(model.getName() + ": missing key 'direction'");
+        }
+
+        String[] directionValues = model.getAll("direction").get(0);
+        boolean[] directions = new boolean[directionValues.length];
+        for (int c = 0; c < directions.length; c++) {
+            directions[c] = "max".equals(directionValues[c]);
+        }
+
+        return directions;
+    }
+
+    private static void sample(ModelFile model, int dimension, BlockConsumer consumer) throws Exception {
+        if (constraintDimension(model) != dimension) {
+            throw new IllegalArgumentException(model.getName() + ": constraints should have " + dimension + " coefficients");
+        }
+
+        List<Constraint> constraints = model.getConstraints(dimension);
+
+        PolytopeRunner runner = new PolytopeRunner(new ConstraintsSystem(constraints));
+        runner.setAnyStartPoint();
+
+        BlockBuffer buffer = new BlockBuffer(dimension, consumer);
+        runner.chain(
+                new HitAndRun(new SplitMix64Random(model.getLong("seed", 1))),
+                thinning(model),
+                model.getInt("samples", 1000),
+                buffer);
+        buffer.flush();
+    }
+
+    private static ThinningFunction thinning(ModelFile model) {
+        if (!model.contains("thinning")) {
+            return new NCubedThinningFunction(1.0);
+        }
+
+        String[] values = model.getAll("thinning").get(0);
+        double constant = model.getDoubles("thinning", 0, 1)[0];
+
+        if ("ncubed".equals(values[0])) {
+            return new NCubedThinningFunction(constant);
+        } else if ("mn".equals(values[0])) {
+            return new MNThinningFunction(constant);
+        }
+
+        throw new IllegalArgumentException(model.getName() + ": unknown thinning function '" + values[0] + "'");
+    }
+
+    private static int constraintDimension(ModelFile model) {
+        List<String[]> constraints = model.getAll("constraint");
+
+        if (constraints.isEmpty()) {
+            throw new IllegalArgumentException(model.getName() + ": no constraints");
+        }
+
+        return constraints.get(0).length - 2;
+    }
+
+    private static String[] names(ModelFile model, String key) {
+        List<String[]> lines = model.getAll(key);
+
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException(model.getName() + ": missing key '" + key + "'");
+        }
+
+        String[] names = new String[lines.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = lines.get(i)[0];
+        }
+
+        return names;
+    }
+
+    private static void print(PrintStream out, String title, String[] names, double[][] matrix) {
+        out.println(title + ":");
+
+        for (int i = 0; i < names.length; i++) {
+            StringBuilder line = new StringBuilder(names[i]);
+
+            if (matrix[i] == null) {
+                line.append("\t-");
+            } else {
+                for (double value : matrix[i]) {
+                    line.append('\t').append(String.format(Locale.ROOT, "%.3f", value));
+                }
+            }
+
+            out.println(line);
+        }
+    }
+}
@@ -0,0 +1,273 @@
+package polyrun.examples.cli;
+
+import polyrun.constraints.Constraint;
+import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.uncertainty.Distribution;
+import polyrun.examples.uncertainty.ExactValue;
+import polyrun.examples.uncertainty.NormalDistribution;
+import polyrun.examples.uncertainty.TriangularDistribution;
+import polyrun.examples.uncertainty.UniformDistribution;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Model definition read from a text file. Every non-empty line (except comments starting with #) consists of
+ * a key followed by whitespace-separated values; keys may repeat (e.g. one line per constraint).
+ * <p>
+ * A constraint line contains coefficients, a direction and a right-hand side: "constraint 1 1 1 = 1".
+ * Uncertain values are written without spaces as uniform(low,high), normal(mean,sd) or triangular(low,mode,high).
+ */
+public class ModelFile {
+
+    private final String name;
+    private final Map<String, List<String[]>> entries = new LinkedHashMap<String, List<String[]>>();
+    private final Map<String, List<Integer>> lineNumbers = new LinkedHashMap<String, List<Integer>>();
+
+    private ModelFile(String name) {
+        this.name = name;
+    }
+
+    public static ModelFile read(File file) throws IOException {
+        ModelFile model = new ModelFile(file.getName());
+        BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8));
+
+        try {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                String[] tokens = line.split("\\s+");
+                String[] values = new String[tokens.length - 1];
+                System.arraycopy(tokens, 1, values, 0, values.length);
+
+                if (!model.entries.containsKey(tokens[0])) {
+                    model.entries.put(tokens[0], new ArrayList<String[]>());
+                    model.lineNumbers.put(tokens[0], new ArrayList<Integer>());
+                }
+
+                model.entries.get(tokens[0]).add(values);
+                model.lineNumbers.get(tokens[0]).add(lineNumber);
+            }
+        } finally {
+            reader.close();
+        }
+
+        return model;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Returns values of all lines with the given key (an empty list if there are none).
+     */
+    public List<String[]> getAll(String key) {
+        return entries.containsKey(key) ? entries.get(key) : new ArrayList<String[]>();
+    }
+
+    public String getString(String key) {
+        List<String[]> lines = getAll(key);
+
+        if (lines.isEmpty()) {
+            throw new IllegalArgumentException(name + ": missing key '" + key + "'");
+        }
+
+        if (lines.size() > 1 || lines.get(0).length != 1) {
+            throw error(key, 0, "expected a single value");
+        }
+
+        return lines.get(0)[0];
+    }
+
+    public String getString(String key, String defaultValue) {
+        return contains(key) ? getString(key) : defaultValue;
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return contains(key) ? parseInt(key, 0, getString(key)) : defaultValue;
+    }
+
+    public int getInt(String key) {
+        return parseInt(key, 0, getString(key));
+    }
+
+    public long getLong(String key, long defaultValue) {
+        if (!contains(key)) {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(getString(key));
+        } catch (NumberFormatException e) {
+            throw error(key, 0, "not an integer");
+        }
+    }
+
+    public double getDouble(String key) {
+        return parseDouble(key, 0, getString(key));
+    }
+
+    /**
+     * Returns numeric values of the i-th line with the given key, starting from the given position.
+     */
+    public double[] getDoubles(String key, int line, int from) {
+        String[] values = getAll(key).get(line);
+        double[] numbers = new double[values.length - from];
+
+        for (int j = 0; j < numbers.length; j++) {
+            numbers[j] = parseDouble(key, line, values[from + j]);
+        }
+
+        return numbers;
+    }
+
+    public int[] getInts(String key, int line, int from) {
+        String[] values = getAll(key).get(line);
+        int[] numbers = new int[values.length - from];
+
+        for (int j = 0; j < numbers.length; j++) {
+            numbers[j] = parseInt(key, line, values[from + j]);
+        }
+
+        return numbers;
+    }
+
+    /**
+     * Returns distributions given by values of the i-th line with the given key, starting from the given position
+     * (numbers are exact values).
+     */
+    public Distribution[] getDistributions(String key, int line, int from) {
+        String[] values = getAll(key).get(line);
+        Distribution[] distributions = new Distribution[values.length - from];
+
+        for (int j = 0; j < distributions.length; j++) {
+            distributions[j] = parseDistribution(key, line, values[from + j]);
+        }
+
+        return distributions;
+    }
+
+    /**
+     * Returns all lines with the given key as rows of a matrix (values starting from the given position).
+     */
+    public double[][] getMatrix(String key, int from) {
+        List<String[]> lines = getAll(key);
+        double[][] matrix = new double[lines.size()][];
+
+        for (int i = 0; i < matrix.length; i++) {
+            matrix[i] = getDoubles(key, i, from);
+
+            if (matrix[i].length != matrix[0].length) {
+                throw error(key, i, "expected " + matrix[0].length + " values");
+            }
+        }
+
+        return matrix;
+    }
+
+    public List<Constraint> getConstraints(int dimension) {
+        List<String[]> lines = getAll("constraint");
+        List<Constraint> constraints = new ArrayList<Constraint>();
+
+        for (int i = 0; i < lines.size(); i++) {
+            String[] values = lines.get(i);
+
+            if (values.length != dimension + 2) {
+                throw error("constraint", i, "expected " + dimension + " coefficients, direction and right-hand side");
+            }
+
+            String direction = values[dimension];
+            if (!"<=".equals(direction) && !">=".equals(direction) && !"=".equals(direction)) {
+                throw error("constraint", i, "unknown direction '" + direction + "'");
+            }
+
+            double[] lhs = new double[dimension];
+            for (int j = 0; j < dimension; j++) {
+                lhs[j] = parseDouble("constraint", i, values[j]);
+            }
+
+            constraints.add(new SimpleConstraint(lhs, direction, parseDouble("constraint", i, values[dimension + 1])));
+        }
+
+        if (constraints.isEmpty()) {
+            throw new IllegalArgumentException(name + ": no constraints");
+        }
+
+        return constraints;
+    }
+
+    private int parseInt(String key, int line, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw error(key, line, "'" + value + "' is not an integer");
+        }
+    }
+
+    private double parseDouble(String key, int line, String value) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw error(key, line, "'" + value + "' is not a number");
+        }
+    }
+
+    private Distribution parseDistribution(String key, int line, String value) {
+        int open = value.indexOf('(');
+
+        if (open < 0) {
+            return new ExactValue(parseDouble(key, line, value));
+        }
+
+        if (!value.endsWith(")")) {
+            throw error(key, line, "'" + value + "' is not a distribution");
+        }
+
+        String type = value.substring(0, open);
+        String[] parameterValues = value.substring(open + 1, value.length() - 1).split(",");
+        double[] parameters = new double[parameterValues.length];
+
+        for (int k = 0; k < parameters.length; k++) {
+            parameters[k] = parseDouble(key, line, parameterValues[k]);
+        }
+
+        try {
+            if ("uniform".equals(type) && parameters.length == 2) {
+                return new UniformDistribution(parameters[0], parameters[1]);
+            } else if ("normal".equals(type) && parameters.length == 2) {
+                return new NormalDistribution(parameters[0], parameters[1]);
+            } else if ("triangular".equals(type) && parameters.length == 3) {
+                return new TriangularDistribution(parameters[0], parameters[1], parameters[2]);
+            }
+        } catch (IllegalArgumentException e) {
+            throw error(key, line, "invalid parameters of '" + value + "'");
+        }
+
+        throw error(key, line, "unknown distribution '" + value + "'");
+    }
+
+    private IllegalArgumentException error(String key, int line, String message) {
+        return new IllegalArgumentException(name + ":" + lineNumbers.get(key).get(line) + ": " + key + " - " + message);
+    }
+}
@@ -0,0 +1,316 @@
+package polyrun.examples.constraints;
+
+import polyrun.constraints.Constraint;
+import polyrun.constraints.ConstraintsSystem;
+
+import java.util.List;
+
+/**
+ * Immutable, flattened form of a constraints system prepared for sampler inner loops.
+ * <p>
+ * Every inequality is stored in the canonical form a^T x &lt;= b (rows with "&gt;=" are negated) and
+ * equalities keep a^T x = b. The matrix is held in two contiguous arrays: row-major (for products Ax
+ * and Ad) and column-major (for updates along a single coordinate). Inequalities are stored first,
+ * so loops over rows [0, getNumberOfInequalities()) never need to check the operator.
+ */
+public class CompiledConstraintsSystem {
+
+    private final int numberOfConstraints;
+    private final int numberOfInequalities;
+    private final int dimension;
+
+    // rowMajor[i * dimension + j] = columnMajor[j * numberOfConstraints + i] = A_ij
+    private final double[] rowMajor;
+    private final double[] columnMajor;
+    private final double[] rhs;
+    private final Operator[] operators;
+
+    // Row k of A is either rows[k] or flat[k * stride, k * stride + dimension), and
+    // b_k = rhs[k * rhsStride + rhsOffset], so that separate arrays as well as rows [A_k | b_k] of a single
+    // table are read in place; the only copy is the one into rowMajor and columnMajor
+    private CompiledConstraintsSystem(double[][] rows, double[] flat, int stride, int dimension, Operator[] direction,
+                                      double[] rhs, int rhsStride, int rhsOffset) {
+        if (dimension < 1 || stride < dimension) {
+            throw new IllegalArgumentException("dimension");
+        }
+
+        if (direction == null || direction.length == 0) {
+            throw new IllegalArgumentException("direction");
+        }
+
+        if (rows != null) {
+            if (rows.length != direction.length) {
+                throw new IllegalArgumentException("lhs");
+            }
+
+            for (double[] row : rows) {
+                if (row == null || row.length != dimension) {
+                    throw new IllegalArgumentException("lhs");
+                }
+            }
+        } else if (flat == null || flat.length < (direction.length - 1) * stride + dimension) {
+            throw new IllegalArgumentException("lhs");
+        }
+
+        if (rhs == null || rhs.length <= (direction.length - 1) * rhsStride + rhsOffset) {
+            throw new IllegalArgumentException("rhs");
+        }
+
+        this.numberOfConstraints = direction.length;
+        this.dimension = dimension;
+        this.rowMajor = new double[numberOfConstraints * dimension];
+        this.columnMajor = new double[numberOfConstraints * dimension];
+        this.rhs = new double[numberOfConstraints];
+        this.operators = new Operator[numberOfConstraints];
+
+        int numberOfInequalities = 0;
+        for (Operator operator : direction) {
+            if (operator != Operator.EQUAL) {
+                numberOfInequalities++;
+            }
+        }
+        this.numberOfInequalities = numberOfInequalities;
+
+        int nextInequality = 0;
+        int nextEquality = numberOfInequalities;
+
+        for (int k = 0; k < numberOfConstraints; k++) {
+            int i = direction[k] == Operator.EQUAL ? nextEquality++ : nextInequality++;
+            double sign = direction[k] == Operator.GREATER_OR_EQUAL ? -1.0 : 1.0;
+            double[] lhs = rows != null ? rows[k] : flat;
+            int from = rows != null ? 0 : k * stride;
+
+            for (int j = 0; j < dimension; j++) {
+                rowMajor[i * dimension + j] = sign * lhs[from + j];
+                columnMajor[j * numberOfConstraints + i] = sign * lhs[from + j];
+            }
+
+            this.rhs[i] = sign * rhs[k * rhsStride + rhsOffset];
+            this.operators[i] = direction[k] == Operator.EQUAL ? Operator.EQUAL : Operator.LESS_OR_EQUAL;
+        }
+    }
+
+    public static CompiledConstraintsSystem compile(double[][] lhs, String[] direction, double[] rhs) {
+        if (direction == null) {
+            throw new IllegalArgumentException("direction");
+        }
+
+        Operator[] operators = new Operator[direction.length];
+        for (int i = 0; i < direction.length; i++) {
+            operators[i] = Operator.parse(direction[i]);
+        }
+
+        return create(lhs, operators, rhs);
+    }
+
+    public static CompiledConstraintsSystem compile(List<Constraint> constraints) {
+        double[][] lhs = new double[constraints.size()][];
+        Operator[] operators = new Operator[constraints.size()];
+        double[] rhs = new double[constraints.size()];
+
+        for (int i = 0; i < constraints.size(); i++) {
+            lhs[i] = constraints.get(i).getLhs();
+            operators[i] = Operator.parse(constraints.get(i).getDirection());
+            rhs[i] = constraints.get(i).getRhs();
+        }
+
+        return create(lhs, operators, rhs);
+    }
+
+    /**
+     * Compiles system Ax &lt;= b (the form in which random walks receive the polytope).
+     */
+    public static CompiledConstraintsSystem compileInequalities(double[][] A, double[] b) {
+        Operator[] operators = new Operator[A.length];
+        for (int i = 0; i < operators.length; i++) {
+            operators[i] = Operator.LESS_OR_EQUAL;
+        }
+
+        return create(A, operators, b);
+    }
+
+    /**
+     * Compiles system Ax &lt;= b given as flat row-major rows [a_i1, ..., a_in, b_i] (e.g. a loaded
+     * NumericTable with dimension + 1 columns).
+     */
+    public static CompiledConstraintsSystem compileInequalities(double[] rows, int dimension) {
+        if (rows == null || dimension < 1 || rows.length == 0 || rows.length % (dimension + 1) != 0) {
+            throw new IllegalArgumentException("rows");
+        }
+
+        Operator[] operators = new Operator[rows.length / (dimension + 1)];
+        for (int i = 0; i < operators.length; i++) {
+            operators[i] = Operator.LESS_OR_EQUAL;
+        }
+
+        return new CompiledConstraintsSystem(null, rows, dimension + 1, dimension, operators, rows, dimension + 1, dimension);
+    }
+
+    private static CompiledConstraintsSystem create(double[][] lhs, Operator[] direction, double[] rhs) {
+        if (lhs == null || lhs.length == 0 || lhs[0] == null) {
+            throw new IllegalArgumentException("lhs");
+        }
+
+        if (direction == null || direction.length != lhs.length) {
+            throw new IllegalArgumentException("direction");
+        }
+
+        if (rhs == null || rhs.length != lhs.length) {
+            throw new IllegalArgumentException("rhs");
+        }
+
+        int dimension = lhs[0].length;
+        return new CompiledConstraintsSystem(lhs, null, dimension, dimension, direction, rhs, 1, 0);
+    }
+
+    public ConstraintsSystem toConstraintsSystem() {
+        double[][] lhs = new double[numberOfConstraints][dimension];
+        String[] direction = new String[numberOfConstraints];
+        double[] b = new double[numberOfConstraints];
+
+        for (int i = 0; i < numberOfConstraints; i++) {
+            System.arraycopy(rowMajor, i * dimension, lhs[i], 0, dimension);
+            direction[i] = operators[i].getSymbol();
+            b[i] = rhs[i];
+        }
+
+        return new ConstraintsSystem(lhs, direction, b);
+    }
+
+    public int getNumberOfConstraints() {
+        return numberOfConstraints;
+    }
+
+    public int getNumberOfInequalities() {
+        return numberOfInequalities;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public Operator getOperator(int constraint) {
+        return operators[constraint];
+    }
+
+    public double get(int constraint, int variable) {
+        return rowMajor[constraint * dimension + variable];
+    }
+
+    public double getRhs(int constraint) {
+        return rhs[constraint];
+    }
+
+    /**
+     * Writes b_i - a_i^T x of every inequality to slack.
+     */
+    public void slack(double[] x, double[] slack) {
+        for (int i = 0; i < numberOfInequalities; i++) {
+            int offset = i * dimension;
+            double value = rhs[i];
+
+            for (int j = 0; j < dimension; j++) {
+                value -= rowMajor[offset + j] * x[j];
+            }
+
+            slack[i] = value;
+        }
+    }
+
+    /**
+     * Writes a_i^T d of every inequality to product.
+     */
+    public void multiply(double[] d, double[] product) {
+        for (int i = 0; i < numberOfInequalities; i++) {
+            int offset = i * dimension;
+            double value = 0.0;
+
+            for (int j = 0; j < dimension; j++) {
+                value += rowMajor[offset + j] * d[j];
+            }
+
+            product[i] = value;
+        }
+    }
+
+    /**
+     * Writes the chord {x + t * d : t in [bounds[0], bounds[1]]} for a point with given slack,
+     * where product = Ad. Bounds are infinite when the polytope is unbounded in that direction.
+     */
+    public void chord(double[] slack, double[] product, double[] bounds) {
+        double lower = Double.NEGATIVE_INFINITY;
+        double upper = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < numberOfInequalities; i++) {
+            double a = product[i];
+
+            if (a > 0.0) {
+                upper = Math.min(upper, slack[i] / a);
+            } else if (a < 0.0) {
+                lower = Math.max(lower, slack[i] / a);
+            }
+        }
+
+        bounds[0] = lower;
+        bounds[1] = upper;
+    }
+
+    /**
+     * The same as chord(), for direction e_variable (reads a single column only).
+     */
+    public void coordinateChord(double[] slack, int variable, double[] bounds) {
+        int offset = variable * numberOfConstraints;
+        double lower = Double.NEGATIVE_INFINITY;
+        double upper = Double.POSITIVE_INFINITY;
+
+        for (int i = 0; i < numberOfInequalities; i++) {
+            double a = columnMajor[offset + i];
+
+            if (a > 0.0) {
+                upper = Math.min(upper, slack[i] / a);
+            } else if (a < 0.0) {
+                lower = Math.max(lower, slack[i] / a);
+            }
+        }
+
+        bounds[0] = lower;
+        bounds[1] = upper;
+    }
+
+    /**
+     * Updates slack after moving the point by t along e_variable.
+     */
+    public void updateSlack(double[] slack, int variable, double t) {
+        int offset = variable * numberOfConstraints;
+
+        for (int i = 0; i < numberOfInequalities; i++) {
+            slack[i] -= columnMajor[offset + i] * t;
+        }
+    }
+
+    /**
+     * Updates slack after moving the point by t * d, where product = Ad.
+     */
+    public void updateSlack(double[] slack, double[] product, double t) {
+        for (int i = 0; i < numberOfInequalities; i++) {
+            slack[i] -= product[i] * t;
+        }
+    }
+
+    public boolean isFeasible(double[] x, double tolerance) {
+        for (int i = 0; i < numberOfConstraints; i++) {
+            int offset = i * dimension;
+            double value = 0.0;
+
+            for (int j = 0; j < dimension; j++) {
+                value += rowMajor[offset + j] * x[j];
+            }
+
+            if (operators[i] == Operator.EQUAL ? Math.abs(value - rhs[i]) > tolerance : value > rhs[i] + tolerance) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,350 @@
+package polyrun.examples.constraints;
+
+import polyrun.constraints.Constraint;
+import polyrun.constraints.ConstraintsSystem;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Eliminates equality constraints by parametrizing the affine hull {x : Ex = f} as x = origin + N * y,
+ * where the columns of N form an orthonormal basis of the null space of E. Sampling uniformly in y gives
+ * uniform samples on the original (lower-dimensional) polytope, because N preserves volumes.
+ */
+public class EqualityReduction {
+
+    public static final double DEFAULT_TOLERANCE = 1e-10;
+
+    private final int originalDimension;
+    private final int reducedDimension;
+
+    // Particular (minimum-norm) solution of Ex = f
+    private final double[] origin;
+
+    // Null space basis stored row-major: basis[i * reducedDimension + j] = N_ij
+    private final double[] basis;
+
+    // Original equalities (kept for verification of lifted points)
+    private final double[][] equalityLhs;
+    private final double[] equalityRhs;
+
+    // Inequalities expressed in reduced coordinates
+    private final double[][] reducedLhs;
+    private final String[] reducedDirection;
+    private final double[] reducedRhs;
+
+    public EqualityReduction(double[][] lhs, String[] direction, double[] rhs) {
+        this(lhs, direction, rhs, DEFAULT_TOLERANCE);
+    }
+
+    public EqualityReduction(double[][] lhs, String[] direction, double[] rhs, double tolerance) {
+        if (lhs == null || lhs.length == 0) {
+            throw new IllegalArgumentException("lhs");
+        }
+
+        if (direction == null || direction.length != lhs.length) {
+            throw new IllegalArgumentException("direction");
+        }
+
+        if (rhs == null || rhs.length != lhs.length) {
+            throw new IllegalArgumentException("rhs");
+        }
+
+        this.originalDimension = lhs[0].length;
+
+        // Split the system into equalities and inequalities
+        List<double[]> equalities = new ArrayList<double[]>();
+        List<Double> equalitiesRhs = new ArrayList<Double>();
+        List<Integer> inequalities = new ArrayList<Integer>();
+
+        for (int i = 0; i < lhs.length; i++) {
+            if (lhs[i].length != originalDimension) {
+                throw new IllegalArgumentException("lhs");
+            }
+
+            if ("=".equals(direction[i])) {
+                equalities.add(lhs[i]);
+                equalitiesRhs.add(rhs[i]);
+            } else if (">=".equals(direction[i]) || "<=".equals(direction[i])) {
+                inequalities.add(i);
+            } else {
+                throw new IllegalArgumentException("direction");
+            }
+        }
+
+        this.equalityLhs = equalities.toArray(new double[equalities.size()][]);
+        this.equalityRhs = new double[equalitiesRhs.size()];
+        for (int i = 0; i < equalityRhs.length; i++) {
+            equalityRhs[i] = equalitiesRhs.get(i);
+        }
+
+        // Orthonormalize rows of E (modified Gram-Schmidt), transforming f accordingly
+        List<double[]> rowSpace = new ArrayList<double[]>();
+        List<Double> rowSpaceRhs = new ArrayList<Double>();
+
+        for (int i = 0; i < equalityLhs.length; i++) {
+            double[] q = equalityLhs[i].clone();
+            double g = equalityRhs[i];
+            double scale = norm(q);
+
+            for (int j = 0; j < rowSpace.size(); j++) {
+                double projection = dot(rowSpace.get(j), q);
+                axpy(-projection, rowSpace.get(j), q);
+                g -= projection * rowSpaceRhs.get(j);
+            }
+
+            double qNorm = norm(q);
+
+            if (qNorm <= tolerance * Math.max(1.0, scale)) {
+                // Linearly dependent row - it has to be consistent with the previous ones
+                if (Math.abs(g) > tolerance * Math.max(1.0, Math.abs(equalityRhs[i]))) {
+                    throw new IllegalArgumentException("Inconsistent equality constraints");
+                }
+
+                continue;
+            }
+
+            scale(1.0 / qNorm, q);
+            rowSpace.add(q);
+            rowSpaceRhs.add(g / qNorm);
+        }
+
+        this.reducedDimension = originalDimension - rowSpace.size();
+
+        // origin = sum_i g_i * q_i is the minimum-norm solution of Ex = f
+        this.origin = new double[originalDimension];
+        for (int i = 0; i < rowSpace.size(); i++) {
+            axpy(rowSpaceRhs.get(i), rowSpace.get(i), origin);
+        }
+
+        // Complete the row space to an orthonormal basis of R^n; the added vectors span the null space of E
+        List<double[]> nullSpace = new ArrayList<double[]>();
+        for (int k = 0; k < originalDimension && nullSpace.size() < reducedDimension; k++) {
+            double[] v = new double[originalDimension];
+            v[k] = 1.0;
+
+            // Orthogonalize twice for numerical stability
+            for (int pass = 0; pass < 2; pass++) {
+                for (double[] q : rowSpace) {
+                    axpy(-dot(q, v), q, v);
+                }
+
+                for (double[] q : nullSpace) {
+                    axpy(-dot(q, v), q, v);
+                }
+            }
+
+            double vNorm = norm(v);
+            if (vNorm > 1e-6) {
+                scale(1.0 / vNorm, v);
+                nullSpace.add(v);
+            }
+        }
+
+        this.basis = new double[originalDimension * reducedDimension];
+        for (int j = 0; j < reducedDimension; j++) {
+            double[] v = nullSpace.get(j);
+
+            for (int i = 0; i < originalDimension; i++) {
+                basis[i * reducedDimension + j] = v[i];
+            }
+        }
+
+        // Substitute x = origin + N * y into the inequalities: (a^T N) y <op> b - a^T origin
+        List<double[]> reducedLhsList = new ArrayList<double[]>();
+        List<String> reducedDirectionList = new ArrayList<String>();
+        List<Double> reducedRhsList = new ArrayList<Double>();
+
+        for (int index : inequalities) {
+            double[] a = lhs[index];
+            double[] row = new double[reducedDimension];
+
+            for (int i = 0; i < originalDimension; i++) {
+                if (a[i] != 0.0) {
+                    for (int j = 0; j < reducedDimension; j++) {
+                        row[j] += a[i] * basis[i * reducedDimension + j];
+                    }
+                }
+            }
+
+            double b = rhs[index] - dot(a, origin);
+
+            if (norm(row) <= tolerance * Math.max(1.0, norm(a))) {
+                // Constraint is constant on the affine hull - it is either redundant or makes the system infeasible
+                boolean satisfied = ">=".equals(direction[index]) ? b <= tolerance : b >= -tolerance;
+                if (!satisfied) {
+                    throw new IllegalArgumentException("Infeasible constraints system");
+                }
+
+                continue;
+            }
+
+            reducedLhsList.add(row);
+            reducedDirectionList.add(direction[index]);
+            reducedRhsList.add(b);
+        }
+
+        this.reducedLhs = reducedLhsList.toArray(new double[reducedLhsList.size()][]);
+        this.reducedDirection = reducedDirectionList.toArray(new String[reducedDirectionList.size()]);
+        this.reducedRhs = new double[reducedRhsList.size()];
+        for (int i = 0; i < reducedRhs.length; i++) {
+            reducedRhs[i] = reducedRhsList.get(i);
+        }
+    }
+
+    public static EqualityReduction of(List<Constraint> constraints) {
+        double[][] lhs = new double[constraints.size()][];
+        String[] direction = new String[constraints.size()];
+        double[] rhs = new double[constraints.size()];
+
+        for (int i = 0; i < constraints.size(); i++) {
+            lhs[i] = constraints.get(i).getLhs();
+            direction[i] = constraints.get(i).getDirection();
+            rhs[i] = constraints.get(i).getRhs();
+        }
+
+        return new EqualityReduction(lhs, direction, rhs);
+    }
+
+    public ConstraintsSystem getReducedConstraintsSystem() {
+        return new ConstraintsSystem(getReducedLhs(), getReducedDirection(), getReducedRhs());
+    }
+
+    /**
+     * Maps reduced coordinates y to the original space (x = origin + N * y), writing the result to x.
+     */
+    public void lift(double[] y, double[] x) {
+        for (int i = 0; i < originalDimension; i++) {
+            double value = origin[i];
+            int offset = i * reducedDimension;
+
+            for (int j = 0; j < reducedDimension; j++) {
+                value += basis[offset + j] * y[j];
+            }
+
+            x[i] = value;
+        }
+    }
+
+    public double[] lift(double[] y) {
+        double[] x = new double[originalDimension];
+        lift(y, x);
+        return x;
+    }
+
+    /**
+     * Maps a point of the affine hull to reduced coordinates (y = N^T (x - origin)).
+     */
+    public void project(double[] x, double[] y) {
+        for (int j = 0; j < reducedDimension; j++) {
+            y[j] = 0.0;
+        }
+
+        for (int i = 0; i < originalDimension; i++) {
+            double shifted = x[i] - origin[i];
+            int offset = i * reducedDimension;
+
+            for (int j = 0; j < reducedDimension; j++) {
+                y[j] += basis[offset + j] * shifted;
+            }
+        }
+    }
+
+    public double[] project(double[] x) {
+        double[] y = new double[reducedDimension];
+        project(x, y);
+        return y;
+    }
+
+    /**
+     * Returns max_i |E_i x - f_i|, i.e. how far point x is from satisfying the eliminated equalities.
+     */
+    public double equalityResidual(double[] x) {
+        double residual = 0.0;
+
+        for (int i = 0; i < equalityLhs.length; i++) {
+            residual = Math.max(residual, Math.abs(dot(equalityLhs[i], x) - equalityRhs[i]));
+        }
+
+        return residual;
+    }
+
+    /**
+     * Returns max_ij |(N^T N - I)_ij|, i.e. how far the computed basis is from being orthonormal.
+     */
+    public double orthonormalityError() {
+        double error = 0.0;
+
+        for (int j = 0; j < reducedDimension; j++) {
+            for (int k = j; k < reducedDimension; k++) {
+                double value = 0.0;
+
+                for (int i = 0; i < originalDimension; i++) {
+                    value += basis[i * reducedDimension + j] * basis[i * reducedDimension + k];
+                }
+
+                error = Math.max(error, Math.abs(value - (j == k ? 1.0 : 0.0)));
+            }
+        }
+
+        return error;
+    }
+
+    public int getOriginalDimension() {
+        return originalDimension;
+    }
+
+    public int getReducedDimension() {
+        return reducedDimension;
+    }
+
+    public int getNumberOfEqualities() {
+        return equalityLhs.length;
+    }
+
+    public double[] getOrigin() {
+        return origin.clone();
+    }
+
+    public double[][] getReducedLhs() {
+        double[][] copy = new double[reducedLhs.length][];
+        for (int i = 0; i < reducedLhs.length; i++) {
+            copy[i] = reducedLhs[i].clone();
+        }
+        return copy;
+    }
+
+    public String[] getReducedDirection() {
+        return reducedDirection.clone();
+    }
+
+    public double[] getReducedRhs() {
+        return reducedRhs.clone();
+    }
+
+    private static double dot(double[] a, double[] b) {
+        double value = 0.0;
+
+        for (int i = 0; i < a.length; i++) {
+            value += a[i] * b[i];
+        }
+
+        return value;
+    }
+
+    private static double norm(double[] a) {
+        return Math.sqrt(dot(a, a));
+    }
+
+    private static void axpy(double alpha, double[] x, double[] y) {
+        for (int i = 0; i < x.length; i++) {
+            y[i] += alpha * x[i];
+        }
+    }
+
+    private static void scale(double alpha, double[] x) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] *= alpha;
+        }
+    }
+}
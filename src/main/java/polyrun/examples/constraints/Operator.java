@@ -0,0 +1,27 @@
+package polyrun.examples.constraints;
+
+public enum Operator {
+    LESS_OR_EQUAL("<="),
+    EQUAL("="),
+    GREATER_OR_EQUAL(">=");
+
+    private final String symbol;
+
+    Operator(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public static Operator parse(String symbol) {
+        for (Operator operator : values()) {
+            if (operator.symbol.equals(symbol)) {
+                return operator;
+            }
+        }
+
+        throw new IllegalArgumentException("symbol");
+    }
+}
@@ -0,0 +1,133 @@
+package polyrun.examples.data;
+
+import java.math.BigInteger;
+
+/**
+ * Correctly rounded conversion of decimal numbers mantissa * 10^exponent to doubles without strings.
+ * <p>
+ * Small numbers are converted exactly with a single floating-point operation (Clinger's fast path); others
+ * with the Eisel-Lemire algorithm (https://arxiv.org/abs/2101.11408), which multiplies the mantissa by
+ * a 128-bit approximation of the power of ten. Both fail (return NaN) in rare ambiguous cases, in which
+ * the caller has to use Double.parseDouble.
+ */
+final class DecimalConversion {
+
+    private static final int MINIMAL_EXPONENT = -348;
+    private static final int MAXIMAL_EXPONENT = 347;
+
+    // Exact powers of ten (10^22 is the largest one representable exactly)
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    // POWERS[2 * (e - MINIMAL_EXPONENT)] and POWERS[2 * (e - MINIMAL_EXPONENT) + 1] - the high and the low
+    // 64 bits of 10^e normalized to [2^127, 2^128) and rounded down
+    private static final long[] POWERS = new long[2 * (MAXIMAL_EXPONENT - MINIMAL_EXPONENT + 1)];
+
+    static {
+        POWERS_OF_TEN[0] = 1.0;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10.0;
+        }
+
+        for (int e = MINIMAL_EXPONENT; e <= MAXIMAL_EXPONENT; e++) {
+            BigInteger power = BigInteger.TEN.pow(Math.abs(e));
+            BigInteger normalized;
+
+            if (e >= 0) {
+                int shift = power.bitLength() - 128;
+                normalized = shift >= 0 ? power.shiftRight(shift) : power.shiftLeft(-shift);
+            } else {
+                normalized = BigInteger.ONE.shiftLeft(power.bitLength() + 127).divide(power);
+            }
+
+            POWERS[2 * (e - MINIMAL_EXPONENT)] = normalized.shiftRight(64).longValue();
+            POWERS[2 * (e - MINIMAL_EXPONENT) + 1] = normalized.longValue();
+        }
+    }
+
+    private DecimalConversion() {
+    }
+
+    /**
+     * Returns (negative ? -1 : 1) * mantissa * 10^exponent (mantissa &gt;= 0) or NaN if it cannot be
+     * decided without a slower algorithm.
+     */
+    static double toDouble(long mantissa, int exponent, boolean negative) {
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        if (mantissa <= (1L << 53) && exponent >= -22 && exponent <= 22) {
+            double value = exponent >= 0 ? mantissa * POWERS_OF_TEN[exponent] : mantissa / POWERS_OF_TEN[-exponent];
+            return negative ? -value : value;
+        }
+
+        if (exponent < MINIMAL_EXPONENT || exponent > MAXIMAL_EXPONENT) {
+            return Double.NaN;
+        }
+
+        int leadingZeros = Long.numberOfLeadingZeros(mantissa);
+        long normalized = mantissa << leadingZeros;
+        long binaryExponent = ((217706L * exponent) >> 16) + 64 + 1023 - leadingZeros;
+
+        int index = 2 * (exponent - MINIMAL_EXPONENT);
+        long high = multiplyHigh(normalized, POWERS[index]);
+        long low = normalized * POWERS[index];
+
+        // Truncation of the power may matter only if the 9 bits below the result are all ones
+        if ((high & 0x1FF) == 0x1FF && Long.compareUnsigned(low + normalized, normalized) < 0) {
+            long secondHigh = multiplyHigh(normalized, POWERS[index + 1]);
+            long secondLow = normalized * POWERS[index + 1];
+            long mergedLow = low + secondHigh;
+            long mergedHigh = Long.compareUnsigned(mergedLow, low) < 0 ? high + 1 : high;
+
+            if ((mergedHigh & 0x1FF) == 0x1FF && mergedLow == -1L
+                    && Long.compareUnsigned(secondLow + normalized, normalized) < 0) {
+                return Double.NaN;
+            }
+
+            high = mergedHigh;
+            low = mergedLow;
+        }
+
+        long topBit = high >>> 63;
+        long result = high >>> (topBit + 9);
+        binaryExponent -= 1 ^ topBit;
+
+        // Exactly halfway between two doubles
+        if (low == 0 && (high & 0x1FF) == 0 && (result & 3) == 1) {
+            return Double.NaN;
+        }
+
+        // Round 54 bits to 53
+        result += result & 1;
+        result >>>= 1;
+        if ((result >>> 53) > 0) {
+            result >>>= 1;
+            binaryExponent++;
+        }
+
+        // Subnormal numbers and infinities
+        if (binaryExponent <= 0 || binaryExponent >= 0x7FF) {
+            return Double.NaN;
+        }
+
+        double value = Double.longBitsToDouble((binaryExponent << 52) | (result & ((1L << 52) - 1)));
+        return negative ? -value : value;
+    }
+
+    // High 64 bits of the unsigned 128-bit product
+    private static long multiplyHigh(long x, long y) {
+        long x0 = x & 0xFFFFFFFFL;
+        long x1 = x >>> 32;
+        long y0 = y & 0xFFFFFFFFL;
+        long y1 = y >>> 32;
+
+        long p00 = x0 * y0;
+        long p01 = x0 * y1;
+        long p10 = x1 * y0;
+        long p11 = x1 * y1;
+
+        long middle = (p00 >>> 32) + (p01 & 0xFFFFFFFFL) + (p10 & 0xFFFFFFFFL);
+        return p11 + (p01 >>> 32) + (p10 >>> 32) + (middle >>> 32);
+    }
+}
@@ -0,0 +1,67 @@
+package polyrun.examples.data;
+
+/**
+ * Table of numbers held in a single flat row-major array (data[row * numberOfColumns + column]),
+ * the layout used by the scoring models and constraint builders.
+ */
+public class NumericTable {
+
+    private final int numberOfRows;
+    private final int numberOfColumns;
+    private final double[] data;
+
+    public NumericTable(int numberOfRows, int numberOfColumns, double[] data) {
+        if (numberOfRows < 0) {
+            throw new IllegalArgumentException("numberOfRows");
+        }
+
+        if (numberOfColumns < 1) {
+            throw new IllegalArgumentException("numberOfColumns");
+        }
+
+        if (data == null || data.length != (long) numberOfRows * numberOfColumns) {
+            throw new IllegalArgumentException("data");
+        }
+
+        this.numberOfRows = numberOfRows;
+        this.numberOfColumns = numberOfColumns;
+        this.data = data;
+    }
+
+    public int getNumberOfRows() {
+        return numberOfRows;
+    }
+
+    public int getNumberOfColumns() {
+        return numberOfColumns;
+    }
+
+    /**
+     * Returns the underlying array (not a copy).
+     */
+    public double[] getData() {
+        return data;
+    }
+
+    public double get(int row, int column) {
+        return data[row * numberOfColumns + column];
+    }
+
+    /**
+     * Returns columns [from, to) of all rows as a new flat row-major array.
+     */
+    public double[] getColumns(int from, int to) {
+        if (from < 0 || to <= from || to > numberOfColumns) {
+            throw new IllegalArgumentException("to");
+        }
+
+        int width = to - from;
+        double[] columns = new double[numberOfRows * width];
+
+        for (int i = 0; i < numberOfRows; i++) {
+            System.arraycopy(data, i * numberOfColumns + from, columns, i * width, width);
+        }
+
+        return columns;
+    }
+}
@@ -0,0 +1,377 @@
+package polyrun.examples.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads numeric tables from memory-mapped files straight into flat arrays.
+ * <p>
+ * Text files (CSV) contain one row per line with values separated by commas, semicolons, tabs or spaces;
+ * empty lines and lines starting with # are skipped. The file is scanned twice: once to count rows, so that
+ * the result is allocated once with its final size, and once to parse the numbers directly from the mapped
+ * bytes. Numbers with at most 18 significant digits (which covers the output of Double.toString) are converted
+ * with correct rounding without creating strings (see DecimalConversion); others fall back to
+ * Double.parseDouble.
+ * <p>
+ * Binary files consist of a header (MAGIC, VERSION, number of rows and columns as little-endian ints)
+ * followed by the values as little-endian doubles, row by row, and are copied with a single bulk transfer.
+ */
+public class TableIO {
+
+    public static final int MAGIC = 0x4c425450; // "PTBL"
+    public static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 16;
+
+    // Files are mapped in regions of at most this size (a single mapping is limited to 2 GB)
+    private static final long REGION_SIZE = 1L << 30;
+
+    private TableIO() {
+    }
+
+    /**
+     * Reads a text table; the first row is skipped when header is true.
+     */
+    public static NumericTable readCsv(File file, boolean header) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+
+        try {
+            FileChannel channel = input.getChannel();
+
+            // The first pass finds the number of rows and columns
+            CsvParser counter = new CsvParser(file, header, null, 0);
+            parse(channel, counter);
+
+            int numberOfColumns = Math.max(1, counter.numberOfColumns);
+            if ((long) counter.numberOfRows * numberOfColumns > Integer.MAX_VALUE - 8) {
+                throw new IOException("Table " + file + " is too large for a single array");
+            }
+
+            // The second pass parses values into the final array
+            CsvParser parser = new CsvParser(file, header, new double[counter.numberOfRows * numberOfColumns], numberOfColumns);
+            parse(channel, parser);
+
+            return new NumericTable(counter.numberOfRows, numberOfColumns, parser.data);
+        } finally {
+            input.close();
+        }
+    }
+
+    public static NumericTable readCsv(File file) throws IOException {
+        return readCsv(file, false);
+    }
+
+    public static NumericTable readBinary(File file) throws IOException {
+        RandomAccessFile input = new RandomAccessFile(file, "r");
+
+        try {
+            FileChannel channel = input.getChannel();
+
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("Not a table file: " + file);
+            }
+
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                throw new IOException("Not a table file: " + file);
+            }
+
+            int numberOfRows = header.getInt();
+            int numberOfColumns = header.getInt();
+            long length = (long) numberOfRows * numberOfColumns;
+
+            if (numberOfRows < 0 || numberOfColumns < 1 || length > Integer.MAX_VALUE - 8
+                    || channel.size() != HEADER_SIZE + 8 * length) {
+                throw new IOException("Corrupted table file: " + file);
+            }
+
+            double[] data = new double[(int) length];
+
+            // Regions are multiples of 8 bytes, so no value is split between them
+            for (long position = 0; position < length; ) {
+                int count = (int) Math.min(length - position, REGION_SIZE / 8);
+                channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + 8 * position, 8L * count)
+                        .order(ByteOrder.LITTLE_ENDIAN)
+                        .asDoubleBuffer()
+                        .get(data, (int) position, count);
+                position += count;
+            }
+
+            return new NumericTable(numberOfRows, numberOfColumns, data);
+        } finally {
+            input.close();
+        }
+    }
+
+    public static void writeBinary(File file, NumericTable table) throws IOException {
+        RandomAccessFile output = new RandomAccessFile(file, "rw");
+
+        try {
+            FileChannel channel = output.getChannel();
+            double[] data = table.getData();
+
+            channel.truncate(0);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).putInt(table.getNumberOfRows()).putInt(table.getNumberOfColumns());
+            header.flip();
+            channel.write(header, 0);
+
+            for (long position = 0; position < data.length; ) {
+                int count = (int) Math.min(data.length - position, REGION_SIZE / 8);
+                MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, HEADER_SIZE + 8 * position, 8L * count);
+                region.order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().put(data, (int) position, count);
+                region.force();
+                position += count;
+            }
+        } finally {
+            output.close();
+        }
+    }
+
+    private static void parse(FileChannel channel, CsvParser parser) throws IOException {
+        long size = channel.size();
+        long position = 0;
+
+        while (position < size) {
+            long length = Math.min(size - position, REGION_SIZE);
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            // Parse complete lines only (unless this is the last region)
+            int end = (int) length;
+            if (position + length < size) {
+                while (end > 0 && region.get(end - 1) != '\n') {
+                    end--;
+                }
+
+                if (end == 0) {
+                    throw new IOException("Line longer than " + REGION_SIZE + " bytes in " + parser.file);
+                }
+            }
+
+            parser.parse(region, end);
+            position += end;
+        }
+
+        parser.finish();
+    }
+
+    /**
+     * Line-by-line parser of a mapped region; counts rows and columns when data is null.
+     */
+    private static class CsvParser {
+
+        private final File file;
+        private final boolean header;
+        private final double[] data;
+
+        private int numberOfColumns;
+        private int numberOfRows;
+        private int lineNumber;
+        private boolean headerSkipped;
+        private char[] characters = new char[32];
+
+        CsvParser(File file, boolean header, double[] data, int numberOfColumns) {
+            this.file = file;
+            this.header = header;
+            this.data = data;
+            this.numberOfColumns = numberOfColumns;
+        }
+
+        void parse(ByteBuffer buffer, int end) throws IOException {
+            int position = 0;
+
+            while (position < end) {
+                int lineEnd = position;
+                while (lineEnd < end && buffer.get(lineEnd) != '\n') {
+                    lineEnd++;
+                }
+
+                lineNumber++;
+                parseLine(buffer, position, lineEnd);
+                position = lineEnd + 1;
+            }
+        }
+
+        void finish() {
+        }
+
+        private void parseLine(ByteBuffer buffer, int position, int end) throws IOException {
+            position = skipSeparators(buffer, position, end);
+
+            if (position == end || buffer.get(position) == '#') {
+                return;
+            }
+
+            if (header && !headerSkipped) {
+                headerSkipped = true;
+                return;
+            }
+
+            // Counting needs the columns of the first row only
+            if (data == null && numberOfRows > 0) {
+                numberOfRows++;
+                return;
+            }
+
+            int column = 0;
+            int offset = numberOfRows * numberOfColumns;
+
+            while (position < end) {
+                int tokenEnd = position;
+                while (tokenEnd < end && !isSeparator(buffer.get(tokenEnd))) {
+                    tokenEnd++;
+                }
+
+                if (data != null) {
+                    if (column >= numberOfColumns) {
+                        throw error("expected " + numberOfColumns + " values");
+                    }
+
+                    data[offset + column] = parseDouble(buffer, position, tokenEnd);
+                }
+
+                column++;
+                position = skipSeparators(buffer, tokenEnd, end);
+            }
+
+            if (data == null) {
+                if (numberOfRows == 0) {
+                    numberOfColumns = column;
+                }
+            } else if (column != numberOfColumns) {
+                throw error("expected " + numberOfColumns + " values");
+            }
+
+            numberOfRows++;
+        }
+
+        private double parseDouble(ByteBuffer buffer, int from, int to) throws IOException {
+            int position = from;
+            boolean negative = false;
+
+            if (position < to && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                negative = buffer.get(position) == '-';
+                position++;
+            }
+
+            long mantissa = 0;
+            int numberOfDigits = 0;
+            int exponent = 0;
+            boolean valid = false;
+
+            // Digits beyond the 18th (which keep the mantissa within a long) are only counted, and such
+            // numbers are passed to Double.parseDouble
+
+            // Integer part
+            while (position < to && isDigit(buffer.get(position))) {
+                if (numberOfDigits < 18) {
+                    mantissa = 10 * mantissa + (buffer.get(position) - '0');
+                    if (mantissa > 0) {
+                        numberOfDigits++;
+                    }
+                } else {
+                    exponent++;
+                    numberOfDigits++;
+                }
+
+                valid = true;
+                position++;
+            }
+
+            // Fraction
+            if (position < to && buffer.get(position) == '.') {
+                position++;
+
+                while (position < to && isDigit(buffer.get(position))) {
+                    if (numberOfDigits < 18) {
+                        mantissa = 10 * mantissa + (buffer.get(position) - '0');
+                        exponent--;
+                        if (mantissa > 0) {
+                            numberOfDigits++;
+                        }
+                    } else {
+                        numberOfDigits++;
+                    }
+
+                    valid = true;
+                    position++;
+                }
+            }
+
+            // Exponent
+            if (valid && position < to && (buffer.get(position) == 'e' || buffer.get(position) == 'E')) {
+                position++;
+                boolean negativeExponent = false;
+
+                if (position < to && (buffer.get(position) == '-' || buffer.get(position) == '+')) {
+                    negativeExponent = buffer.get(position) == '-';
+                    position++;
+                }
+
+                int value = 0;
+                valid = false;
+
+                while (position < to && isDigit(buffer.get(position))) {
+                    value = Math.min(10 * value + (buffer.get(position) - '0'), 100000);
+                    valid = true;
+                    position++;
+                }
+
+                exponent += negativeExponent ? -value : value;
+            }
+
+            if (valid && position == to && numberOfDigits <= 18) {
+                double value = DecimalConversion.toDouble(mantissa, exponent, negative);
+                if (value == value) {
+                    return value;
+                }
+            }
+
+            return parseSlowly(buffer, from, to);
+        }
+
+        private double parseSlowly(ByteBuffer buffer, int from, int to) throws IOException {
+            if (characters.length < to - from) {
+                characters = new char[to - from];
+            }
+
+            for (int i = from; i < to; i++) {
+                characters[i - from] = (char) (buffer.get(i) & 0xFF);
+            }
+
+            String token = new String(characters, 0, to - from);
+
+            try {
+                return Double.parseDouble(token);
+            } catch (NumberFormatException e) {
+                throw error("invalid number '" + token + "'");
+            }
+        }
+
+        private IOException error(String message) {
+            return new IOException(file.getName() + ":" + lineNumber + ": " + message);
+        }
+
+        private static int skipSeparators(ByteBuffer buffer, int position, int end) {
+            while (position < end && isSeparator(buffer.get(position))) {
+                position++;
+            }
+
+            return position;
+        }
+
+        private static boolean isSeparator(byte b) {
+            return b == ',' || b == ';' || b == ' ' || b == '\t' || b == '\r';
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+    }
+}
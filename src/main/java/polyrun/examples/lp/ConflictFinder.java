@@ -0,0 +1,107 @@
+package polyrun.examples.lp;
+
+import polyrun.constraints.Constraint;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds a minimal infeasible subset of groups of constraints (e.g. constraints of one reference assignment),
+ * given background constraints that are always kept (e.g. monotonicity and normalization).
+ * <p>
+ * Deletion filtering with binary splitting (QuickXplain): the candidate groups are split in halves; if the first
+ * half together with the current background is already infeasible, the second half is dropped as a whole,
+ * otherwise the conflict is searched for in the second half with the first one as background, and then
+ * the first half is reduced with the found part as background. A conflict of k groups among n is found with
+ * O(k log(n / k)) feasibility checks instead of the n checks of one-by-one deletion.
+ */
+public class ConflictFinder {
+
+    private final List<Constraint> background;
+    private int numberOfChecks;
+
+    public ConflictFinder(List<Constraint> background) {
+        this.background = background;
+    }
+
+    /**
+     * Returns indices (in ascending order) of a minimal subset of groups which is infeasible together with
+     * the background constraints, an empty array if the background constraints alone are infeasible,
+     * or null if all constraints together are feasible.
+     */
+    public int[] find(List<List<Constraint>> groups) {
+        numberOfChecks = 0;
+
+        List<Integer> candidates = new ArrayList<Integer>();
+        for (int i = 0; i < groups.size(); i++) {
+            candidates.add(i);
+        }
+
+        if (isFeasible(groups, new ArrayList<Integer>(), candidates)) {
+            return null;
+        }
+
+        if (!isFeasible(groups, new ArrayList<Integer>(), new ArrayList<Integer>())) {
+            return new int[0];
+        }
+
+        List<Integer> conflict = find(groups, new ArrayList<Integer>(), false, candidates);
+
+        int[] indices = new int[conflict.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = conflict.get(i);
+        }
+
+        Arrays.sort(indices);
+        return indices;
+    }
+
+    /**
+     * Returns the number of feasibility checks (LPs) made by the last call of find.
+     */
+    public int getNumberOfChecks() {
+        return numberOfChecks;
+    }
+
+    private List<Integer> find(List<List<Constraint>> groups, List<Integer> kept, boolean keptChanged, List<Integer> candidates) {
+        // Groups added to the background since the last check may already make it infeasible
+        if (keptChanged && !isFeasible(groups, kept, new ArrayList<Integer>())) {
+            return new ArrayList<Integer>();
+        }
+
+        if (candidates.size() == 1) {
+            return candidates;
+        }
+
+        List<Integer> first = new ArrayList<Integer>(candidates.subList(0, candidates.size() / 2));
+        List<Integer> second = new ArrayList<Integer>(candidates.subList(candidates.size() / 2, candidates.size()));
+
+        List<Integer> keptWithFirst = new ArrayList<Integer>(kept);
+        keptWithFirst.addAll(first);
+        List<Integer> secondConflict = find(groups, keptWithFirst, true, second);
+
+        List<Integer> keptWithSecondConflict = new ArrayList<Integer>(kept);
+        keptWithSecondConflict.addAll(secondConflict);
+        List<Integer> firstConflict = find(groups, keptWithSecondConflict, !secondConflict.isEmpty(), first);
+
+        List<Integer> conflict = new ArrayList<Integer>(firstConflict);
+        conflict.addAll(secondConflict);
+        return conflict;
+    }
+
+    private boolean isFeasible(List<List<Constraint>> groups, List<Integer> kept, List<Integer> candidates) {
+        List<Constraint> constraints = new ArrayList<Constraint>(background);
+
+        for (int i : kept) {
+            constraints.addAll(groups.get(i));
+        }
+
+        for (int i : candidates) {
+            constraints.addAll(groups.get(i));
+        }
+
+        numberOfChecks++;
+        return constraints.isEmpty() || SimplexSolver.isFeasible(constraints);
+    }
+}
@@ -0,0 +1,146 @@
+package polyrun.examples.lp;
+
+import polyrun.constraints.Constraint;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Possible and necessary assignments (robust ordinal regression) for threshold-based sorting with an additive
+ * value function, using the same variables as AdditiveValueAssignmentModel: marginal values followed by
+ * numberOfClasses - 1 thresholds, where class h (h &gt; 0) requires U(a) &gt;= t_h-1 and class h
+ * (h &lt; numberOfClasses - 1) requires U(a) &lt;= t_h - epsilon.
+ * <p>
+ * Alternative a is possibly assigned to class h or better iff max U(a) - t_h-1 &gt;= 0, and to class h or worse
+ * iff min U(a) - t_h &lt;= -epsilon. The possible assignment is the interval of classes between these bounds;
+ * the assignment is necessary if the interval contains a single class. These extreme values are found by LPs
+ * over the constraints of the model; the LPs of one alternative differ only by a threshold, so each of them is
+ * warm-started from the optimal basis of the previous one.
+ */
+public class RobustAssignments {
+
+    private final List<Constraint> constraints;
+    private final int[][] variableIndices;
+    private final int numberOfClasses;
+    private final double epsilon;
+
+    // Results: possible assignment of a_i is [lowestPossibleClass[i], highestPossibleClass[i]]
+    private int[] lowestPossibleClass;
+    private int[] highestPossibleClass;
+    private long numberOfPivots;
+
+    public RobustAssignments(List<Constraint> constraints, int[][] variableIndices, int numberOfClasses, double epsilon) {
+        if (constraints == null || constraints.isEmpty()) {
+            throw new IllegalArgumentException("constraints");
+        }
+
+        if (numberOfClasses < 2) {
+            throw new IllegalArgumentException("numberOfClasses");
+        }
+
+        this.constraints = constraints;
+        this.variableIndices = variableIndices;
+        this.numberOfClasses = numberOfClasses;
+        this.epsilon = epsilon;
+    }
+
+    public void compute(int numberOfThreads) throws Exception {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("numberOfThreads");
+        }
+
+        // Phase one is done once and shared by the solvers of all threads
+        final SimplexSolver solver = new SimplexSolver(constraints);
+        final int numberOfVariables = constraints.get(0).getLhs().length;
+        final int firstThreshold = numberOfVariables - numberOfClasses + 1;
+        final AtomicInteger nextAlternative = new AtomicInteger();
+
+        lowestPossibleClass = new int[variableIndices.length];
+        highestPossibleClass = new int[variableIndices.length];
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+
+        try {
+            List<Future<Long>> futures = new ArrayList<Future<Long>>();
+
+            for (int t = 0; t < numberOfThreads; t++) {
+                futures.add(executor.submit(new Callable<Long>() {
+                    public Long call() {
+                        SimplexSolver copy = solver.copy();
+                        double[] objective = new double[numberOfVariables];
+                        int i;
+
+                        while ((i = nextAlternative.getAndIncrement()) < variableIndices.length) {
+                            for (int index : variableIndices[i]) {
+                                objective[index] = 1.0;
+                            }
+
+                            // The best possible class: the highest h with max U(a) - t_h-1 >= 0
+                            int highest = 0;
+                            for (int h = numberOfClasses - 1; h > 0 && highest == 0; h--) {
+                                objective[firstThreshold + h - 1] = -1.0;
+                                if (copy.maximize(objective) >= -1e-9) {
+                                    highest = h;
+                                }
+                                objective[firstThreshold + h - 1] = 0.0;
+                            }
+
+                            // The worst possible class: the lowest h with min U(a) - t_h <= -epsilon
+                            int lowest = numberOfClasses - 1;
+                            for (int h = 0; h < numberOfClasses - 1 && lowest == numberOfClasses - 1; h++) {
+                                objective[firstThreshold + h] = -1.0;
+                                if (copy.minimize(objective) <= -epsilon + 1e-9) {
+                                    lowest = h;
+                                }
+                                objective[firstThreshold + h] = 0.0;
+                            }
+
+                            for (int index : variableIndices[i]) {
+                                objective[index] = 0.0;
+                            }
+
+                            lowestPossibleClass[i] = lowest;
+                            highestPossibleClass[i] = highest;
+                        }
+
+                        return copy.getNumberOfPivots();
+                    }
+                }));
+            }
+
+            numberOfPivots = solver.getNumberOfPivots();
+            for (Future<Long> future : futures) {
+                numberOfPivots += future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public int[] getLowestPossibleClasses() {
+        return lowestPossibleClass.clone();
+    }
+
+    public int[] getHighestPossibleClasses() {
+        return highestPossibleClass.clone();
+    }
+
+    /**
+     * Returns the necessary class of a_i or -1 if a_i may be assigned to more than one class.
+     */
+    public int getNecessaryClass(int alternative) {
+        return lowestPossibleClass[alternative] == highestPossibleClass[alternative] ? lowestPossibleClass[alternative] : -1;
+    }
+
+    /**
+     * Returns the total number of simplex pivots of the last computation (including phase one).
+     */
+    public long getNumberOfPivots() {
+        return numberOfPivots;
+    }
+}
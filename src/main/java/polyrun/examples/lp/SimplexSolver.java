@@ -0,0 +1,328 @@
+package polyrun.examples.lp;
+
+import polyrun.constraints.Constraint;
+
+import java.util.List;
+
+/**
+ * Dense two-phase simplex method for optimizing many linear objectives over one constraints system.
+ * <p>
+ * Variables are free (as in ConstraintsSystem); each of them is split into the difference of two non-negative ones.
+ * Phase one (finding a feasible basis) is done once, in the constructor. Every call of maximize starts from the
+ * optimal basis of the previous call, which is still feasible because the constraints do not change, so objectives
+ * that differ slightly (e.g. by one coefficient) need only a few pivots. The solver is not thread-safe; use copy
+ * to get independent solvers sharing the phase one.
+ */
+public class SimplexSolver {
+
+    private static final double TOLERANCE = 1e-9;
+
+    private final int numberOfVariables;
+    private final int numberOfRows;
+    private final int numberOfColumns;
+
+    // Columns that may enter the basis (structural and slack ones; artificial ones follow them)
+    private final int numberOfAllowedColumns;
+
+    // tableau[i * (numberOfColumns + 1) + j] - row i of B^-1 [A | b]
+    private final double[] tableau;
+    private final int[] basis;
+
+    private final boolean feasible;
+    private long numberOfPivots;
+
+    public SimplexSolver(List<Constraint> constraints) {
+        this(constraints, true);
+    }
+
+    private SimplexSolver(List<Constraint> constraints, boolean requireFeasible) {
+        if (constraints == null || constraints.isEmpty()) {
+            throw new IllegalArgumentException("constraints");
+        }
+
+        this.numberOfVariables = constraints.get(0).getLhs().length;
+        this.numberOfRows = constraints.size();
+
+        int numberOfSlacks = 0;
+        int numberOfArtificials = 0;
+
+        for (Constraint constraint : constraints) {
+            if (constraint.getLhs().length != numberOfVariables) {
+                throw new IllegalArgumentException("constraints");
+            }
+
+            String direction = normalizedDirection(constraint);
+
+            if (!"=".equals(direction)) {
+                numberOfSlacks++;
+            }
+
+            if (!"<=".equals(direction)) {
+                numberOfArtificials++;
+            }
+        }
+
+        this.numberOfAllowedColumns = 2 * numberOfVariables + numberOfSlacks;
+        this.numberOfColumns = numberOfAllowedColumns + numberOfArtificials;
+        this.tableau = new double[numberOfRows * (numberOfColumns + 1)];
+        this.basis = new int[numberOfRows];
+
+        // Rows with non-negative right-hand sides: x = u - v, slack (<=) or surplus (>=), artificial (>= and =)
+        int width = numberOfColumns + 1;
+        int slack = 2 * numberOfVariables;
+        int artificial = numberOfAllowedColumns;
+
+        for (int i = 0; i < numberOfRows; i++) {
+            Constraint constraint = constraints.get(i);
+            double sign = constraint.getRhs() < 0 ? -1.0 : 1.0;
+            String direction = normalizedDirection(constraint);
+            double[] lhs = constraint.getLhs();
+            int offset = i * width;
+
+            for (int j = 0; j < numberOfVariables; j++) {
+                tableau[offset + j] = sign * lhs[j];
+                tableau[offset + numberOfVariables + j] = -sign * lhs[j];
+            }
+
+            tableau[offset + numberOfColumns] = sign * constraint.getRhs();
+
+            if ("<=".equals(direction)) {
+                tableau[offset + slack] = 1.0;
+                basis[i] = slack++;
+            } else {
+                if (">=".equals(direction)) {
+                    tableau[offset + slack++] = -1.0;
+                }
+
+                tableau[offset + artificial] = 1.0;
+                basis[i] = artificial++;
+            }
+        }
+
+        // Phase one - maximize minus the sum of artificial variables
+        double[] costs = new double[numberOfColumns];
+        for (int j = numberOfAllowedColumns; j < numberOfColumns; j++) {
+            costs[j] = -1.0;
+        }
+
+        this.feasible = optimize(costs, numberOfColumns) >= -TOLERANCE * Math.max(1.0, numberOfRows);
+
+        if (!feasible) {
+            if (requireFeasible) {
+                throw new IllegalArgumentException("Infeasible constraints system");
+            }
+
+            return;
+        }
+
+        // Move remaining (zero) artificial variables out of the basis where possible; rows in which it is not
+        // possible are redundant and are never pivoted on again
+        for (int i = 0; i < numberOfRows; i++) {
+            if (basis[i] >= numberOfAllowedColumns) {
+                for (int j = 0; j < numberOfAllowedColumns; j++) {
+                    if (Math.abs(tableau[i * width + j]) > TOLERANCE) {
+                        pivot(i, j, null);
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    private SimplexSolver(SimplexSolver other) {
+        this.numberOfVariables = other.numberOfVariables;
+        this.numberOfRows = other.numberOfRows;
+        this.numberOfColumns = other.numberOfColumns;
+        this.numberOfAllowedColumns = other.numberOfAllowedColumns;
+        this.tableau = other.tableau.clone();
+        this.basis = other.basis.clone();
+        this.feasible = other.feasible;
+    }
+
+    /**
+     * Checks whether the constraints system has a solution (runs phase one only).
+     */
+    public static boolean isFeasible(List<Constraint> constraints) {
+        return new SimplexSolver(constraints, false).feasible;
+    }
+
+    public SimplexSolver copy() {
+        return new SimplexSolver(this);
+    }
+
+    /**
+     * Returns max objective * x over the constraints system (Double.POSITIVE_INFINITY if it is unbounded).
+     */
+    public double maximize(double[] objective) {
+        if (objective.length != numberOfVariables) {
+            throw new IllegalArgumentException("objective");
+        }
+
+        double[] costs = new double[numberOfColumns];
+        for (int j = 0; j < numberOfVariables; j++) {
+            costs[j] = objective[j];
+            costs[numberOfVariables + j] = -objective[j];
+        }
+
+        return optimize(costs, numberOfAllowedColumns);
+    }
+
+    /**
+     * Returns min objective * x over the constraints system (Double.NEGATIVE_INFINITY if it is unbounded).
+     */
+    public double minimize(double[] objective) {
+        double[] negated = new double[objective.length];
+        for (int j = 0; j < objective.length; j++) {
+            negated[j] = -objective[j];
+        }
+
+        return -maximize(negated);
+    }
+
+    /**
+     * Returns the point of the last optimum.
+     */
+    public double[] getSolution() {
+        int width = numberOfColumns + 1;
+        double[] x = new double[numberOfVariables];
+
+        for (int i = 0; i < numberOfRows; i++) {
+            int column = basis[i];
+            double value = tableau[i * width + numberOfColumns];
+
+            if (column < numberOfVariables) {
+                x[column] += value;
+            } else if (column < 2 * numberOfVariables) {
+                x[column - numberOfVariables] -= value;
+            }
+        }
+
+        return x;
+    }
+
+    public long getNumberOfPivots() {
+        return numberOfPivots;
+    }
+
+    private double optimize(double[] costs, int allowedColumns) {
+        int width = numberOfColumns + 1;
+
+        // Reduced costs of the current basis
+        double[] reducedCosts = costs.clone();
+        for (int i = 0; i < numberOfRows; i++) {
+            double cost = costs[basis[i]];
+
+            if (cost != 0.0) {
+                for (int j = 0; j < numberOfColumns; j++) {
+                    reducedCosts[j] -= cost * tableau[i * width + j];
+                }
+            }
+        }
+
+        int limit = 50 * (numberOfRows + numberOfColumns);
+        boolean degenerate = false;
+
+        for (int iteration = 0; ; iteration++) {
+            if (iteration > limit) {
+                throw new IllegalStateException("Simplex method has not converged");
+            }
+
+            // Entering column: the largest reduced cost, or the first improving one after a degenerate pivot
+            // (Bland's rule - prevents cycling)
+            int entering = -1;
+            for (int j = 0; j < allowedColumns; j++) {
+                if (reducedCosts[j] > TOLERANCE && (entering < 0 || (!degenerate && reducedCosts[j] > reducedCosts[entering]))) {
+                    entering = j;
+
+                    if (degenerate) {
+                        break;
+                    }
+                }
+            }
+
+            if (entering < 0) {
+                break;
+            }
+
+            // Leaving row: minimum ratio, ties broken by the lowest basic column
+            int leaving = -1;
+            double minRatio = Double.POSITIVE_INFINITY;
+
+            for (int i = 0; i < numberOfRows; i++) {
+                double coefficient = tableau[i * width + entering];
+
+                if (coefficient > TOLERANCE) {
+                    double ratio = tableau[i * width + numberOfColumns] / coefficient;
+
+                    if (ratio < minRatio - TOLERANCE || (ratio <= minRatio + TOLERANCE && leaving >= 0 && basis[i] < basis[leaving])) {
+                        minRatio = Math.min(minRatio, ratio);
+                        leaving = i;
+                    }
+                }
+            }
+
+            if (leaving < 0) {
+                return Double.POSITIVE_INFINITY;
+            }
+
+            degenerate = minRatio <= TOLERANCE;
+            pivot(leaving, entering, reducedCosts);
+        }
+
+        double value = 0.0;
+        for (int i = 0; i < numberOfRows; i++) {
+            value += costs[basis[i]] * tableau[i * width + numberOfColumns];
+        }
+
+        return value;
+    }
+
+    private void pivot(int row, int column, double[] reducedCosts) {
+        int width = numberOfColumns + 1;
+        int rowOffset = row * width;
+        double pivot = tableau[rowOffset + column];
+
+        for (int j = 0; j < width; j++) {
+            tableau[rowOffset + j] /= pivot;
+        }
+
+        for (int i = 0; i < numberOfRows; i++) {
+            if (i != row) {
+                int offset = i * width;
+                double factor = tableau[offset + column];
+
+                if (factor != 0.0) {
+                    for (int j = 0; j < width; j++) {
+                        tableau[offset + j] -= factor * tableau[rowOffset + j];
+                    }
+                }
+            }
+        }
+
+        if (reducedCosts != null) {
+            double factor = reducedCosts[column];
+
+            for (int j = 0; j < numberOfColumns; j++) {
+                reducedCosts[j] -= factor * tableau[rowOffset + j];
+            }
+        }
+
+        basis[row] = column;
+        numberOfPivots++;
+    }
+
+    private static String normalizedDirection(Constraint constraint) {
+        String direction = constraint.getDirection();
+
+        if (!"<=".equals(direction) && !">=".equals(direction) && !"=".equals(direction)) {
+            throw new IllegalArgumentException("direction");
+        }
+
+        // Multiplying a row by -1 (to make its rhs non-negative) reverses the inequality
+        if (constraint.getRhs() < 0) {
+            return "<=".equals(direction) ? ">=" : ">=".equals(direction) ? "<=" : "=";
+        }
+
+        return direction;
+    }
+}
@@ -0,0 +1,303 @@
+package polyrun.examples.pipeline;
+
+import polyrun.PolytopeRunner;
+import polyrun.SampleConsumer;
+import polyrun.constraints.Constraint;
+import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.random.SplitMix64Random;
+import polyrun.examples.sampling.RandomWalkFactory;
+import polyrun.thinning.ThinningFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Front end that runs concurrent sampling requests and merges requests for the same chain.
+ * <p>
+ * A request is defined by constraints, a random walk factory, a thinning function, a seed (the walk is driven
+ * by SplitMix64Random(seed) from the Chebyshev center) and a number of samples. When a chain with the same
+ * constraints, walk, thinning function and seed (see ChainKey) is already running and generates at least as many
+ * samples, the request is attached to it instead of starting a new chain. Samples generated before the request
+ * was attached are replayed from the history of the chain, so every consumer receives exactly the samples its own
+ * chain would generate, in the same order. Consumers are called on the thread of the chain without any lock held,
+ * so a slow consumer delays only its own chain and may itself submit requests.
+ * <p>
+ * The history of a chain is kept until the chain is finished (numberOfSamples * dimension doubles).
+ */
+public class ChainCoalescer {
+
+    private final ExecutorService executor;
+    private final Map<ChainKey, List<Job>> runningJobs = new HashMap<ChainKey, List<Job>>();
+
+    private long numberOfRequests;
+    private long numberOfChains;
+
+    public ChainCoalescer(ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor");
+        }
+
+        this.executor = executor;
+    }
+
+    /**
+     * Submits a request; the returned future completes with the number of samples passed to the consumer.
+     */
+    public Future<Long> submit(List<Constraint> constraints,
+                               RandomWalkFactory randomWalkFactory,
+                               ThinningFunction thinningFunction,
+                               long seed,
+                               int numberOfSamples,
+                               SampleConsumer consumer) {
+        if (numberOfSamples < 1) {
+            throw new IllegalArgumentException("numberOfSamples");
+        }
+
+        if (consumer == null) {
+            throw new IllegalArgumentException("consumer");
+        }
+
+        ChainKey key = new ChainKey(constraints, randomWalkFactory, thinningFunction, seed);
+        Subscription subscription = new Subscription(consumer, numberOfSamples);
+
+        synchronized (this) {
+            numberOfRequests++;
+
+            List<Job> jobs = runningJobs.get(key);
+            if (jobs == null) {
+                jobs = new ArrayList<Job>();
+                runningJobs.put(key, jobs);
+            }
+
+            // Jobs are guarded by the lock of the coalescer, so no other lock is taken here
+            for (Job job : jobs) {
+                if (job.attach(subscription)) {
+                    return subscription;
+                }
+            }
+
+            Job job = new Job(key, new ArrayList<Constraint>(constraints), randomWalkFactory, thinningFunction, seed,
+                    numberOfSamples);
+            job.attach(subscription);
+            jobs.add(job);
+            numberOfChains++;
+
+            executor.submit(job);
+        }
+
+        return subscription;
+    }
+
+    /**
+     * Returns the number of submitted requests.
+     */
+    public synchronized long getNumberOfRequests() {
+        return numberOfRequests;
+    }
+
+    /**
+     * Returns the number of chains started (requests minus those attached to running chains).
+     */
+    public synchronized long getNumberOfChains() {
+        return numberOfChains;
+    }
+
+    private synchronized void remove(Job job) {
+        List<Job> jobs = runningJobs.get(job.key);
+        jobs.remove(job);
+
+        if (jobs.isEmpty()) {
+            runningJobs.remove(job.key);
+        }
+    }
+
+    private class Job implements Runnable, SampleConsumer {
+
+        private final ChainKey key;
+        private final List<Constraint> constraints;
+        private final RandomWalkFactory randomWalkFactory;
+        private final ThinningFunction thinningFunction;
+        private final long seed;
+        private final int numberOfSamples;
+
+        // Replaced (not modified) under the lock of the coalescer, so the thread of the chain reads it without locking
+        private volatile Subscription[] subscriptions = new Subscription[0];
+        private boolean finished;
+
+        // Accessed only by the thread of the chain
+        private double[] history = new double[0];
+        private int dimension;
+        private int size;
+
+        Job(ChainKey key, List<Constraint> constraints, RandomWalkFactory randomWalkFactory,
+            ThinningFunction thinningFunction, long seed, int numberOfSamples) {
+            this.key = key;
+            this.constraints = constraints;
+            this.randomWalkFactory = randomWalkFactory;
+            this.thinningFunction = thinningFunction;
+            this.seed = seed;
+            this.numberOfSamples = numberOfSamples;
+        }
+
+        // Called with the lock of the coalescer held
+        boolean attach(Subscription subscription) {
+            if (finished || subscription.numberOfSamples > numberOfSamples) {
+                return false;
+            }
+
+            Subscription[] extended = Arrays.copyOf(subscriptions, subscriptions.length + 1);
+            extended[subscriptions.length] = subscription;
+            subscriptions = extended;
+            return true;
+        }
+
+        public void run() {
+            Throwable failure = null;
+
+            try {
+                PolytopeRunner runner = new PolytopeRunner(new ConstraintsSystem(constraints));
+                runner.setAnyStartPoint();
+                runner.chain(randomWalkFactory.create(new SplitMix64Random(seed)), thinningFunction, numberOfSamples, this);
+            } catch (Throwable e) {
+                failure = e;
+            }
+
+            // No request can be attached after the job is finished, so the remaining ones are completed here
+            Subscription[] remaining;
+
+            synchronized (ChainCoalescer.this) {
+                finished = true;
+                remove(this);
+                remaining = subscriptions;
+                subscriptions = new Subscription[0];
+            }
+
+            deliver(remaining);
+
+            for (Subscription subscription : remaining) {
+                if (!subscription.isDone()) {
+                    subscription.complete(failure != null ? failure
+                            : new IllegalStateException("Chain generated " + size + " samples"));
+                }
+            }
+
+            history = null;
+        }
+
+        public void consume(double[] sample) {
+            if (size == 0) {
+                dimension = sample.length;
+                history = new double[Math.min(numberOfSamples, 1024) * dimension];
+            } else if ((size + 1) * dimension > history.length) {
+                history = Arrays.copyOf(history, Math.min(numberOfSamples, 2 * (size + 1)) * dimension);
+            }
+
+            System.arraycopy(sample, 0, history, size * dimension, dimension);
+            size++;
+
+            deliver(subscriptions);
+        }
+
+        private void deliver(Subscription[] snapshot) {
+            boolean completed = false;
+
+            for (Subscription subscription : snapshot) {
+                if (subscription.isDone()) {
+                    continue;
+                }
+
+                try {
+                    while (subscription.delivered < Math.min(size, subscription.numberOfSamples)) {
+                        int offset = (int) subscription.delivered * dimension;
+                        subscription.consumer.consume(Arrays.copyOfRange(history, offset, offset + dimension));
+                        subscription.delivered++;
+                    }
+                } catch (Throwable e) {
+                    subscription.complete(e);
+                    completed = true;
+                    continue;
+                }
+
+                if (subscription.delivered == subscription.numberOfSamples) {
+                    subscription.complete(null);
+                    completed = true;
+                }
+            }
+
+            if (completed) {
+                synchronized (ChainCoalescer.this) {
+                    List<Subscription> active = new ArrayList<Subscription>();
+                    for (Subscription subscription : subscriptions) {
+                        if (!subscription.isDone()) {
+                            active.add(subscription);
+                        }
+                    }
+
+                    subscriptions = active.toArray(new Subscription[active.size()]);
+                }
+            }
+        }
+    }
+
+    private static class Subscription implements Future<Long> {
+
+        private final SampleConsumer consumer;
+        private final int numberOfSamples;
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private long delivered;
+        private volatile Throwable failure;
+
+        Subscription(SampleConsumer consumer, int numberOfSamples) {
+            this.consumer = consumer;
+            this.numberOfSamples = numberOfSamples;
+        }
+
+        void complete(Throwable failure) {
+            this.failure = failure;
+            done.countDown();
+        }
+
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return false;
+        }
+
+        public boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        public Long get() throws InterruptedException, ExecutionException {
+            done.await();
+            return result();
+        }
+
+        public Long get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+            if (!done.await(timeout, unit)) {
+                throw new TimeoutException();
+            }
+
+            return result();
+        }
+
+        private Long result() throws ExecutionException {
+            if (failure != null) {
+                throw new ExecutionException(failure);
+            }
+
+            return (long) numberOfSamples;
+        }
+    }
+}
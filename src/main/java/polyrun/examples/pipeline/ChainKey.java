@@ -0,0 +1,78 @@
+package polyrun.examples.pipeline;
+
+import polyrun.constraints.Constraint;
+import polyrun.examples.sampling.RandomWalkFactory;
+import polyrun.thinning.ThinningFunction;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Identity of a chain: constraints (compared by their coefficients, directions and right-hand sides in order),
+ * random walk factory and thinning function (compared with equals) and seed. Chains with equal keys generate
+ * identical samples.
+ */
+class ChainKey {
+
+    private final double[] coefficients;
+    private final String[] directions;
+    private final RandomWalkFactory randomWalkFactory;
+    private final ThinningFunction thinningFunction;
+    private final long seed;
+    private final int hash;
+
+    ChainKey(List<Constraint> constraints, RandomWalkFactory randomWalkFactory, ThinningFunction thinningFunction, long seed) {
+        if (constraints == null || constraints.isEmpty()) {
+            throw new IllegalArgumentException("constraints");
+        }
+
+        int dimension = constraints.get(0).getLhs().length;
+
+        // Every row holds the left-hand side followed by the right-hand side
+        this.coefficients = new double[constraints.size() * (dimension + 1)];
+        this.directions = new String[constraints.size()];
+
+        for (int i = 0; i < constraints.size(); i++) {
+            Constraint constraint = constraints.get(i);
+
+            if (constraint.getLhs().length != dimension) {
+                throw new IllegalArgumentException("constraints");
+            }
+
+            System.arraycopy(constraint.getLhs(), 0, coefficients, i * (dimension + 1), dimension);
+            coefficients[i * (dimension + 1) + dimension] = constraint.getRhs();
+            directions[i] = constraint.getDirection();
+        }
+
+        this.randomWalkFactory = randomWalkFactory;
+        this.thinningFunction = thinningFunction;
+        this.seed = seed;
+        this.hash = 31 * (31 * (31 * (31 * Arrays.hashCode(coefficients) + Arrays.hashCode(directions))
+                + randomWalkFactory.hashCode()) + thinningFunction.hashCode()) + (int) (seed ^ (seed >>> 32));
+    }
+
+    @Override
+    public boolean equals(Object object) {
+        if (this == object) {
+            return true;
+        }
+
+        if (!(object instanceof ChainKey)) {
+            return false;
+        }
+
+        ChainKey other = (ChainKey) object;
+
+        return hash == other.hash
+                && seed == other.seed
+                && randomWalkFactory.equals(other.randomWalkFactory)
+                && thinningFunction.equals(other.thinningFunction)
+                && Arrays.equals(coefficients, other.coefficients)
+                && Arrays.equals(directions, other.directions);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
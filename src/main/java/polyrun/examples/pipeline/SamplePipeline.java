@@ -0,0 +1,230 @@
+package polyrun.examples.pipeline;
+
+import polyrun.SampleConsumer;
+import polyrun.examples.scoring.BlockConsumer;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sample consumer that decouples the chain from several block consumers running on their own threads.
+ * <p>
+ * Samples are copied into a preallocated ring buffer of capacity slots (single producer, many consumers).
+ * The producer publishes its position once per batch of samples; every consumer thread follows the published
+ * position independently and passes the samples to its block consumer in blocks of at most batchSize samples.
+ * The producer waits when the slowest consumer is capacity samples behind (backpressure), so memory use
+ * is bounded and no sample is dropped. All consumers see all samples in the order in which they were generated.
+ * <p>
+ * Usage: start(), pass the pipeline to the chain, then close() - it waits until all samples are consumed.
+ * If the chain fails, call abort() instead, which stops the consumer threads without waiting for the rest.
+ */
+public class SamplePipeline implements SampleConsumer {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int DEFAULT_BATCH_SIZE = 256;
+
+    // Distance between used entries of the sequences array (keeps them in separate cache lines)
+    private static final int PADDING = 16;
+
+    private final int dimension;
+    private final int capacity;
+    private final int batchSize;
+    private final BlockConsumer[] consumers;
+    private final double[] slots;
+
+    // Entry 0 - number of published samples; entry (c + 1) * PADDING - number of samples consumed by consumer c
+    private final AtomicLongArray sequences;
+
+    private final Thread[] threads;
+    private volatile boolean started;
+    private volatile boolean closed;
+    private volatile boolean aborted;
+    private volatile Throwable failure;
+
+    // Producer state
+    private long produced;
+    private long cachedMinimum;
+
+    public SamplePipeline(int dimension, BlockConsumer... consumers) {
+        this(dimension, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, consumers);
+    }
+
+    public SamplePipeline(int dimension, int capacity, int batchSize, BlockConsumer... consumers) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension");
+        }
+
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize");
+        }
+
+        if (capacity < batchSize || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity");
+        }
+
+        if (consumers == null || consumers.length == 0) {
+            throw new IllegalArgumentException("consumers");
+        }
+
+        this.dimension = dimension;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.consumers = consumers.clone();
+        this.slots = new double[capacity * dimension];
+        this.sequences = new AtomicLongArray((consumers.length + 1) * PADDING + 1);
+        this.threads = new Thread[consumers.length];
+    }
+
+    public void start() {
+        if (started) {
+            throw new IllegalStateException("Pipeline has already been started");
+        }
+
+        started = true;
+
+        for (int c = 0; c < consumers.length; c++) {
+            final int consumer = c;
+
+            threads[c] = new Thread(new Runnable() {
+                public void run() {
+                    follow(consumer);
+                }
+            }, "sample-pipeline-" + c);
+
+            threads[c].setDaemon(true);
+            threads[c].start();
+        }
+    }
+
+    public void consume(double[] sample) {
+        // Without consumer threads the producer would wait forever once the ring is full
+        if (produced == 0 && !started) {
+            throw new IllegalStateException("Pipeline has not been started");
+        }
+
+        // Wait until the slowest consumer frees the slot
+        if (produced - cachedMinimum >= capacity) {
+            int attempt = 0;
+
+            while (produced - (cachedMinimum = minimumConsumed()) >= capacity) {
+                checkFailure();
+                idle(attempt++);
+            }
+        }
+
+        System.arraycopy(sample, 0, slots, (int) (produced & (capacity - 1)) * dimension, dimension);
+        produced++;
+
+        if (produced % batchSize == 0) {
+            sequences.lazySet(0, produced);
+        }
+    }
+
+    /**
+     * Publishes the remaining samples and waits until all consumers process them.
+     *
+     * @throws ExecutionException if one of the consumers has failed
+     */
+    public void close() throws InterruptedException, ExecutionException {
+        if (!started) {
+            throw new IllegalStateException("Pipeline has not been started");
+        }
+
+        sequences.set(0, produced);
+        closed = true;
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        if (failure != null) {
+            throw new ExecutionException(failure);
+        }
+    }
+
+    /**
+     * Stops the consumers (after the blocks they are processing) and waits for their threads; samples that were
+     * not consumed yet are dropped. Used when the chain fails before close().
+     */
+    public void abort() throws InterruptedException {
+        aborted = true;
+        closed = true;
+
+        for (Thread thread : threads) {
+            if (thread != null) {
+                thread.join();
+            }
+        }
+    }
+
+    public long getNumberOfSamples() {
+        return produced;
+    }
+
+    private void follow(int consumer) {
+        int index = (consumer + 1) * PADDING;
+        double[] block = new double[batchSize * dimension];
+        long consumed = 0;
+        int attempt = 0;
+
+        try {
+            while (!aborted) {
+                long published = sequences.get(0);
+
+                if (consumed == published) {
+                    if (closed && consumed == sequences.get(0)) {
+                        return;
+                    }
+
+                    idle(attempt++);
+                    continue;
+                }
+
+                attempt = 0;
+
+                // Copy the available samples (at most one block) out of the ring, so that the slots can be reused
+                int n = (int) Math.min(published - consumed, batchSize);
+                int first = (int) (consumed & (capacity - 1));
+                int tail = Math.min(n, capacity - first);
+
+                System.arraycopy(slots, first * dimension, block, 0, tail * dimension);
+                System.arraycopy(slots, 0, block, tail * dimension, (n - tail) * dimension);
+
+                consumed += n;
+                sequences.lazySet(index, consumed);
+
+                consumers[consumer].consume(block, n);
+            }
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            // A finished (or failed) consumer does not hold the producer back
+            sequences.set(index, Long.MAX_VALUE);
+        }
+    }
+
+    private long minimumConsumed() {
+        long minimum = Long.MAX_VALUE;
+
+        for (int c = 0; c < consumers.length; c++) {
+            minimum = Math.min(minimum, sequences.get((c + 1) * PADDING));
+        }
+
+        return minimum;
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new IllegalStateException("Sample consumer has failed", failure);
+        }
+    }
+
+    private static void idle(int attempt) {
+        if (attempt < 100) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50000);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package polyrun.examples.random;
+
+import polyrun.examples.checkpoint.Checkpointable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Base class of non-synchronized, splittable pseudo-random number generators.
+ * <p>
+ * It extends java.util.Random, so an instance can be passed wherever polyrun expects Random
+ * (e.g. new HitAndRun(new SplitMix64Random(seed))). Unlike java.util.Random, implementations do not
+ * use an AtomicLong and are not thread-safe - use split() to obtain an independent generator for every thread.
+ * The complete state can be saved and restored (see Checkpointable).
+ */
+public abstract class FastRandom extends Random implements Checkpointable {
+
+    private static final long serialVersionUID = 1L;
+
+    private double spareGaussian;
+    private boolean hasSpareGaussian;
+
+    protected FastRandom(long seed) {
+        super(seed);
+    }
+
+    @Override
+    public abstract long nextLong();
+
+    /**
+     * Returns a new generator whose stream is statistically independent of this one.
+     * The state of this generator is advanced.
+     */
+    public abstract FastRandom split();
+
+    @Override
+    public synchronized void setSeed(long seed) {
+        // Called by the constructor of java.util.Random, before fields of subclasses are initialized
+        hasSpareGaussian = false;
+        seed(seed);
+    }
+
+    protected abstract void seed(long seed);
+
+    protected abstract void writeGeneratorState(DataOutput output) throws IOException;
+
+    protected abstract void readGeneratorState(DataInput input) throws IOException;
+
+    public void writeState(DataOutput output) throws IOException {
+        output.writeBoolean(hasSpareGaussian);
+        output.writeDouble(spareGaussian);
+        writeGeneratorState(output);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        hasSpareGaussian = input.readBoolean();
+        spareGaussian = input.readDouble();
+        readGeneratorState(input);
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    @Override
+    public double nextGaussian() {
+        if (hasSpareGaussian) {
+            hasSpareGaussian = false;
+            return spareGaussian;
+        }
+
+        double u;
+        double v;
+        double s;
+
+        // Marsaglia polar method - every accepted pair gives two independent values
+        do {
+            u = 2.0 * nextDouble() - 1.0;
+            v = 2.0 * nextDouble() - 1.0;
+            s = u * u + v * v;
+        } while (s >= 1.0 || s == 0.0);
+
+        double multiplier = Math.sqrt(-2.0 * Math.log(s) / s);
+        spareGaussian = v * multiplier;
+        hasSpareGaussian = true;
+
+        return u * multiplier;
+    }
+
+    /**
+     * Writes length standard normal values to target[offset, offset + length) (e.g. a random direction).
+     */
+    public void nextGaussians(double[] target, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+
+        if (hasSpareGaussian && i < end) {
+            hasSpareGaussian = false;
+            target[i++] = spareGaussian;
+        }
+
+        while (i + 1 < end) {
+            double u;
+            double v;
+            double s;
+
+            do {
+                u = 2.0 * nextDouble() - 1.0;
+                v = 2.0 * nextDouble() - 1.0;
+                s = u * u + v * v;
+            } while (s >= 1.0 || s == 0.0);
+
+            double multiplier = Math.sqrt(-2.0 * Math.log(s) / s);
+            target[i++] = u * multiplier;
+            target[i++] = v * multiplier;
+        }
+
+        if (i < end) {
+            target[i] = nextGaussian();
+        }
+    }
+
+    protected static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,106 @@
+package polyrun.examples.random;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * L64X128MixRandom from the LXM family (the algorithm of java.util.random.RandomGenerator "L64X128MixRandom"):
+ * a 64-bit LCG combined with a xoroshiro128 generator and a mixing function. The additive parameter of the LCG
+ * selects one of 2^63 independent streams, which is used by split().
+ */
+public class L64X128Random extends FastRandom {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long M = 0xd1342543de82ef95L;
+
+    private long a;
+    private long s;
+    private long x0;
+    private long x1;
+
+    public L64X128Random() {
+        this(System.nanoTime() ^ mix64(Thread.currentThread().getId()));
+    }
+
+    public L64X128Random(long seed) {
+        super(seed);
+    }
+
+    private L64X128Random(long a, long s, long x0, long x1) {
+        super(0);
+        this.a = a | 1L;
+        this.s = s;
+        this.x0 = x0;
+        this.x1 = x1;
+
+        // The xoroshiro part must not be all zeros
+        if ((this.x0 | this.x1) == 0) {
+            this.x0 = 0x9E3779B97F4A7C15L;
+            this.x1 = 0x6A09E667F3BCC909L;
+        }
+    }
+
+    @Override
+    protected void seed(long seed) {
+        // Expand the seed with SplitMix64 into all four words of the state. This differs from the seeding of the
+        // JDK L64X128MixRandom (which fixes s = 1), so the same seed gives a different stream than the JDK class
+        long z = seed;
+        this.a = mix64(z += 0x9E3779B97F4A7C15L) | 1L;
+        this.s = mix64(z += 0x9E3779B97F4A7C15L);
+        this.x0 = mix64(z += 0x9E3779B97F4A7C15L);
+        this.x1 = mix64(z + 0x9E3779B97F4A7C15L);
+
+        if ((x0 | x1) == 0) {
+            this.x0 = 0x9E3779B97F4A7C15L;
+        }
+    }
+
+    @Override
+    protected void writeGeneratorState(DataOutput output) throws IOException {
+        output.writeLong(a);
+        output.writeLong(s);
+        output.writeLong(x0);
+        output.writeLong(x1);
+    }
+
+    @Override
+    protected void readGeneratorState(DataInput input) throws IOException {
+        this.a = input.readLong();
+        this.s = input.readLong();
+        this.x0 = input.readLong();
+        this.x1 = input.readLong();
+    }
+
+    @Override
+    public long nextLong() {
+        long result = mixLea64(s + x0);
+
+        // LCG step
+        s = M * s + a;
+
+        // xoroshiro128 step
+        long q0 = x0;
+        long q1 = x1;
+        q1 ^= q0;
+        q0 = Long.rotateLeft(q0, 24);
+        q0 = q0 ^ q1 ^ (q1 << 16);
+        q1 = Long.rotateLeft(q1, 37);
+        x0 = q0;
+        x1 = q1;
+
+        return result;
+    }
+
+    @Override
+    public L64X128Random split() {
+        return new L64X128Random(nextLong(), nextLong(), nextLong(), nextLong());
+    }
+
+    private static long mixLea64(long z) {
+        z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+        z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+        return z ^ (z >>> 32);
+    }
+}
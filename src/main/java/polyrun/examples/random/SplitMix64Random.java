@@ -0,0 +1,72 @@
+package polyrun.examples.random;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * SplitMix64 generator (the algorithm of java.util.SplittableRandom): a Weyl sequence with step gamma
+ * passed through a 64-bit mixing function. For equal seeds nextLong, nextDouble and split give the same values
+ * as SplittableRandom; nextInt does not (it takes the high bits of nextLong instead of a separate 32-bit mix).
+ */
+public class SplitMix64Random extends FastRandom {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private long state;
+    private long gamma;
+
+    public SplitMix64Random() {
+        this(System.nanoTime() ^ mix64(Thread.currentThread().getId()));
+    }
+
+    public SplitMix64Random(long seed) {
+        super(seed);
+    }
+
+    private SplitMix64Random(long state, long gamma) {
+        super(0);
+        this.state = state;
+        this.gamma = gamma;
+    }
+
+    @Override
+    protected void seed(long seed) {
+        this.state = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    @Override
+    protected void writeGeneratorState(DataOutput output) throws IOException {
+        output.writeLong(state);
+        output.writeLong(gamma);
+    }
+
+    @Override
+    protected void readGeneratorState(DataInput input) throws IOException {
+        this.state = input.readLong();
+        this.gamma = input.readLong();
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(state += gamma);
+    }
+
+    @Override
+    public SplitMix64Random split() {
+        return new SplitMix64Random(nextLong(), mixGamma(state += gamma));
+    }
+
+    private static long mixGamma(long z) {
+        // The same as in SplittableRandom: gamma has to be odd and have enough bit transitions
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+
+        return transitions < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+}
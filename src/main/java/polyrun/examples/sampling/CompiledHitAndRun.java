@@ -0,0 +1,102 @@
+package polyrun.examples.sampling;
+
+import polyrun.examples.constraints.CompiledConstraintsSystem;
+import polyrun.examples.random.FastRandom;
+import polyrun.sampling.RandomWalk;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Hit-and-run with uniformly distributed directions running against CompiledConstraintsSystem.
+ * <p>
+ * The slack of the current point is carried between steps, so a step costs one product Ad
+ * over a contiguous row-major matrix and an O(m) slack update. The slack is computed from scratch
+ * every max(1000, n) steps, so that rounding errors of the updates do not accumulate.
+ */
+public class CompiledHitAndRun implements RandomWalk {
+
+    private static final int MINIMAL_REFRESH_INTERVAL = 1000;
+
+    private final Random random;
+
+    // Compiled form of the system, rebuilt when a different one is passed
+    private double[][] cachedA;
+    private double[] cachedB;
+    private CompiledConstraintsSystem system;
+
+    // Last generated point, its slack and working buffers
+    private double[] point;
+    private double[] slack;
+    private double[] direction;
+    private double[] product;
+    private final double[] bounds = new double[2];
+
+    // Steps since the slack was last computed from scratch
+    private int numberOfUpdates;
+
+    public CompiledHitAndRun() {
+        this(new Random());
+    }
+
+    public CompiledHitAndRun(Random random) {
+        this.random = random;
+    }
+
+    public void next(double[][] A, double[] b, double[] from, double[] to) {
+        if (A != cachedA || b != cachedB) {
+            cachedA = A;
+            cachedB = b;
+            system = CompiledConstraintsSystem.compileInequalities(A, b);
+            slack = new double[system.getNumberOfInequalities()];
+            product = new double[system.getNumberOfInequalities()];
+            direction = new double[system.getDimension()];
+            point = null;
+        }
+
+        if (!Arrays.equals(point, from)) {
+            point = from.clone();
+            system.slack(point, slack);
+            numberOfUpdates = 0;
+        } else if (numberOfUpdates >= Math.max(MINIMAL_REFRESH_INTERVAL, system.getDimension())) {
+            system.slack(point, slack);
+            numberOfUpdates = 0;
+        }
+
+        // Draw direction uniformly from the unit sphere
+        if (random instanceof FastRandom) {
+            ((FastRandom) random).nextGaussians(direction, 0, direction.length);
+        } else {
+            for (int j = 0; j < direction.length; j++) {
+                direction[j] = random.nextGaussian();
+            }
+        }
+
+        double norm = 0.0;
+        for (int j = 0; j < direction.length; j++) {
+            norm += direction[j] * direction[j];
+        }
+
+        norm = Math.sqrt(norm);
+        for (int j = 0; j < direction.length; j++) {
+            direction[j] /= norm;
+        }
+
+        system.multiply(direction, product);
+        system.chord(slack, product, bounds);
+
+        if (Double.isInfinite(bounds[0]) || Double.isInfinite(bounds[1])) {
+            throw new IllegalStateException("Polytope is unbounded");
+        }
+
+        double t = bounds[0] + random.nextDouble() * (bounds[1] - bounds[0]);
+
+        for (int j = 0; j < point.length; j++) {
+            point[j] += t * direction[j];
+        }
+        system.updateSlack(slack, product, t);
+        numberOfUpdates++;
+
+        System.arraycopy(point, 0, to, 0, point.length);
+    }
+}
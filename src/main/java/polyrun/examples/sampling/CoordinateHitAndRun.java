@@ -0,0 +1,80 @@
+package polyrun.examples.sampling;
+
+import polyrun.examples.constraints.CompiledConstraintsSystem;
+import polyrun.sampling.RandomWalk;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Hit-and-run along randomly chosen coordinate axes.
+ * <p>
+ * The walk keeps the slack vector s = b - Ax of the current point. Moving along axis k changes only
+ * the k-th coordinate, so both the chord and the new slack are computed from the k-th column of A
+ * in O(m) per step. The full product Ax is evaluated when the chain is started from a point other
+ * than the one returned by the previous step, and every max(1000, n) steps, so that rounding errors of
+ * the incremental updates do not accumulate (at an amortized cost of at most one step in 1000).
+ */
+public class CoordinateHitAndRun implements RandomWalk {
+
+    private static final int MINIMAL_REFRESH_INTERVAL = 1000;
+
+    private final Random random;
+
+    // Compiled form of the system, rebuilt when a different one is passed
+    private double[][] cachedA;
+    private double[] cachedB;
+    private CompiledConstraintsSystem system;
+
+    // Last generated point and its slack
+    private double[] point;
+    private double[] slack;
+    private final double[] bounds = new double[2];
+
+    // Steps since the slack was last computed from scratch
+    private int numberOfUpdates;
+
+    public CoordinateHitAndRun() {
+        this(new Random());
+    }
+
+    public CoordinateHitAndRun(Random random) {
+        this.random = random;
+    }
+
+    public void next(double[][] A, double[] b, double[] from, double[] to) {
+        if (A != cachedA || b != cachedB) {
+            cachedA = A;
+            cachedB = b;
+            system = CompiledConstraintsSystem.compileInequalities(A, b);
+            slack = new double[system.getNumberOfInequalities()];
+            point = null;
+        }
+
+        if (!Arrays.equals(point, from)) {
+            point = from.clone();
+            system.slack(point, slack);
+            numberOfUpdates = 0;
+        } else if (numberOfUpdates >= Math.max(MINIMAL_REFRESH_INTERVAL, system.getDimension())) {
+            system.slack(point, slack);
+            numberOfUpdates = 0;
+        }
+
+        // Pick direction e_k and find the chord {from + t * e_k : A_ik * t <= s_i for all i}
+        int k = random.nextInt(system.getDimension());
+        system.coordinateChord(slack, k, bounds);
+
+        if (Double.isInfinite(bounds[0]) || Double.isInfinite(bounds[1])) {
+            throw new IllegalStateException("Polytope is unbounded in direction of coordinate " + k);
+        }
+
+        double t = bounds[0] + random.nextDouble() * (bounds[1] - bounds[0]);
+
+        // Update the point and its slack using the k-th column only
+        point[k] += t;
+        system.updateSlack(slack, k, t);
+        numberOfUpdates++;
+
+        System.arraycopy(point, 0, to, 0, point.length);
+    }
+}
@@ -0,0 +1,13 @@
+package polyrun.examples.sampling;
+
+import polyrun.sampling.RandomWalk;
+
+import java.util.Random;
+
+/**
+ * Creates random walks driven by a given generator (e.g. new HitAndRun(random)).
+ */
+public interface RandomWalkFactory {
+
+    RandomWalk create(Random random);
+}
@@ -0,0 +1,68 @@
+package polyrun.examples.sampling;
+
+import polyrun.PolytopeRunner;
+import polyrun.SampleConsumer;
+import polyrun.examples.constraints.EqualityReduction;
+import polyrun.sampling.RandomWalk;
+import polyrun.thinning.ThinningFunction;
+
+/**
+ * Runs the chain in the null space of the equality constraints and lifts every sample back
+ * to the original space. The reduction is computed once, when the runner is created.
+ */
+public class ReducedPolytopeRunner {
+
+    private final EqualityReduction reduction;
+    private final PolytopeRunner runner;
+
+    public ReducedPolytopeRunner(EqualityReduction reduction) throws Exception {
+        this.reduction = reduction;
+        this.runner = new PolytopeRunner(reduction.getReducedConstraintsSystem());
+    }
+
+    public EqualityReduction getReduction() {
+        return reduction;
+    }
+
+    public void setAnyStartPoint() throws Exception {
+        runner.setAnyStartPoint();
+    }
+
+    public void setStartPoint(double[] startPoint) throws Exception {
+        if (startPoint.length != reduction.getOriginalDimension()) {
+            throw new IllegalArgumentException("startPoint");
+        }
+
+        runner.setStartPoint(reduction.project(startPoint));
+    }
+
+    public double[][] chain(RandomWalk randomWalk, ThinningFunction thinningFunction, int numberOfSamples) throws Exception {
+        final double[][] samples = new double[numberOfSamples][reduction.getOriginalDimension()];
+
+        chain(randomWalk, thinningFunction, numberOfSamples, new SampleConsumer() {
+            private int index = 0;
+
+            public void consume(double[] sample) {
+                System.arraycopy(sample, 0, samples[index++], 0, sample.length);
+            }
+        });
+
+        return samples;
+    }
+
+    /**
+     * Passes lifted samples to the consumer. The same buffer is reused for every sample,
+     * so the consumer has to copy it if the sample is to be stored.
+     */
+    public void chain(RandomWalk randomWalk, ThinningFunction thinningFunction, int numberOfSamples,
+                      final SampleConsumer sampleConsumer) throws Exception {
+        final double[] buffer = new double[reduction.getOriginalDimension()];
+
+        runner.chain(randomWalk, thinningFunction, numberOfSamples, new SampleConsumer() {
+            public void consume(double[] sample) {
+                reduction.lift(sample, buffer);
+                sampleConsumer.consume(buffer);
+            }
+        });
+    }
+}
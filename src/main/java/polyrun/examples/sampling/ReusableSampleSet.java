@@ -0,0 +1,155 @@
+package polyrun.examples.sampling;
+
+import polyrun.PolytopeRunner;
+import polyrun.SampleConsumer;
+import polyrun.constraints.Constraint;
+import polyrun.constraints.ConstraintsSystem;
+import polyrun.examples.scoring.BlockBuffer;
+import polyrun.examples.scoring.BlockConsumer;
+import polyrun.sampling.RandomWalk;
+import polyrun.thinning.ThinningFunction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Samples of a polytope that are reused when the polytope is tightened by additional inequalities
+ * (e.g. a new assignment example in interactive elicitation).
+ * <p>
+ * Samples uniform on a polytope that fall into its subset are uniform on that subset, so tightening only
+ * filters the stored samples against the new constraints; the chain is then run only for the missing samples,
+ * starting from one of the retained ones (which is already inside the new polytope, so no start point has to be
+ * searched for). The retained samples keep the correlation of the chain they come from, so the thinning
+ * of the original chain should be adequate for the tightened polytope as well.
+ */
+public class ReusableSampleSet {
+
+    private final int dimension;
+    private final List<Constraint> constraints;
+
+    // samples[s * dimension + j] - j-th coordinate of s-th stored sample
+    private double[] samples;
+    private int numberOfSamples;
+
+    public ReusableSampleSet(List<Constraint> constraints) {
+        if (constraints == null || constraints.isEmpty()) {
+            throw new IllegalArgumentException("constraints");
+        }
+
+        this.dimension = constraints.get(0).getLhs().length;
+        this.constraints = new ArrayList<Constraint>(constraints);
+        this.samples = new double[0];
+    }
+
+    /**
+     * Adds inequality constraints and removes stored samples violating them.
+     *
+     * @return number of retained samples
+     */
+    public int tighten(List<Constraint> additionalConstraints) {
+        for (Constraint constraint : additionalConstraints) {
+            if (constraint.getLhs().length != dimension) {
+                throw new IllegalArgumentException("additionalConstraints");
+            }
+
+            // An equality would leave a set of zero volume, which contains none of the samples
+            if (!"<=".equals(constraint.getDirection()) && !">=".equals(constraint.getDirection())) {
+                throw new IllegalArgumentException("Only inequality constraints can be added");
+            }
+        }
+
+        int retained = 0;
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            if (satisfies(additionalConstraints, s * dimension)) {
+                if (retained != s) {
+                    System.arraycopy(samples, s * dimension, samples, retained * dimension, dimension);
+                }
+
+                retained++;
+            }
+        }
+
+        constraints.addAll(additionalConstraints);
+        numberOfSamples = retained;
+
+        return retained;
+    }
+
+    /**
+     * Generates samples until numberOfSamples samples are stored.
+     *
+     * @return number of newly generated samples
+     */
+    public int sample(int numberOfSamples, RandomWalk randomWalk, ThinningFunction thinningFunction) throws Exception {
+        int missing = numberOfSamples - this.numberOfSamples;
+
+        if (missing <= 0) {
+            return 0;
+        }
+
+        if (samples.length < numberOfSamples * dimension) {
+            samples = Arrays.copyOf(samples, numberOfSamples * dimension);
+        }
+
+        PolytopeRunner runner = new PolytopeRunner(new ConstraintsSystem(constraints));
+
+        if (this.numberOfSamples > 0) {
+            runner.setStartPoint(Arrays.copyOfRange(samples, (this.numberOfSamples - 1) * dimension, this.numberOfSamples * dimension));
+        } else {
+            runner.setAnyStartPoint();
+        }
+
+        runner.chain(randomWalk, thinningFunction, missing, new SampleConsumer() {
+            public void consume(double[] sample) {
+                System.arraycopy(sample, 0, samples, ReusableSampleSet.this.numberOfSamples * dimension, dimension);
+                ReusableSampleSet.this.numberOfSamples++;
+            }
+        });
+
+        return missing;
+    }
+
+    /**
+     * Passes the first numberOfSamples stored samples to the consumer in blocks.
+     */
+    public void consume(int numberOfSamples, BlockConsumer consumer) {
+        if (numberOfSamples > this.numberOfSamples) {
+            throw new IllegalArgumentException("numberOfSamples");
+        }
+
+        double[] block = new double[BlockBuffer.DEFAULT_BLOCK_SIZE * dimension];
+
+        for (int from = 0; from < numberOfSamples; from += BlockBuffer.DEFAULT_BLOCK_SIZE) {
+            int n = Math.min(BlockBuffer.DEFAULT_BLOCK_SIZE, numberOfSamples - from);
+            System.arraycopy(samples, from * dimension, block, 0, n * dimension);
+            consumer.consume(block, n);
+        }
+    }
+
+    public int getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public List<Constraint> getConstraints() {
+        return new ArrayList<Constraint>(constraints);
+    }
+
+    private boolean satisfies(List<Constraint> constraints, int offset) {
+        for (Constraint constraint : constraints) {
+            double[] lhs = constraint.getLhs();
+            double value = 0.0;
+
+            for (int j = 0; j < dimension; j++) {
+                value += lhs[j] * samples[offset + j];
+            }
+
+            if ("<=".equals(constraint.getDirection()) ? value > constraint.getRhs() : value < constraint.getRhs()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
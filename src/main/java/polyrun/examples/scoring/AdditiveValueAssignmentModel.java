@@ -0,0 +1,73 @@
+package polyrun.examples.scoring;
+
+/**
+ * Threshold-based sorting with an additive value function. A sample contains marginal values on
+ * criteria levels followed by numberOfClasses - 1 class thresholds; the value of an alternative is the
+ * sum of the sample entries listed in its variable indices and it is assigned to the class above every
+ * threshold it exceeds.
+ */
+public class AdditiveValueAssignmentModel implements AssignmentModel {
+
+    private final int sampleDimension;
+    private final int numberOfClasses;
+    private final int[][] variableIndices;
+
+    public AdditiveValueAssignmentModel(int sampleDimension, int[][] variableIndices, int numberOfClasses) {
+        if (numberOfClasses < 2 || numberOfClasses > sampleDimension + 1) {
+            throw new IllegalArgumentException("numberOfClasses");
+        }
+
+        for (int[] indices : variableIndices) {
+            for (int index : indices) {
+                if (index < 0 || index >= sampleDimension - numberOfClasses + 1) {
+                    throw new IllegalArgumentException("variableIndices");
+                }
+            }
+        }
+
+        this.sampleDimension = sampleDimension;
+        this.numberOfClasses = numberOfClasses;
+        this.variableIndices = variableIndices;
+    }
+
+    public int getSampleDimension() {
+        return sampleDimension;
+    }
+
+    public int getNumberOfAlternatives() {
+        return variableIndices.length;
+    }
+
+    public int getNumberOfClasses() {
+        return numberOfClasses;
+    }
+
+    public void assign(double[] samples, int numberOfSamples, int[] lowestClass, int[] highestClass) {
+        int numberOfAlternatives = variableIndices.length;
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            int sampleOffset = s * sampleDimension;
+            int firstThreshold = sampleOffset + sampleDimension - numberOfClasses + 1;
+            int end = sampleOffset + sampleDimension;
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                double value = 0.0;
+
+                for (int index : variableIndices[i]) {
+                    value += samples[sampleOffset + index];
+                }
+
+                int assignment = 0;
+
+                for (int t = firstThreshold; t < end; t++) {
+                    if (value > samples[t]) {
+                        assignment++;
+                    }
+                }
+
+                lowestClass[s * numberOfAlternatives + i] = assignment;
+                highestClass[s * numberOfAlternatives + i] = assignment;
+            }
+        }
+    }
+}
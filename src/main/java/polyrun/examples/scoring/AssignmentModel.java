@@ -0,0 +1,15 @@
+package polyrun.examples.scoring;
+
+/**
+ * Model that assigns every alternative to an interval of classes (0 - the worst class).
+ */
+public interface AssignmentModel extends ScoringModel {
+
+    int getNumberOfClasses();
+
+    /**
+     * Writes the lowest and the highest class of alternative i for sample s of the block
+     * to lowestClass[s * getNumberOfAlternatives() + i] and highestClass[s * getNumberOfAlternatives() + i].
+     */
+    void assign(double[] samples, int numberOfSamples, int[] lowestClass, int[] highestClass);
+}
@@ -0,0 +1,183 @@
+package polyrun.examples.scoring;
+
+/**
+ * ELECTRE TRI-rC class assignment equivalent to ConcordanceAssignmentModel, but with marginal concordance
+ * indicators packed into bitsets.
+ * <p>
+ * Bit c of a pair's bitset tells whether c_c(a_j, b_k) (or c_c(b_k, a_j)) is 1. Criteria in one weight group
+ * share a weight, so the comprehensive concordance index is sum_g popcount(bits &amp; mask_g) * w_g,
+ * i.e. a dot product of per-group counts with the sampled weights. The model stores one bit per
+ * criterion instead of one double, and the group counts of a pair are computed once per block of samples.
+ */
+public class BitsetConcordanceAssignmentModel implements PiecewiseConstantAssignmentModel {
+
+    private final int numberOfAlternatives;
+    private final int numberOfProfiles;
+    private final int numberOfWeights;
+    private final int words;
+    private final double lambda;
+
+    // groupMasks[g * words + w] - w-th word of the set of criteria whose weight index is g
+    private final long[] groupMasks;
+
+    // alternativeOutranksProfile[(j * numberOfProfiles + k) * words + w] - w-th word of {c : c_c(a_j, b_k) = 1}
+    private final long[] alternativeOutranksProfile;
+
+    // profileOutranksAlternative[(j * numberOfProfiles + k) * words + w] - w-th word of {c : c_c(b_k, a_j) = 1}
+    private final long[] profileOutranksAlternative;
+
+    public BitsetConcordanceAssignmentModel(double[][] alternatives,
+                                            double[][] characteristicProfiles,
+                                            boolean[] criteriaDirections,
+                                            int[] weightIndex,
+                                            double lambda) {
+        if (characteristicProfiles == null || characteristicProfiles.length < 2) {
+            throw new IllegalArgumentException("characteristicProfiles");
+        }
+
+        if (criteriaDirections == null || weightIndex == null || weightIndex.length != criteriaDirections.length) {
+            throw new IllegalArgumentException("weightIndex");
+        }
+
+        int numberOfCriteria = criteriaDirections.length;
+
+        this.numberOfAlternatives = alternatives.length;
+        this.numberOfProfiles = characteristicProfiles.length;
+        this.words = (numberOfCriteria + 63) >>> 6;
+        this.lambda = lambda;
+
+        int maxWeightIndex = 0;
+        for (int index : weightIndex) {
+            maxWeightIndex = Math.max(maxWeightIndex, index);
+        }
+        this.numberOfWeights = maxWeightIndex + 1;
+
+        this.groupMasks = new long[numberOfWeights * words];
+        for (int c = 0; c < numberOfCriteria; c++) {
+            groupMasks[weightIndex[c] * words + (c >>> 6)] |= 1L << c;
+        }
+
+        this.alternativeOutranksProfile = new long[numberOfAlternatives * numberOfProfiles * words];
+        this.profileOutranksAlternative = new long[numberOfAlternatives * numberOfProfiles * words];
+
+        for (int j = 0; j < numberOfAlternatives; j++) {
+            for (int k = 0; k < numberOfProfiles; k++) {
+                int offset = (j * numberOfProfiles + k) * words;
+
+                for (int c = 0; c < numberOfCriteria; c++) {
+                    double a = alternatives[j][c];
+                    double b = characteristicProfiles[k][c];
+
+                    if (criteriaDirections[c] ? a >= b : a <= b) {
+                        alternativeOutranksProfile[offset + (c >>> 6)] |= 1L << c;
+                    }
+
+                    if (criteriaDirections[c] ? b >= a : b <= a) {
+                        profileOutranksAlternative[offset + (c >>> 6)] |= 1L << c;
+                    }
+                }
+            }
+        }
+    }
+
+    public int getSampleDimension() {
+        return numberOfWeights;
+    }
+
+    public int getNumberOfAlternatives() {
+        return numberOfAlternatives;
+    }
+
+    public int getNumberOfClasses() {
+        return numberOfProfiles;
+    }
+
+    public void assign(double[] samples, int numberOfSamples, int[] lowestClass, int[] highestClass) {
+        int[] alternativeOutranksProfileCounts = new int[numberOfProfiles * numberOfWeights];
+        int[] profileOutranksAlternativeCounts = new int[numberOfProfiles * numberOfWeights];
+        double[] alternativeOutranksProfileConcordanceIndex = new double[numberOfProfiles];
+        double[] profileOutranksAlternativeConcordanceIndex = new double[numberOfProfiles];
+
+        for (int j = 0; j < numberOfAlternatives; j++) {
+            // Per-group counts of a_j do not depend on the sample
+            for (int k = 0; k < numberOfProfiles; k++) {
+                int offset = (j * numberOfProfiles + k) * words;
+
+                for (int g = 0; g < numberOfWeights; g++) {
+                    alternativeOutranksProfileCounts[k * numberOfWeights + g] = count(alternativeOutranksProfile, offset, g);
+                    profileOutranksAlternativeCounts[k * numberOfWeights + g] = count(profileOutranksAlternative, offset, g);
+                }
+            }
+
+            for (int s = 0; s < numberOfSamples; s++) {
+                int sampleOffset = s * numberOfWeights;
+
+                for (int k = 0; k < numberOfProfiles; k++) {
+                    double alternativeOutranksProfileValue = 0.0;
+                    double profileOutranksAlternativeValue = 0.0;
+
+                    for (int g = 0; g < numberOfWeights; g++) {
+                        double weight = samples[sampleOffset + g];
+                        alternativeOutranksProfileValue += alternativeOutranksProfileCounts[k * numberOfWeights + g] * weight;
+                        profileOutranksAlternativeValue += profileOutranksAlternativeCounts[k * numberOfWeights + g] * weight;
+                    }
+
+                    alternativeOutranksProfileConcordanceIndex[k] = alternativeOutranksProfileValue;
+                    profileOutranksAlternativeConcordanceIndex[k] = profileOutranksAlternativeValue;
+                }
+
+                int index = s * numberOfAlternatives + j;
+                lowestClass[index] = ConcordanceAssignmentModel.worstClass(
+                        alternativeOutranksProfileConcordanceIndex, profileOutranksAlternativeConcordanceIndex, lambda);
+                highestClass[index] = ConcordanceAssignmentModel.bestClass(
+                        alternativeOutranksProfileConcordanceIndex, profileOutranksAlternativeConcordanceIndex, lambda);
+            }
+        }
+    }
+
+    /**
+     * Returns differences compared by worstClass and bestClass as affine functions of group weights:
+     * c(a_j, b_k) - lambda, c(b_k, a_j) - lambda and c(a_j, b_k+1) - c(b_k, a_j).
+     */
+    public double[][] getDecisionFunctions(int alternative) {
+        double[][] functions = new double[3 * numberOfProfiles - 1][numberOfWeights + 1];
+        int r = 0;
+
+        for (int k = 0; k < numberOfProfiles; k++) {
+            int offset = (alternative * numberOfProfiles + k) * words;
+
+            functions[r][0] = -lambda;
+            functions[r + 1][0] = -lambda;
+
+            for (int g = 0; g < numberOfWeights; g++) {
+                functions[r][g + 1] = count(alternativeOutranksProfile, offset, g);
+                functions[r + 1][g + 1] = count(profileOutranksAlternative, offset, g);
+            }
+
+            r += 2;
+        }
+
+        for (int k = 0; k < numberOfProfiles - 1; k++) {
+            int lower = (alternative * numberOfProfiles + k) * words;
+            int upper = lower + words;
+
+            for (int g = 0; g < numberOfWeights; g++) {
+                functions[r][g + 1] = count(alternativeOutranksProfile, upper, g) - count(profileOutranksAlternative, lower, g);
+            }
+
+            r++;
+        }
+
+        return functions;
+    }
+
+    private int count(long[] bits, int offset, int group) {
+        int count = 0;
+
+        for (int w = 0; w < words; w++) {
+            count += Long.bitCount(bits[offset + w] & groupMasks[group * words + w]);
+        }
+
+        return count;
+    }
+}
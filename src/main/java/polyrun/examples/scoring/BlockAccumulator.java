@@ -0,0 +1,17 @@
+package polyrun.examples.scoring;
+
+import polyrun.examples.checkpoint.Checkpointable;
+
+/**
+ * Block consumer that aggregates results into indices, which can be split between threads
+ * (emptyCopy) and combined afterwards (merge). The aggregated state can be saved and restored
+ * (e.g. to checkpoint a long chain or to merge results computed by other processes).
+ */
+public interface BlockAccumulator<A extends BlockAccumulator<A>> extends BlockConsumer, Checkpointable {
+
+    A emptyCopy();
+
+    void merge(A other);
+
+    long getNumberOfSamples();
+}
@@ -0,0 +1,76 @@
+package polyrun.examples.scoring;
+
+import polyrun.SampleConsumer;
+import polyrun.examples.checkpoint.Checkpointable;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Collects samples coming from a chain into blocks and passes full blocks to a block consumer.
+ * flush() has to be called after the chain is finished to pass the remaining samples.
+ * If the block consumer is checkpointable, so is the buffer (pending samples are flushed first).
+ */
+public class BlockBuffer implements SampleConsumer, Checkpointable {
+
+    public static final int DEFAULT_BLOCK_SIZE = 256;
+
+    private final int dimension;
+    private final int blockSize;
+    private final BlockConsumer consumer;
+    private final double[] block;
+    private int size;
+
+    public BlockBuffer(int dimension, BlockConsumer consumer) {
+        this(dimension, DEFAULT_BLOCK_SIZE, consumer);
+    }
+
+    public BlockBuffer(int dimension, int blockSize, BlockConsumer consumer) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension");
+        }
+
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize");
+        }
+
+        this.dimension = dimension;
+        this.blockSize = blockSize;
+        this.consumer = consumer;
+        this.block = new double[dimension * blockSize];
+    }
+
+    public void consume(double[] sample) {
+        System.arraycopy(sample, 0, block, size * dimension, dimension);
+
+        if (++size == blockSize) {
+            flush();
+        }
+    }
+
+    public void flush() {
+        if (size > 0) {
+            consumer.consume(block, size);
+            size = 0;
+        }
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        flush();
+        checkpointableConsumer().writeState(output);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        size = 0;
+        checkpointableConsumer().readState(input);
+    }
+
+    private Checkpointable checkpointableConsumer() {
+        if (!(consumer instanceof Checkpointable)) {
+            throw new IllegalStateException("Block consumer is not checkpointable");
+        }
+
+        return (Checkpointable) consumer;
+    }
+}
@@ -0,0 +1,10 @@
+package polyrun.examples.scoring;
+
+public interface BlockConsumer {
+
+    /**
+     * Consumes the first numberOfSamples samples of a flat block (see ScoringModel).
+     * The block may be reused by the caller after this method returns.
+     */
+    void consume(double[] samples, int numberOfSamples);
+}
@@ -0,0 +1,74 @@
+package polyrun.examples.scoring;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class Blocks {
+
+    private Blocks() {
+    }
+
+    /**
+     * Passes samples[from, to) to the consumer in blocks of given size.
+     */
+    public static void consume(double[][] samples, int from, int to, int blockSize, BlockConsumer consumer) {
+        if (from >= to) {
+            return;
+        }
+
+        BlockBuffer buffer = new BlockBuffer(samples[from].length, blockSize, consumer);
+
+        for (int i = from; i < to; i++) {
+            buffer.consume(samples[i]);
+        }
+
+        buffer.flush();
+    }
+
+    public static void consume(double[][] samples, BlockConsumer consumer) {
+        consume(samples, 0, samples.length, BlockBuffer.DEFAULT_BLOCK_SIZE, consumer);
+    }
+
+    /**
+     * Splits samples into contiguous parts, scores them in parallel (with empty copies of the accumulator)
+     * and merges partial results into the given accumulator.
+     */
+    public static <A extends BlockAccumulator<A>> A consumeInParallel(final double[][] samples,
+                                                                     A accumulator,
+                                                                     int numberOfThreads) throws Exception {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("numberOfThreads");
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+
+        try {
+            List<Future<A>> futures = new ArrayList<Future<A>>();
+
+            for (int t = 0; t < numberOfThreads; t++) {
+                final int from = (int) ((long) samples.length * t / numberOfThreads);
+                final int to = (int) ((long) samples.length * (t + 1) / numberOfThreads);
+                final A part = accumulator.emptyCopy();
+
+                futures.add(executor.submit(new Callable<A>() {
+                    public A call() {
+                        consume(samples, from, to, BlockBuffer.DEFAULT_BLOCK_SIZE, part);
+                        return part;
+                    }
+                }));
+            }
+
+            for (Future<A> future : futures) {
+                accumulator.merge(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        return accumulator;
+    }
+}
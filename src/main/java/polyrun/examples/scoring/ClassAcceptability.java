@@ -0,0 +1,98 @@
+package polyrun.examples.scoring;
+
+import polyrun.examples.checkpoint.StateIO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Class acceptability indices of an assignment model: the share of samples in which an alternative
+ * is (possibly imprecisely) assigned to a given class.
+ */
+public class ClassAcceptability implements BlockAccumulator<ClassAcceptability> {
+
+    private final AssignmentModel model;
+    private final int numberOfAlternatives;
+    private final int numberOfClasses;
+
+    // counts[i * numberOfClasses + k] - number of samples in which a_i is assigned to class k
+    private final long[] counts;
+
+    private long numberOfSamples;
+    private int[] lowestClass = new int[0];
+    private int[] highestClass = new int[0];
+
+    public ClassAcceptability(AssignmentModel model) {
+        this.model = model;
+        this.numberOfAlternatives = model.getNumberOfAlternatives();
+        this.numberOfClasses = model.getNumberOfClasses();
+        this.counts = new long[numberOfAlternatives * numberOfClasses];
+    }
+
+    public void consume(double[] samples, int numberOfSamples) {
+        if (lowestClass.length < numberOfSamples * numberOfAlternatives) {
+            lowestClass = new int[numberOfSamples * numberOfAlternatives];
+            highestClass = new int[numberOfSamples * numberOfAlternatives];
+        }
+
+        model.assign(samples, numberOfSamples, lowestClass, highestClass);
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                int index = s * numberOfAlternatives + i;
+
+                for (int k = lowestClass[index]; k <= highestClass[index]; k++) {
+                    counts[i * numberOfClasses + k]++;
+                }
+            }
+        }
+
+        this.numberOfSamples += numberOfSamples;
+    }
+
+    public ClassAcceptability emptyCopy() {
+        return new ClassAcceptability(model);
+    }
+
+    public void merge(ClassAcceptability other) {
+        if (other.counts.length != counts.length) {
+            throw new IllegalArgumentException("other");
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        numberOfSamples += other.numberOfSamples;
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        output.writeLong(numberOfSamples);
+        StateIO.writeLongs(output, counts);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        numberOfSamples = input.readLong();
+        StateIO.readLongs(input, counts);
+    }
+
+    /**
+     * Returns matrix whose element [i][k] is the share of samples in which a_i is assigned to class k.
+     */
+    public double[][] getClassAcceptabilityIndices() {
+        double[][] indices = new double[numberOfAlternatives][numberOfClasses];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int k = 0; k < numberOfClasses; k++) {
+                indices[i][k] = counts[i * numberOfClasses + k] / (double) numberOfSamples;
+            }
+        }
+
+        return indices;
+    }
+}
@@ -0,0 +1,15 @@
+package polyrun.examples.scoring;
+
+/**
+ * Value model that can be evaluated directly on compactly stored samples (see storage.CompactSampleStore),
+ * without decoding them to doubles first. Samples start at samples[offset] and are laid out as in a block.
+ */
+public interface CompactValueModel extends ValueModel {
+
+    void values(float[] samples, int offset, int numberOfSamples, double[] values);
+
+    /**
+     * Evaluates samples given as 16-bit codes, whose k-th coordinate is lows[k] + code * steps[k].
+     */
+    void values(char[] samples, int offset, int numberOfSamples, double[] lows, double[] steps, double[] values);
+}
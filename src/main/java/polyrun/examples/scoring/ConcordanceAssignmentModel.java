@@ -0,0 +1,144 @@
+package polyrun.examples.scoring;
+
+/**
+ * ELECTRE TRI-rC class assignment based on comprehensive concordance indices, where sample
+ * contains weights of groups of criteria (criterion c has weight sample[weightIndex[c]]).
+ * <p>
+ * Marginal concordance indices depend on performances only, so they are computed once
+ * in the constructor.
+ */
+public class ConcordanceAssignmentModel implements AssignmentModel {
+
+    private final int numberOfAlternatives;
+    private final int numberOfProfiles;
+    private final int numberOfCriteria;
+    private final int numberOfWeights;
+    private final int[] weightIndex;
+    private final double lambda;
+
+    // alternativeOutranksProfile[(j * numberOfProfiles + k) * numberOfCriteria + c] = c_c(a_j, b_k)
+    private final double[] alternativeOutranksProfile;
+
+    // profileOutranksAlternative[(j * numberOfProfiles + k) * numberOfCriteria + c] = c_c(b_k, a_j)
+    private final double[] profileOutranksAlternative;
+
+    public ConcordanceAssignmentModel(double[][] alternatives,
+                                      double[][] characteristicProfiles,
+                                      boolean[] criteriaDirections,
+                                      int[] weightIndex,
+                                      double lambda) {
+        if (characteristicProfiles == null || characteristicProfiles.length < 2) {
+            throw new IllegalArgumentException("characteristicProfiles");
+        }
+
+        if (criteriaDirections == null || weightIndex == null || weightIndex.length != criteriaDirections.length) {
+            throw new IllegalArgumentException("weightIndex");
+        }
+
+        this.numberOfAlternatives = alternatives.length;
+        this.numberOfProfiles = characteristicProfiles.length;
+        this.numberOfCriteria = criteriaDirections.length;
+        this.weightIndex = weightIndex.clone();
+        this.lambda = lambda;
+
+        int maxWeightIndex = 0;
+        for (int index : weightIndex) {
+            maxWeightIndex = Math.max(maxWeightIndex, index);
+        }
+        this.numberOfWeights = maxWeightIndex + 1;
+
+        this.alternativeOutranksProfile = new double[numberOfAlternatives * numberOfProfiles * numberOfCriteria];
+        this.profileOutranksAlternative = new double[numberOfAlternatives * numberOfProfiles * numberOfCriteria];
+
+        for (int j = 0; j < numberOfAlternatives; j++) {
+            for (int k = 0; k < numberOfProfiles; k++) {
+                int offset = (j * numberOfProfiles + k) * numberOfCriteria;
+
+                for (int c = 0; c < numberOfCriteria; c++) {
+                    alternativeOutranksProfile[offset + c] = marginalConcordanceIndex(
+                            alternatives[j][c], characteristicProfiles[k][c], criteriaDirections[c]);
+                    profileOutranksAlternative[offset + c] = marginalConcordanceIndex(
+                            characteristicProfiles[k][c], alternatives[j][c], criteriaDirections[c]);
+                }
+            }
+        }
+    }
+
+    public int getSampleDimension() {
+        return numberOfWeights;
+    }
+
+    public int getNumberOfAlternatives() {
+        return numberOfAlternatives;
+    }
+
+    public int getNumberOfClasses() {
+        return numberOfProfiles;
+    }
+
+    public void assign(double[] samples, int numberOfSamples, int[] lowestClass, int[] highestClass) {
+        double[] criteriaWeights = new double[numberOfCriteria];
+        double[] alternativeOutranksProfileConcordanceIndex = new double[numberOfProfiles];
+        double[] profileOutranksAlternativeConcordanceIndex = new double[numberOfProfiles];
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            for (int c = 0; c < numberOfCriteria; c++) {
+                criteriaWeights[c] = samples[s * numberOfWeights + weightIndex[c]];
+            }
+
+            for (int j = 0; j < numberOfAlternatives; j++) {
+                for (int k = 0; k < numberOfProfiles; k++) {
+                    int offset = (j * numberOfProfiles + k) * numberOfCriteria;
+                    double alternativeOutranksProfileValue = 0.0;
+                    double profileOutranksAlternativeValue = 0.0;
+
+                    for (int c = 0; c < numberOfCriteria; c++) {
+                        alternativeOutranksProfileValue += criteriaWeights[c] * alternativeOutranksProfile[offset + c];
+                        profileOutranksAlternativeValue += criteriaWeights[c] * profileOutranksAlternative[offset + c];
+                    }
+
+                    alternativeOutranksProfileConcordanceIndex[k] = alternativeOutranksProfileValue;
+                    profileOutranksAlternativeConcordanceIndex[k] = profileOutranksAlternativeValue;
+                }
+
+                int index = s * numberOfAlternatives + j;
+                lowestClass[index] = worstClass(alternativeOutranksProfileConcordanceIndex, profileOutranksAlternativeConcordanceIndex, lambda);
+                highestClass[index] = bestClass(alternativeOutranksProfileConcordanceIndex, profileOutranksAlternativeConcordanceIndex, lambda);
+            }
+        }
+    }
+
+    static int worstClass(double[] alternativeOutranksProfile, double[] profileOutranksAlternative, double lambda) {
+        int worstClass = 0;
+
+        for (int k = 1; k < alternativeOutranksProfile.length; k++) {
+            if (alternativeOutranksProfile[k - 1] >= lambda
+                    && profileOutranksAlternative[k - 1] < lambda
+                    && alternativeOutranksProfile[k] > profileOutranksAlternative[k - 1]) {
+                worstClass = k;
+            }
+        }
+
+        return worstClass;
+    }
+
+    static int bestClass(double[] alternativeOutranksProfile, double[] profileOutranksAlternative, double lambda) {
+        for (int k = 0; k < alternativeOutranksProfile.length - 1; k++) {
+            if (profileOutranksAlternative[k + 1] >= lambda
+                    && alternativeOutranksProfile[k + 1] < lambda
+                    && profileOutranksAlternative[k] > alternativeOutranksProfile[k + 1]) {
+                return k;
+            }
+        }
+
+        return alternativeOutranksProfile.length - 1;
+    }
+
+    private static double marginalConcordanceIndex(double v1, double v2, boolean maximization) {
+        if (maximization) {
+            return v1 >= v2 ? 1.0 : 0.0;
+        } else {
+            return v1 <= v2 ? 1.0 : 0.0;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package polyrun.examples.scoring;
+
+import polyrun.examples.checkpoint.StateIO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Distribution of relative efficiencies (value divided by the best value in the sample)
+ * over numberOfIntervals equal intervals of [0, 1].
+ */
+public class EfficiencyAcceptability implements BlockAccumulator<EfficiencyAcceptability>, ValueBlockConsumer {
+
+    private final ValueModel model;
+    private final int numberOfAlternatives;
+    private final int numberOfIntervals;
+    private final double intervalSize;
+
+    // counts[i * numberOfIntervals + k] - number of samples in which relative efficiency of a_i is in k-th interval
+    private final long[] counts;
+
+    private long numberOfSamples;
+    private double[] values = new double[0];
+
+    public EfficiencyAcceptability(ValueModel model, int numberOfIntervals) {
+        if (numberOfIntervals < 1) {
+            throw new IllegalArgumentException("numberOfIntervals");
+        }
+
+        this.model = model;
+        this.numberOfAlternatives = model.getNumberOfAlternatives();
+        this.numberOfIntervals = numberOfIntervals;
+        this.intervalSize = 1.0 / (double) numberOfIntervals;
+        this.counts = new long[numberOfAlternatives * numberOfIntervals];
+    }
+
+    public void consume(double[] samples, int numberOfSamples) {
+        if (values.length < numberOfSamples * numberOfAlternatives) {
+            values = new double[numberOfSamples * numberOfAlternatives];
+        }
+
+        model.values(samples, numberOfSamples, values);
+        consumeValues(values, numberOfSamples);
+    }
+
+    public void consumeValues(double[] values, int numberOfSamples) {
+        for (int s = 0; s < numberOfSamples; s++) {
+            int offset = s * numberOfAlternatives;
+
+            double maximalEfficiency = values[offset];
+            for (int i = 1; i < numberOfAlternatives; i++) {
+                if (maximalEfficiency < values[offset + i]) {
+                    maximalEfficiency = values[offset + i];
+                }
+            }
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                double efficiency = values[offset + i];
+                int interval = efficiency == 0.0 ? 0 : (int) Math.ceil(efficiency / maximalEfficiency / intervalSize) - 1;
+                counts[i * numberOfIntervals + interval]++;
+            }
+        }
+
+        this.numberOfSamples += numberOfSamples;
+    }
+
+    public EfficiencyAcceptability emptyCopy() {
+        return new EfficiencyAcceptability(model, numberOfIntervals);
+    }
+
+    public void merge(EfficiencyAcceptability other) {
+        if (other.counts.length != counts.length) {
+            throw new IllegalArgumentException("other");
+        }
+
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+
+        numberOfSamples += other.numberOfSamples;
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        output.writeLong(numberOfSamples);
+        StateIO.writeLongs(output, counts);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        numberOfSamples = input.readLong();
+        StateIO.readLongs(input, counts);
+    }
+
+    public int getNumberOfIntervals() {
+        return numberOfIntervals;
+    }
+
+    public double getIntervalSize() {
+        return intervalSize;
+    }
+
+    /**
+     * Returns matrix whose element [i][k] is the share of samples in which relative efficiency of a_i
+     * is in (k * intervalSize, (k + 1) * intervalSize] (the first interval is closed).
+     */
+    public double[][] getEfficiencyAcceptabilityIndices() {
+        double[][] indices = new double[numberOfAlternatives][numberOfIntervals];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int k = 0; k < numberOfIntervals; k++) {
+                indices[i][k] = counts[i * numberOfIntervals + k] / (double) numberOfSamples;
+            }
+        }
+
+        return indices;
+    }
+}
@@ -0,0 +1,136 @@
+package polyrun.examples.scoring;
+
+/**
+ * Faster equivalent of AdditiveValueAssignmentModel for many alternatives.
+ * <p>
+ * Variable indices of all alternatives are stored in one flat table with a fixed number of entries per
+ * alternative; missing entries (the worst level, whose marginal value is 0) point to a zero slot appended
+ * to a per-sample copy of the marginal values. Hence, the comprehensive value of an alternative is a fixed
+ * number of table reads without branches. The class is found by binary search over the thresholds when they
+ * are non-decreasing (which the constraints of the model usually guarantee) and by a linear scan otherwise.
+ */
+public class LevelTableAssignmentModel implements AssignmentModel {
+
+    private final int sampleDimension;
+    private final int numberOfClasses;
+    private final int numberOfAlternatives;
+    private final int numberOfLevelVariables;
+    private final int width;
+
+    // levels[i * width + c] - index of the c-th variable of a_i in the marginal value table
+    private final int[] levels;
+
+    public LevelTableAssignmentModel(int sampleDimension, int[][] variableIndices, int numberOfClasses) {
+        if (numberOfClasses < 2 || numberOfClasses > sampleDimension + 1) {
+            throw new IllegalArgumentException("numberOfClasses");
+        }
+
+        this.sampleDimension = sampleDimension;
+        this.numberOfClasses = numberOfClasses;
+        this.numberOfAlternatives = variableIndices.length;
+        this.numberOfLevelVariables = sampleDimension - numberOfClasses + 1;
+
+        int maxLength = 0;
+        for (int[] indices : variableIndices) {
+            maxLength = Math.max(maxLength, indices.length);
+        }
+        this.width = maxLength;
+
+        this.levels = new int[numberOfAlternatives * width];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int c = 0; c < width; c++) {
+                if (c < variableIndices[i].length) {
+                    int index = variableIndices[i][c];
+
+                    if (index < 0 || index >= numberOfLevelVariables) {
+                        throw new IllegalArgumentException("variableIndices");
+                    }
+
+                    levels[i * width + c] = index;
+                } else {
+                    levels[i * width + c] = numberOfLevelVariables; // zero slot
+                }
+            }
+        }
+    }
+
+    public int getSampleDimension() {
+        return sampleDimension;
+    }
+
+    public int getNumberOfAlternatives() {
+        return numberOfAlternatives;
+    }
+
+    public int getNumberOfClasses() {
+        return numberOfClasses;
+    }
+
+    public void assign(double[] samples, int numberOfSamples, int[] lowestClass, int[] highestClass) {
+        double[] table = new double[numberOfLevelVariables + 1];
+        double[] thresholds = new double[numberOfClasses - 1];
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            int sampleOffset = s * sampleDimension;
+
+            System.arraycopy(samples, sampleOffset, table, 0, numberOfLevelVariables);
+            table[numberOfLevelVariables] = 0.0;
+            System.arraycopy(samples, sampleOffset + numberOfLevelVariables, thresholds, 0, thresholds.length);
+
+            boolean sorted = true;
+            for (int t = 1; t < thresholds.length; t++) {
+                if (thresholds[t] < thresholds[t - 1]) {
+                    sorted = false;
+                    break;
+                }
+            }
+
+            int outputOffset = s * numberOfAlternatives;
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                int offset = i * width;
+                double value = 0.0;
+
+                for (int c = 0; c < width; c++) {
+                    value += table[levels[offset + c]];
+                }
+
+                int assignment = sorted ? countBelow(thresholds, value) : countBelowUnsorted(thresholds, value);
+
+                lowestClass[outputOffset + i] = assignment;
+                highestClass[outputOffset + i] = assignment;
+            }
+        }
+    }
+
+    // Number of thresholds t < value for non-decreasing thresholds (first t >= value)
+    private static int countBelow(double[] thresholds, double value) {
+        int low = 0;
+        int high = thresholds.length;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (thresholds[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+
+        return low;
+    }
+
+    private static int countBelowUnsorted(double[] thresholds, double value) {
+        int count = 0;
+
+        for (double threshold : thresholds) {
+            if (value > threshold) {
+                count++;
+            }
+        }
+
+        return count;
+    }
+}
@@ -0,0 +1,14 @@
+package polyrun.examples.scoring;
+
+/**
+ * Assignment model whose assignment of an alternative depends only on the signs of a few affine
+ * functions of the sample. Hence, the assignment is constant on every set on which none of these
+ * functions changes its sign.
+ */
+public interface PiecewiseConstantAssignmentModel extends AssignmentModel {
+
+    /**
+     * Returns decision functions of the alternative: row r represents f_r(w) = row[0] + sum_g row[g + 1] * w_g.
+     */
+    double[][] getDecisionFunctions(int alternative);
+}
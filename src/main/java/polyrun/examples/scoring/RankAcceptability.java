@@ -0,0 +1,124 @@
+package polyrun.examples.scoring;
+
+import polyrun.examples.checkpoint.StateIO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Rank acceptability indices and pairwise winning indices of a value model.
+ */
+public class RankAcceptability implements BlockAccumulator<RankAcceptability>, ValueBlockConsumer {
+
+    private final ValueModel model;
+    private final int numberOfAlternatives;
+
+    // rankCounts[i * numberOfAlternatives + r] - number of samples in which a_i has rank r (0 - the best)
+    private final long[] rankCounts;
+
+    // winningCounts[i * numberOfAlternatives + j] - number of samples in which a_i is better than a_j
+    private final long[] winningCounts;
+
+    private long numberOfSamples;
+    private double[] values = new double[0];
+
+    public RankAcceptability(ValueModel model) {
+        this.model = model;
+        this.numberOfAlternatives = model.getNumberOfAlternatives();
+        this.rankCounts = new long[numberOfAlternatives * numberOfAlternatives];
+        this.winningCounts = new long[numberOfAlternatives * numberOfAlternatives];
+    }
+
+    public void consume(double[] samples, int numberOfSamples) {
+        if (values.length < numberOfSamples * numberOfAlternatives) {
+            values = new double[numberOfSamples * numberOfAlternatives];
+        }
+
+        model.values(samples, numberOfSamples, values);
+        consumeValues(values, numberOfSamples);
+    }
+
+    public void consumeValues(double[] values, int numberOfSamples) {
+        for (int s = 0; s < numberOfSamples; s++) {
+            add(values, s * numberOfAlternatives);
+        }
+
+        this.numberOfSamples += numberOfSamples;
+    }
+
+    private void add(double[] values, int offset) {
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            double value = values[offset + i];
+            int rank = 0;
+
+            for (int j = 0; j < numberOfAlternatives; j++) {
+                if (value < values[offset + j]) {
+                    winningCounts[j * numberOfAlternatives + i]++;
+                    rank++;
+                }
+            }
+
+            rankCounts[i * numberOfAlternatives + rank]++;
+        }
+    }
+
+    public RankAcceptability emptyCopy() {
+        return new RankAcceptability(model);
+    }
+
+    public void merge(RankAcceptability other) {
+        if (other.numberOfAlternatives != numberOfAlternatives) {
+            throw new IllegalArgumentException("other");
+        }
+
+        for (int i = 0; i < rankCounts.length; i++) {
+            rankCounts[i] += other.rankCounts[i];
+            winningCounts[i] += other.winningCounts[i];
+        }
+
+        numberOfSamples += other.numberOfSamples;
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        output.writeLong(numberOfSamples);
+        StateIO.writeLongs(output, rankCounts);
+        StateIO.writeLongs(output, winningCounts);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        numberOfSamples = input.readLong();
+        StateIO.readLongs(input, rankCounts);
+        StateIO.readLongs(input, winningCounts);
+    }
+
+    /**
+     * Returns matrix whose element [i][r] is the share of samples in which a_i has rank r + 1.
+     */
+    public double[][] getRankAcceptabilityIndices() {
+        return normalize(rankCounts);
+    }
+
+    /**
+     * Returns matrix whose element [i][j] is the share of samples in which a_i is better than a_j.
+     */
+    public double[][] getPairwiseWinningIndices() {
+        return normalize(winningCounts);
+    }
+
+    private double[][] normalize(long[] counts) {
+        double[][] indices = new double[numberOfAlternatives][numberOfAlternatives];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int j = 0; j < numberOfAlternatives; j++) {
+                indices[i][j] = counts[i * numberOfAlternatives + j] / (double) numberOfSamples;
+            }
+        }
+
+        return indices;
+    }
+}
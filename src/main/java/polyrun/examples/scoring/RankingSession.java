@@ -0,0 +1,254 @@
+package polyrun.examples.scoring;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rank acceptability and pairwise winning indices of a weighted sum model (see WeightedSumModel) that are
+ * updated when alternatives are added, removed or edited, while the sampled weights stay the same.
+ * <p>
+ * Comprehensive values and ranks are kept for every sample and alternative, so a change of one alternative
+ * costs O(numberOfSamples * (numberOfCriteria + numberOfAlternatives)): its values are recomputed, compared
+ * with values of the other alternatives, and ranks of the others are shifted by one where the comparison changed.
+ * Results are the same as those of RankAcceptability computed from scratch.
+ */
+public class RankingSession {
+
+    private final int numberOfCriteria;
+    private final int numberOfSamples;
+
+    // samples[s * numberOfCriteria + j] - weight of j-th criterion in sample s
+    private final double[] samples;
+
+    // Per alternative: marginal values, values[s] - comprehensive value in sample s, ranks[s] - rank in sample s
+    private final List<double[]> marginalValues = new ArrayList<double[]>();
+    private final List<double[]> values = new ArrayList<double[]>();
+    private final List<int[]> ranks = new ArrayList<int[]>();
+
+    // winningCounts[i * numberOfAlternatives + j] - number of samples in which a_i is better than a_j
+    private long[] winningCounts = new long[0];
+
+    public RankingSession(double[] samples, int numberOfSamples, int numberOfCriteria) {
+        if (numberOfCriteria < 1) {
+            throw new IllegalArgumentException("numberOfCriteria");
+        }
+
+        if (numberOfSamples < 1 || samples.length < numberOfSamples * numberOfCriteria) {
+            throw new IllegalArgumentException("numberOfSamples");
+        }
+
+        this.numberOfCriteria = numberOfCriteria;
+        this.numberOfSamples = numberOfSamples;
+        this.samples = new double[numberOfSamples * numberOfCriteria];
+        System.arraycopy(samples, 0, this.samples, 0, this.samples.length);
+    }
+
+    public int getNumberOfAlternatives() {
+        return values.size();
+    }
+
+    public int getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public double[] getMarginalValues(int alternative) {
+        return marginalValues.get(alternative).clone();
+    }
+
+    /**
+     * Adds an alternative at the end and returns its index.
+     */
+    public int addAlternative(double[] alternativeMarginalValues) {
+        checkMarginalValues(alternativeMarginalValues);
+
+        int alternative = values.size();
+        resizeWinningCounts(-1, alternative + 1);
+
+        marginalValues.add(alternativeMarginalValues.clone());
+        values.add(new double[numberOfSamples]);
+        ranks.add(new int[numberOfSamples]);
+
+        update(alternative, false);
+
+        return alternative;
+    }
+
+    /**
+     * Removes an alternative; alternatives with greater indices are shifted down by one.
+     */
+    public void removeAlternative(int alternative) {
+        double[] removedValues = values.get(alternative);
+
+        // Alternatives worse than the removed one move up by one rank
+        for (int j = 0; j < values.size(); j++) {
+            if (j == alternative) {
+                continue;
+            }
+
+            double[] otherValues = values.get(j);
+            int[] otherRanks = ranks.get(j);
+
+            for (int s = 0; s < numberOfSamples; s++) {
+                if (otherValues[s] < removedValues[s]) {
+                    otherRanks[s]--;
+                }
+            }
+        }
+
+        marginalValues.remove(alternative);
+        values.remove(alternative);
+        ranks.remove(alternative);
+        resizeWinningCounts(alternative, values.size());
+    }
+
+    /**
+     * Replaces marginal values of an alternative.
+     */
+    public void setAlternative(int alternative, double[] alternativeMarginalValues) {
+        checkMarginalValues(alternativeMarginalValues);
+
+        marginalValues.set(alternative, alternativeMarginalValues.clone());
+        update(alternative, true);
+    }
+
+    private void update(int alternative, boolean present) {
+        int numberOfAlternatives = values.size();
+        double[] marginal = marginalValues.get(alternative);
+        double[] alternativeValues = values.get(alternative);
+        int[] alternativeRanks = ranks.get(alternative);
+
+        // New comprehensive values (old ones are kept for comparisons)
+        double[] newValues = new double[numberOfSamples];
+        for (int s = 0; s < numberOfSamples; s++) {
+            int offset = s * numberOfCriteria;
+            double value = 0.0;
+
+            for (int j = 0; j < numberOfCriteria; j++) {
+                value += samples[offset + j] * marginal[j];
+            }
+
+            newValues[s] = value;
+            alternativeRanks[s] = 0;
+        }
+
+        // Compare with every other alternative (sample-wise, so that arrays are read sequentially)
+        for (int j = 0; j < numberOfAlternatives; j++) {
+            if (j == alternative) {
+                continue;
+            }
+
+            double[] otherValues = values.get(j);
+            int[] otherRanks = ranks.get(j);
+            long winsDelta = 0;
+            long lossesDelta = 0;
+
+            for (int s = 0; s < numberOfSamples; s++) {
+                double other = otherValues[s];
+                double value = newValues[s];
+
+                boolean wins = other < value;
+                boolean loses = value < other;
+
+                if (present) {
+                    double oldValue = alternativeValues[s];
+                    boolean won = other < oldValue;
+
+                    if (wins != won) {
+                        otherRanks[s] += wins ? 1 : -1;
+                        winsDelta += wins ? 1 : -1;
+                    }
+
+                    if (loses != (oldValue < other)) {
+                        lossesDelta += loses ? 1 : -1;
+                    }
+                } else {
+                    if (wins) {
+                        otherRanks[s]++;
+                        winsDelta++;
+                    }
+
+                    if (loses) {
+                        lossesDelta++;
+                    }
+                }
+
+                if (loses) {
+                    alternativeRanks[s]++;
+                }
+            }
+
+            winningCounts[alternative * numberOfAlternatives + j] += winsDelta;
+            winningCounts[j * numberOfAlternatives + alternative] += lossesDelta;
+        }
+
+        System.arraycopy(newValues, 0, alternativeValues, 0, numberOfSamples);
+    }
+
+    private void resizeWinningCounts(int removed, int numberOfAlternatives) {
+        int oldNumberOfAlternatives = removed < 0 ? numberOfAlternatives - 1 : numberOfAlternatives + 1;
+        long[] counts = new long[numberOfAlternatives * numberOfAlternatives];
+
+        for (int i = 0, ni = 0; i < oldNumberOfAlternatives; i++) {
+            if (i == removed) {
+                continue;
+            }
+
+            for (int j = 0, nj = 0; j < oldNumberOfAlternatives; j++) {
+                if (j == removed) {
+                    continue;
+                }
+
+                counts[ni * numberOfAlternatives + nj] = winningCounts[i * oldNumberOfAlternatives + j];
+                nj++;
+            }
+
+            ni++;
+        }
+
+        winningCounts = counts;
+    }
+
+    private void checkMarginalValues(double[] alternativeMarginalValues) {
+        if (alternativeMarginalValues == null || alternativeMarginalValues.length != numberOfCriteria) {
+            throw new IllegalArgumentException("marginalValues");
+        }
+    }
+
+    /**
+     * Returns matrix whose element [i][r] is the share of samples in which a_i has rank r + 1.
+     */
+    public double[][] getRankAcceptabilityIndices() {
+        int numberOfAlternatives = values.size();
+        double[][] indices = new double[numberOfAlternatives][numberOfAlternatives];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            int[] alternativeRanks = ranks.get(i);
+
+            for (int s = 0; s < numberOfSamples; s++) {
+                indices[i][alternativeRanks[s]]++;
+            }
+
+            for (int r = 0; r < numberOfAlternatives; r++) {
+                indices[i][r] /= numberOfSamples;
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Returns matrix whose element [i][j] is the share of samples in which a_i is better than a_j.
+     */
+    public double[][] getPairwiseWinningIndices() {
+        int numberOfAlternatives = values.size();
+        double[][] indices = new double[numberOfAlternatives][numberOfAlternatives];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int j = 0; j < numberOfAlternatives; j++) {
+                indices[i][j] = winningCounts[i * numberOfAlternatives + j] / (double) numberOfSamples;
+            }
+        }
+
+        return indices;
+    }
+}
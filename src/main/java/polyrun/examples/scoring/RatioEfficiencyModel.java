@@ -0,0 +1,132 @@
+package polyrun.examples.scoring;
+
+/**
+ * DEA ratio efficiency: E(a_i) = (u^T * outputs_i) / (v^T * inputs_i), where sample = [v, u].
+ */
+public class RatioEfficiencyModel implements CompactValueModel {
+
+    private final int numberOfUnits;
+    private final int numberOfInputs;
+    private final int numberOfOutputs;
+    private final double[] inputs;
+    private final double[] outputs;
+
+    public RatioEfficiencyModel(double[][] inputs, double[][] outputs) {
+        if (inputs == null || inputs.length == 0) {
+            throw new IllegalArgumentException("inputs");
+        }
+
+        if (outputs == null || outputs.length != inputs.length) {
+            throw new IllegalArgumentException("outputs");
+        }
+
+        this.numberOfUnits = inputs.length;
+        this.numberOfInputs = inputs[0].length;
+        this.numberOfOutputs = outputs[0].length;
+        this.inputs = new double[numberOfUnits * numberOfInputs];
+        this.outputs = new double[numberOfUnits * numberOfOutputs];
+
+        for (int i = 0; i < numberOfUnits; i++) {
+            System.arraycopy(inputs[i], 0, this.inputs, i * numberOfInputs, numberOfInputs);
+            System.arraycopy(outputs[i], 0, this.outputs, i * numberOfOutputs, numberOfOutputs);
+        }
+    }
+
+    public int getSampleDimension() {
+        return numberOfInputs + numberOfOutputs;
+    }
+
+    public int getNumberOfAlternatives() {
+        return numberOfUnits;
+    }
+
+    public void values(double[] samples, int numberOfSamples, double[] values) {
+        int dimension = getSampleDimension();
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            int inputWeightsOffset = s * dimension;
+            int outputWeightsOffset = inputWeightsOffset + numberOfInputs;
+
+            for (int i = 0; i < numberOfUnits; i++) {
+                double nom = 0.0;
+                double denom = 0.0;
+
+                for (int k = 0; k < numberOfOutputs; k++) {
+                    nom += outputs[i * numberOfOutputs + k] * samples[outputWeightsOffset + k];
+                }
+
+                for (int k = 0; k < numberOfInputs; k++) {
+                    denom += inputs[i * numberOfInputs + k] * samples[inputWeightsOffset + k];
+                }
+
+                values[s * numberOfUnits + i] = nom / denom;
+            }
+        }
+    }
+
+    public void values(float[] samples, int offset, int numberOfSamples, double[] values) {
+        int dimension = getSampleDimension();
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            int inputWeightsOffset = offset + s * dimension;
+            int outputWeightsOffset = inputWeightsOffset + numberOfInputs;
+
+            for (int i = 0; i < numberOfUnits; i++) {
+                double nom = 0.0;
+                double denom = 0.0;
+
+                for (int k = 0; k < numberOfOutputs; k++) {
+                    nom += outputs[i * numberOfOutputs + k] * samples[outputWeightsOffset + k];
+                }
+
+                for (int k = 0; k < numberOfInputs; k++) {
+                    denom += inputs[i * numberOfInputs + k] * samples[inputWeightsOffset + k];
+                }
+
+                values[s * numberOfUnits + i] = nom / denom;
+            }
+        }
+    }
+
+    public void values(char[] samples, int offset, int numberOfSamples, double[] lows, double[] steps, double[] values) {
+        int dimension = getSampleDimension();
+
+        // Weighted sums of inputs and outputs are base + sum_k code_k * scaled_k (see WeightedSumModel)
+        double[] inputBases = new double[numberOfUnits];
+        double[] outputBases = new double[numberOfUnits];
+        double[] scaledInputs = new double[inputs.length];
+        double[] scaledOutputs = new double[outputs.length];
+
+        for (int i = 0; i < numberOfUnits; i++) {
+            for (int k = 0; k < numberOfInputs; k++) {
+                inputBases[i] += lows[k] * inputs[i * numberOfInputs + k];
+                scaledInputs[i * numberOfInputs + k] = steps[k] * inputs[i * numberOfInputs + k];
+            }
+
+            for (int k = 0; k < numberOfOutputs; k++) {
+                outputBases[i] += lows[numberOfInputs + k] * outputs[i * numberOfOutputs + k];
+                scaledOutputs[i * numberOfOutputs + k] = steps[numberOfInputs + k] * outputs[i * numberOfOutputs + k];
+            }
+        }
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            int inputWeightsOffset = offset + s * dimension;
+            int outputWeightsOffset = inputWeightsOffset + numberOfInputs;
+
+            for (int i = 0; i < numberOfUnits; i++) {
+                double nom = outputBases[i];
+                double denom = inputBases[i];
+
+                for (int k = 0; k < numberOfOutputs; k++) {
+                    nom += scaledOutputs[i * numberOfOutputs + k] * samples[outputWeightsOffset + k];
+                }
+
+                for (int k = 0; k < numberOfInputs; k++) {
+                    denom += scaledInputs[i * numberOfInputs + k] * samples[inputWeightsOffset + k];
+                }
+
+                values[s * numberOfUnits + i] = nom / denom;
+            }
+        }
+    }
+}
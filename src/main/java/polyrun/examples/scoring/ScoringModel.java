@@ -0,0 +1,15 @@
+package polyrun.examples.scoring;
+
+/**
+ * MCDA model evaluated for blocks of samples.
+ * <p>
+ * A block of samples is a flat array in which sample s occupies
+ * [s * getSampleDimension(), (s + 1) * getSampleDimension()). Implementations keep no per-call
+ * state, so a single model can be shared by several threads.
+ */
+public interface ScoringModel {
+
+    int getSampleDimension();
+
+    int getNumberOfAlternatives();
+}
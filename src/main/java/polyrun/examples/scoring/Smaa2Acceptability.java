@@ -0,0 +1,235 @@
+package polyrun.examples.scoring;
+
+import java.util.Random;
+
+/**
+ * SMAA-2 indices computed in a single streaming pass over pairs (criteria sample, weights sample):
+ * rank acceptability indices, central weight vectors and confidence factors.
+ * <p>
+ * A criteria sample is given as a flat matrix of marginal values (marginalValues[i * numberOfCriteria + j])
+ * and comprehensive values are weighted sums. Central weight vectors are running means of weights for which
+ * an alternative is ranked first. Confidence factors need the central weights, which are known only at the end,
+ * so a bounded reservoir of criteria samples is kept (uniform reservoir sampling) and evaluated on demand.
+ */
+public class Smaa2Acceptability {
+
+    private final int numberOfAlternatives;
+    private final int numberOfCriteria;
+    private final Random random;
+
+    // rankCounts[i * numberOfAlternatives + r] - number of pairs in which a_i has rank r (0 - the best)
+    private final long[] rankCounts;
+
+    // centralWeightSums[i * numberOfCriteria + j] - sum of w_j over pairs in which a_i is the best
+    private final double[] centralWeightSums;
+
+    private long numberOfSamples;
+
+    // Reservoir of criteria samples (used for confidence factors)
+    private final double[][] reservoir;
+    private int reservoirSize;
+    private long numberOfCriteriaSamples;
+
+    private double[] values;
+
+    public Smaa2Acceptability(int numberOfAlternatives, int numberOfCriteria, int reservoirCapacity, Random random) {
+        if (numberOfAlternatives < 1) {
+            throw new IllegalArgumentException("numberOfAlternatives");
+        }
+
+        if (numberOfCriteria < 1) {
+            throw new IllegalArgumentException("numberOfCriteria");
+        }
+
+        if (reservoirCapacity < 1) {
+            throw new IllegalArgumentException("reservoirCapacity");
+        }
+
+        this.numberOfAlternatives = numberOfAlternatives;
+        this.numberOfCriteria = numberOfCriteria;
+        this.random = random;
+        this.rankCounts = new long[numberOfAlternatives * numberOfAlternatives];
+        this.centralWeightSums = new double[numberOfAlternatives * numberOfCriteria];
+        this.reservoir = new double[reservoirCapacity][];
+        this.values = new double[numberOfAlternatives];
+    }
+
+    /**
+     * Processes a single criteria sample against the first numberOfWeights samples of a flat block of weights.
+     */
+    public void consume(double[] marginalValues, double[] weights, int numberOfWeights) {
+        if (marginalValues.length != numberOfAlternatives * numberOfCriteria) {
+            throw new IllegalArgumentException("marginalValues");
+        }
+
+        for (int w = 0; w < numberOfWeights; w++) {
+            int weightsOffset = w * numberOfCriteria;
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                double value = 0.0;
+
+                for (int j = 0; j < numberOfCriteria; j++) {
+                    value += weights[weightsOffset + j] * marginalValues[i * numberOfCriteria + j];
+                }
+
+                values[i] = value;
+            }
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                int rank = rank(values, i);
+                rankCounts[i * numberOfAlternatives + rank]++;
+
+                if (rank == 0) {
+                    for (int j = 0; j < numberOfCriteria; j++) {
+                        centralWeightSums[i * numberOfCriteria + j] += weights[weightsOffset + j];
+                    }
+                }
+            }
+        }
+
+        numberOfSamples += numberOfWeights;
+        offerToReservoir(marginalValues);
+    }
+
+    /**
+     * Scales a sampled performance table (performances[offset + i * numberOfCriteria + j]) to marginal values
+     * in [0, 1]: 0 is the worst and 1 the best value of a criterion in the sample (criteriaDirections: true - max,
+     * false - min).
+     */
+    public static void scale(double[] performances, int offset, boolean[] criteriaDirections, double[] marginalValues) {
+        int numberOfCriteria = criteriaDirections.length;
+        int numberOfAlternatives = marginalValues.length / numberOfCriteria;
+
+        for (int k = 0; k < numberOfCriteria; k++) {
+            double worst = performances[offset + k];
+            double best = performances[offset + k];
+
+            for (int i = 1; i < numberOfAlternatives; i++) {
+                double value = performances[offset + i * numberOfCriteria + k];
+
+                if (criteriaDirections[k] ? value < worst : value > worst) {
+                    worst = value;
+                }
+
+                if (criteriaDirections[k] ? value > best : value < best) {
+                    best = value;
+                }
+            }
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                marginalValues[i * numberOfCriteria + k] = (performances[offset + i * numberOfCriteria + k] - worst) / (best - worst);
+            }
+        }
+    }
+
+    private void offerToReservoir(double[] marginalValues) {
+        numberOfCriteriaSamples++;
+
+        if (reservoirSize < reservoir.length) {
+            reservoir[reservoirSize++] = marginalValues.clone();
+        } else {
+            long index = (long) (random.nextDouble() * numberOfCriteriaSamples);
+
+            if (index < reservoir.length) {
+                System.arraycopy(marginalValues, 0, reservoir[(int) index], 0, marginalValues.length);
+            }
+        }
+    }
+
+    private int rank(double[] values, int alternative) {
+        int rank = 0;
+
+        for (int k = 0; k < numberOfAlternatives; k++) {
+            if (values[alternative] < values[k]) {
+                rank++;
+            }
+        }
+
+        return rank;
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    /**
+     * Returns the numbers of samples in which a_i has rank r + 1 (element [i * numberOfAlternatives + r]).
+     */
+    public long[] getRankCounts() {
+        return rankCounts.clone();
+    }
+
+    /**
+     * Returns matrix whose element [i][r] is the share of samples in which a_i has rank r + 1.
+     */
+    public double[][] getRankAcceptabilityIndices() {
+        double[][] indices = new double[numberOfAlternatives][numberOfAlternatives];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int r = 0; r < numberOfAlternatives; r++) {
+                indices[i][r] = rankCounts[i * numberOfAlternatives + r] / (double) numberOfSamples;
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Returns the central weight vector of a_i or null if a_i has never been ranked first.
+     */
+    public double[] getCentralWeightVector(int alternative) {
+        long count = rankCounts[alternative * numberOfAlternatives];
+
+        if (count == 0) {
+            return null;
+        }
+
+        double[] vector = new double[numberOfCriteria];
+        for (int j = 0; j < numberOfCriteria; j++) {
+            vector[j] = centralWeightSums[alternative * numberOfCriteria + j] / (double) count;
+        }
+
+        return vector;
+    }
+
+    /**
+     * Returns for every alternative the share of reservoir criteria samples in which it is ranked first
+     * when its central weight vector is used (0 for alternatives without central weight vector).
+     */
+    public double[] getConfidenceFactors() {
+        double[] confidenceFactors = new double[numberOfAlternatives];
+
+        if (reservoirSize == 0) {
+            return confidenceFactors;
+        }
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            double[] centralWeights = getCentralWeightVector(i);
+
+            if (centralWeights == null) {
+                continue;
+            }
+
+            int count = 0;
+            for (int s = 0; s < reservoirSize; s++) {
+                for (int k = 0; k < numberOfAlternatives; k++) {
+                    double value = 0.0;
+
+                    for (int j = 0; j < numberOfCriteria; j++) {
+                        value += centralWeights[j] * reservoir[s][k * numberOfCriteria + j];
+                    }
+
+                    values[k] = value;
+                }
+
+                if (rank(values, i) == 0) {
+                    count++;
+                }
+            }
+
+            confidenceFactors[i] = count / (double) reservoirSize;
+        }
+
+        return confidenceFactors;
+    }
+}
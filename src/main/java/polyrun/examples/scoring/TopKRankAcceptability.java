@@ -0,0 +1,274 @@
+package polyrun.examples.scoring;
+
+import polyrun.examples.checkpoint.StateIO;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Acceptability indices of the first k ranks and central weight vectors of a value model.
+ * <p>
+ * Instead of ranking all m alternatives (O(m^2) per sample), the best k alternatives are selected with
+ * a bounded heap (O(m log k)). Alternatives tied with the k-th value are included as well, so ranks agree
+ * with RankAcceptability (rank is the number of strictly better alternatives). Central weight vectors
+ * are the mean samples in which an alternative is ranked first.
+ */
+public class TopKRankAcceptability implements BlockAccumulator<TopKRankAcceptability> {
+
+    private final ValueModel model;
+    private final int numberOfAlternatives;
+    private final int dimension;
+    private final int k;
+
+    // rankCounts[i * k + r] - number of samples in which a_i has rank r (0 - the best)
+    private final long[] rankCounts;
+
+    // centralWeightSums[i * dimension + j] - sum of j-th coordinate of samples in which a_i is the best
+    private final double[] centralWeightSums;
+
+    private long numberOfSamples;
+    private double[] values = new double[0];
+
+    // Working buffers
+    private final int[] heap;
+    private int[] selected;
+
+    public TopKRankAcceptability(ValueModel model, int k) {
+        if (k < 1 || k > model.getNumberOfAlternatives()) {
+            throw new IllegalArgumentException("k");
+        }
+
+        this.model = model;
+        this.numberOfAlternatives = model.getNumberOfAlternatives();
+        this.dimension = model.getSampleDimension();
+        this.k = k;
+        this.rankCounts = new long[numberOfAlternatives * k];
+        this.centralWeightSums = new double[numberOfAlternatives * dimension];
+        this.heap = new int[k];
+        this.selected = new int[k];
+    }
+
+    public void consume(double[] samples, int numberOfSamples) {
+        if (values.length < numberOfSamples * numberOfAlternatives) {
+            values = new double[numberOfSamples * numberOfAlternatives];
+        }
+
+        model.values(samples, numberOfSamples, values);
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            add(samples, s * dimension, values, s * numberOfAlternatives);
+        }
+
+        this.numberOfSamples += numberOfSamples;
+    }
+
+    private void add(double[] samples, int sampleOffset, double[] values, int offset) {
+        // Keep the k best alternatives in a min-heap (the root is the worst of them)
+        for (int i = 0; i < k; i++) {
+            heap[i] = i;
+            siftUp(values, offset, i);
+        }
+
+        for (int i = k; i < numberOfAlternatives; i++) {
+            if (values[offset + i] > values[offset + heap[0]]) {
+                heap[0] = i;
+                siftDown(values, offset, 0);
+            }
+        }
+
+        // Collect all alternatives at least as good as the k-th one (ties included)
+        double threshold = values[offset + heap[0]];
+        int size = 0;
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            if (values[offset + i] >= threshold) {
+                if (size == selected.length) {
+                    selected = Arrays.copyOf(selected, 2 * size);
+                }
+
+                selected[size++] = i;
+            }
+        }
+
+        sortByValueDescending(values, offset, size);
+
+        // Rank is the number of strictly better alternatives
+        int rank = 0;
+        for (int p = 0; p < size; p++) {
+            int i = selected[p];
+
+            if (p > 0 && values[offset + i] < values[offset + selected[p - 1]]) {
+                rank = p;
+            }
+
+            if (rank >= k) {
+                break;
+            }
+
+            rankCounts[i * k + rank]++;
+
+            if (rank == 0) {
+                for (int j = 0; j < dimension; j++) {
+                    centralWeightSums[i * dimension + j] += samples[sampleOffset + j];
+                }
+            }
+        }
+    }
+
+    private void siftUp(double[] values, int offset, int position) {
+        int element = heap[position];
+
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+
+            if (values[offset + heap[parent]] <= values[offset + element]) {
+                break;
+            }
+
+            heap[position] = heap[parent];
+            position = parent;
+        }
+
+        heap[position] = element;
+    }
+
+    private void siftDown(double[] values, int offset, int position) {
+        int element = heap[position];
+
+        while (true) {
+            int child = 2 * position + 1;
+
+            if (child >= k) {
+                break;
+            }
+
+            if (child + 1 < k && values[offset + heap[child + 1]] < values[offset + heap[child]]) {
+                child++;
+            }
+
+            if (values[offset + element] <= values[offset + heap[child]]) {
+                break;
+            }
+
+            heap[position] = heap[child];
+            position = child;
+        }
+
+        heap[position] = element;
+    }
+
+    private void sortByValueDescending(double[] values, int offset, int size) {
+        // Insertion sort - size is k (plus ties), which is small
+        for (int p = 1; p < size; p++) {
+            int element = selected[p];
+            double value = values[offset + element];
+            int q = p - 1;
+
+            while (q >= 0 && values[offset + selected[q]] < value) {
+                selected[q + 1] = selected[q];
+                q--;
+            }
+
+            selected[q + 1] = element;
+        }
+    }
+
+    public TopKRankAcceptability emptyCopy() {
+        return new TopKRankAcceptability(model, k);
+    }
+
+    public void merge(TopKRankAcceptability other) {
+        if (other.rankCounts.length != rankCounts.length || other.centralWeightSums.length != centralWeightSums.length) {
+            throw new IllegalArgumentException("other");
+        }
+
+        for (int i = 0; i < rankCounts.length; i++) {
+            rankCounts[i] += other.rankCounts[i];
+        }
+
+        for (int i = 0; i < centralWeightSums.length; i++) {
+            centralWeightSums[i] += other.centralWeightSums[i];
+        }
+
+        numberOfSamples += other.numberOfSamples;
+    }
+
+    public long getNumberOfSamples() {
+        return numberOfSamples;
+    }
+
+    public void writeState(DataOutput output) throws IOException {
+        output.writeLong(numberOfSamples);
+        StateIO.writeLongs(output, rankCounts);
+        StateIO.writeDoubles(output, centralWeightSums);
+    }
+
+    public void readState(DataInput input) throws IOException {
+        numberOfSamples = input.readLong();
+        StateIO.readLongs(input, rankCounts);
+        StateIO.readDoubles(input, centralWeightSums);
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * Returns matrix whose element [i][r] (r &lt; k) is the share of samples in which a_i has rank r + 1.
+     */
+    public double[][] getRankAcceptabilityIndices() {
+        double[][] indices = new double[numberOfAlternatives][k];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int r = 0; r < k; r++) {
+                indices[i][r] = rankCounts[i * k + r] / (double) numberOfSamples;
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Returns the central weight vector of a_i or null if a_i has never been ranked first.
+     */
+    public double[] getCentralWeightVector(int alternative) {
+        long count = rankCounts[alternative * k];
+
+        if (count == 0) {
+            return null;
+        }
+
+        double[] vector = new double[dimension];
+        for (int j = 0; j < dimension; j++) {
+            vector[j] = centralWeightSums[alternative * dimension + j] / (double) count;
+        }
+
+        return vector;
+    }
+
+    /**
+     * Returns indices of alternatives ordered by descending first rank acceptability.
+     */
+    public int[] getTopAlternatives(int count) {
+        Integer[] order = new Integer[numberOfAlternatives];
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            order[i] = i;
+        }
+
+        Arrays.sort(order, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return Long.compare(rankCounts[b * k], rankCounts[a * k]);
+            }
+        });
+
+        int[] top = new int[Math.min(count, numberOfAlternatives)];
+        for (int i = 0; i < top.length; i++) {
+            top[i] = order[i];
+        }
+
+        return top;
+    }
+}
@@ -0,0 +1,10 @@
+package polyrun.examples.scoring;
+
+public interface ValueBlockConsumer {
+
+    /**
+     * Consumes comprehensive values of the first numberOfSamples samples of a block, computed by the value model
+     * of the consumer (values[s * numberOfAlternatives + i] - value of a_i for sample s).
+     */
+    void consumeValues(double[] values, int numberOfSamples);
+}
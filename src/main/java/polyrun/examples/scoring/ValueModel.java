@@ -0,0 +1,12 @@
+package polyrun.examples.scoring;
+
+/**
+ * Model that assigns a comprehensive value to every alternative (the higher, the better).
+ */
+public interface ValueModel extends ScoringModel {
+
+    /**
+     * Writes value of alternative i for sample s of the block to values[s * getNumberOfAlternatives() + i].
+     */
+    void values(double[] samples, int numberOfSamples, double[] values);
+}
@@ -0,0 +1,539 @@
+package polyrun.examples.scoring;
+
+import polyrun.constraints.Constraint;
+import polyrun.constraints.SimpleConstraint;
+import polyrun.examples.constraints.EqualityReduction;
+import polyrun.examples.lp.SimplexSolver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Class acceptability indices computed as shares of the volume of the weight space instead of shares of samples.
+ * Intended for low-dimensional weight spaces, which must be bounded (IllegalArgumentException otherwise).
+ * <p>
+ * The weight space is reduced to its affine hull (EqualityReduction) and its bounding box is recursively split
+ * into 2^d boxes. The bounds of an affine function over a box are exact, so the assignment of an alternative
+ * is resolved without sampling when all its decision functions have constant signs on a box, and a box is known
+ * to be feasible when all constraints hold on it. Boxes unresolved after maxDepth splits are classified by their
+ * centers (midpoint rule); their shares of the volume are reported by getUnresolvedShare (assignments)
+ * and getBoundaryShare (feasibility). Both the accuracy and the time grow with maxDepth
+ * (at most 2^(d * maxDepth) boxes).
+ */
+public class VolumeClassAcceptability {
+
+    private static final double TOLERANCE = 1e-12;
+
+    private final PiecewiseConstantAssignmentModel model;
+    private final EqualityReduction weightSpace;
+    private final int dimension;
+    private final int numberOfAlternatives;
+    private final int numberOfClasses;
+
+    // Inequalities of the reduced weight space: constraintLhs[i] * y <= constraintRhs[i]
+    private final double[][] constraintLhs;
+    private final double[] constraintRhs;
+
+    // functions[j][r] - r-th decision function of a_j in reduced coordinates: f(y) = row[0] + sum_i row[i + 1] * y_i
+    private final double[][][] functions;
+
+    private final double[] lowerBound;
+    private final double[] upperBound;
+
+    // Results of the last computation
+    private double totalVolume;
+    private double[] classVolumes;
+    private double[] unresolvedVolumes;
+    private double boundaryVolume;
+
+    // Classes of alternatives resolved on the current box or its ancestors (-1 - unresolved)
+    private final int[] assignedLowestClass;
+    private final int[] assignedHighestClass;
+
+    // Working buffers
+    private final double[] point;
+    private final int[] lowestClass;
+    private final int[] highestClass;
+
+    public VolumeClassAcceptability(PiecewiseConstantAssignmentModel model, EqualityReduction weightSpace) {
+        if (model.getSampleDimension() != weightSpace.getOriginalDimension()) {
+            throw new IllegalArgumentException("weightSpace");
+        }
+
+        if (weightSpace.getReducedDimension() < 1) {
+            throw new IllegalArgumentException("Weight space is a single point");
+        }
+
+        this.model = model;
+        this.weightSpace = weightSpace;
+        this.dimension = weightSpace.getReducedDimension();
+        this.numberOfAlternatives = model.getNumberOfAlternatives();
+        this.numberOfClasses = model.getNumberOfClasses();
+
+        // Canonicalize inequalities to <=
+        double[][] lhs = weightSpace.getReducedLhs();
+        String[] direction = weightSpace.getReducedDirection();
+        double[] rhs = weightSpace.getReducedRhs();
+
+        this.constraintLhs = new double[lhs.length][];
+        this.constraintRhs = new double[lhs.length];
+
+        for (int i = 0; i < lhs.length; i++) {
+            double sign = ">=".equals(direction[i]) ? -1.0 : 1.0;
+            constraintLhs[i] = new double[dimension];
+
+            for (int j = 0; j < dimension; j++) {
+                constraintLhs[i][j] = sign * lhs[i][j];
+            }
+
+            constraintRhs[i] = sign * rhs[i];
+        }
+
+        // Substitute w = origin + N * y into the decision functions; drop those constant on the weight space
+        double[] origin = weightSpace.getOrigin();
+        double[][] columns = new double[dimension][];
+        double[] unit = new double[dimension];
+
+        for (int i = 0; i < dimension; i++) {
+            // i-th column of N is lift(e_i) - origin
+            unit[i] = 1.0;
+            columns[i] = weightSpace.lift(unit);
+            unit[i] = 0.0;
+
+            for (int j = 0; j < origin.length; j++) {
+                columns[i][j] -= origin[j];
+            }
+        }
+
+        this.functions = new double[numberOfAlternatives][][];
+
+        for (int a = 0; a < numberOfAlternatives; a++) {
+            double[][] original = model.getDecisionFunctions(a);
+            double[][] reduced = new double[original.length][];
+            int count = 0;
+
+            for (double[] f : original) {
+                double[] g = new double[dimension + 1];
+                g[0] = f[0] + dot(f, origin);
+                double norm = 0.0;
+
+                for (int i = 0; i < dimension; i++) {
+                    g[i + 1] = dot(f, columns[i]);
+                    norm += g[i + 1] * g[i + 1];
+                }
+
+                if (Math.sqrt(norm) > TOLERANCE) {
+                    reduced[count++] = g;
+                }
+            }
+
+            this.functions[a] = Arrays.copyOf(reduced, count);
+        }
+
+        this.lowerBound = new double[dimension];
+        this.upperBound = new double[dimension];
+        checkBounded();
+        boundingBox();
+
+        this.point = new double[weightSpace.getOriginalDimension()];
+        this.lowestClass = new int[numberOfAlternatives];
+        this.highestClass = new int[numberOfAlternatives];
+        this.assignedLowestClass = new int[numberOfAlternatives];
+        this.assignedHighestClass = new int[numberOfAlternatives];
+    }
+
+    public void compute(int maxDepth) {
+        if (maxDepth < 0) {
+            throw new IllegalArgumentException("maxDepth");
+        }
+
+        totalVolume = 0.0;
+        boundaryVolume = 0.0;
+        classVolumes = new double[numberOfAlternatives * numberOfClasses];
+        unresolvedVolumes = new double[numberOfAlternatives];
+        Arrays.fill(assignedLowestClass, -1);
+
+        int[] constraints = new int[constraintLhs.length];
+        for (int i = 0; i < constraints.length; i++) {
+            constraints[i] = i;
+        }
+
+        int[] alternatives = new int[numberOfAlternatives];
+        for (int i = 0; i < alternatives.length; i++) {
+            alternatives[i] = i;
+        }
+
+        split(lowerBound.clone(), upperBound.clone(), constraints, constraints.length,
+                alternatives, alternatives.length, false, maxDepth);
+    }
+
+    private void split(double[] lower, double[] upper,
+                       int[] constraints, int numberOfConstraints,
+                       int[] alternatives, int numberOfUnresolved,
+                       boolean inside, int depth) {
+        double volume = 1.0;
+        for (int i = 0; i < dimension; i++) {
+            volume *= upper[i] - lower[i];
+        }
+
+        // Drop constraints satisfied on the whole box; skip the box if one of them is violated on the whole box
+        int[] activeConstraints = new int[numberOfConstraints];
+        int numberOfActive = 0;
+
+        for (int p = 0; p < numberOfConstraints; p++) {
+            int c = constraints[p];
+            double[] a = constraintLhs[c];
+            double min = 0.0;
+            double max = 0.0;
+
+            for (int i = 0; i < dimension; i++) {
+                min += a[i] * (a[i] > 0 ? lower[i] : upper[i]);
+                max += a[i] * (a[i] > 0 ? upper[i] : lower[i]);
+            }
+
+            if (min > constraintRhs[c]) {
+                return;
+            }
+
+            if (max > constraintRhs[c]) {
+                activeConstraints[numberOfActive++] = c;
+            }
+        }
+
+        // Resolve alternatives whose decision functions do not change sign on the box. The functions are affine,
+        // so the assignment at the center holds for the whole box (also if the box is only partially feasible).
+        int[] unresolved = new int[numberOfUnresolved];
+        int[] resolved = new int[numberOfUnresolved];
+        int count = 0;
+        int numberOfResolved = 0;
+        boolean centerEvaluated = false;
+
+        for (int p = 0; p < numberOfUnresolved; p++) {
+            int a = alternatives[p];
+
+            if (hasConstantSigns(functions[a], lower, upper)) {
+                if (!centerEvaluated) {
+                    evaluateCenter(lower, upper);
+                    centerEvaluated = true;
+                }
+
+                assignedLowestClass[a] = lowestClass[a];
+                assignedHighestClass[a] = highestClass[a];
+                resolved[numberOfResolved++] = a;
+            } else {
+                unresolved[count++] = a;
+            }
+        }
+
+        if (inside) {
+            for (int p = 0; p < numberOfResolved; p++) {
+                addVolume(resolved[p], assignedLowestClass[resolved[p]], assignedHighestClass[resolved[p]], volume);
+            }
+        } else if (numberOfActive == 0) {
+            // The box is feasible - count it once for every alternative resolved so far
+            inside = true;
+            addFeasibleVolume(volume);
+        }
+
+        if (!inside || count > 0) {
+            if (depth == 0) {
+                midpoint(lower, upper, activeConstraints, numberOfActive, unresolved, count, inside, centerEvaluated, volume);
+            } else {
+                double[] childLower = new double[dimension];
+                double[] childUpper = new double[dimension];
+
+                for (int child = 0; child < (1 << dimension); child++) {
+                    for (int i = 0; i < dimension; i++) {
+                        double middle = 0.5 * (lower[i] + upper[i]);
+
+                        if ((child & (1 << i)) == 0) {
+                            childLower[i] = lower[i];
+                            childUpper[i] = middle;
+                        } else {
+                            childLower[i] = middle;
+                            childUpper[i] = upper[i];
+                        }
+                    }
+
+                    split(childLower, childUpper, activeConstraints, numberOfActive, unresolved, count, inside, depth - 1);
+                }
+            }
+        }
+
+        for (int p = 0; p < numberOfResolved; p++) {
+            assignedLowestClass[resolved[p]] = -1;
+        }
+    }
+
+    private void midpoint(double[] lower, double[] upper,
+                          int[] constraints, int numberOfConstraints,
+                          int[] unresolved, int numberOfUnresolved,
+                          boolean inside, boolean centerEvaluated, double volume) {
+        if (!inside) {
+            // Count the box if its center is feasible
+            for (int p = 0; p < numberOfConstraints; p++) {
+                int c = constraints[p];
+                double value = 0.0;
+
+                for (int i = 0; i < dimension; i++) {
+                    value += constraintLhs[c][i] * 0.5 * (lower[i] + upper[i]);
+                }
+
+                if (value > constraintRhs[c]) {
+                    return;
+                }
+            }
+
+            boundaryVolume += volume;
+            addFeasibleVolume(volume);
+        }
+
+        if (numberOfUnresolved > 0 && !centerEvaluated) {
+            evaluateCenter(lower, upper);
+        }
+
+        for (int p = 0; p < numberOfUnresolved; p++) {
+            int a = unresolved[p];
+            addVolume(a, lowestClass[a], highestClass[a], volume);
+            unresolvedVolumes[a] += volume;
+        }
+    }
+
+    private void addFeasibleVolume(double volume) {
+        totalVolume += volume;
+
+        for (int a = 0; a < numberOfAlternatives; a++) {
+            if (assignedLowestClass[a] >= 0) {
+                addVolume(a, assignedLowestClass[a], assignedHighestClass[a], volume);
+            }
+        }
+    }
+
+    private boolean hasConstantSigns(double[][] functions, double[] lower, double[] upper) {
+        for (double[] f : functions) {
+            double min = f[0];
+            double max = f[0];
+
+            for (int i = 0; i < dimension; i++) {
+                double coefficient = f[i + 1];
+                min += coefficient * (coefficient > 0 ? lower[i] : upper[i]);
+                max += coefficient * (coefficient > 0 ? upper[i] : lower[i]);
+            }
+
+            if (min <= 0.0 && max >= 0.0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void evaluateCenter(double[] lower, double[] upper) {
+        double[] center = new double[dimension];
+        for (int i = 0; i < dimension; i++) {
+            center[i] = 0.5 * (lower[i] + upper[i]);
+        }
+
+        weightSpace.lift(center, point);
+        model.assign(point, 1, lowestClass, highestClass);
+    }
+
+    private void addVolume(int alternative, int lowest, int highest, double volume) {
+        for (int k = lowest; k <= highest; k++) {
+            classVolumes[alternative * numberOfClasses + k] += volume;
+        }
+    }
+
+    /**
+     * Rejects unbounded weight spaces, whose vertices alone would give a finite box of a truncated region.
+     * The space is bounded iff its recession cone {d : A d &lt;= 0} contains only zero, i.e. iff every coordinate
+     * of d is zero over the cone intersected with the cube [-1, 1]^d.
+     */
+    private void checkBounded() {
+        List<Constraint> cone = new ArrayList<Constraint>();
+        for (double[] row : constraintLhs) {
+            cone.add(new SimpleConstraint(row, "<=", 0.0));
+        }
+
+        double[] unit = new double[dimension];
+
+        for (int i = 0; i < dimension; i++) {
+            unit[i] = 1.0;
+            cone.add(new SimpleConstraint(unit.clone(), "<=", 1.0));
+            cone.add(new SimpleConstraint(unit.clone(), ">=", -1.0));
+            unit[i] = 0.0;
+        }
+
+        SimplexSolver solver = new SimplexSolver(cone);
+
+        for (int i = 0; i < dimension; i++) {
+            unit[i] = 1.0;
+            if (solver.maximize(unit) > 1e-9 || solver.minimize(unit) < -1e-9) {
+                throw new IllegalArgumentException("Weight space is unbounded");
+            }
+            unit[i] = 0.0;
+        }
+    }
+
+    /**
+     * Computes the bounding box of the (bounded) reduced weight space from its vertices (intersections of
+     * d constraints).
+     */
+    private void boundingBox() {
+        Arrays.fill(lowerBound, Double.POSITIVE_INFINITY);
+        Arrays.fill(upperBound, Double.NEGATIVE_INFINITY);
+
+        int m = constraintLhs.length;
+        int[] subset = new int[dimension];
+        double[] vertex = new double[dimension];
+        double[] matrix = new double[dimension * (dimension + 1)];
+
+        for (int i = 0; i < dimension; i++) {
+            subset[i] = i;
+        }
+
+        while (dimension <= m) {
+            if (solve(subset, matrix, vertex) && isFeasible(vertex)) {
+                for (int i = 0; i < dimension; i++) {
+                    lowerBound[i] = Math.min(lowerBound[i], vertex[i]);
+                    upperBound[i] = Math.max(upperBound[i], vertex[i]);
+                }
+            }
+
+            // Next subset in lexicographic order
+            int i = dimension - 1;
+            while (i >= 0 && subset[i] == m - dimension + i) {
+                i--;
+            }
+
+            if (i < 0) {
+                break;
+            }
+
+            subset[i]++;
+            for (int j = i + 1; j < dimension; j++) {
+                subset[j] = subset[j - 1] + 1;
+            }
+        }
+
+        for (int i = 0; i < dimension; i++) {
+            if (!(lowerBound[i] <= upperBound[i])) {
+                throw new IllegalArgumentException("Weight space is empty");
+            }
+        }
+    }
+
+    private boolean solve(int[] subset, double[] matrix, double[] solution) {
+        int width = dimension + 1;
+
+        for (int r = 0; r < dimension; r++) {
+            System.arraycopy(constraintLhs[subset[r]], 0, matrix, r * width, dimension);
+            matrix[r * width + dimension] = constraintRhs[subset[r]];
+        }
+
+        // Gaussian elimination with partial pivoting
+        for (int c = 0; c < dimension; c++) {
+            int pivot = c;
+            for (int r = c + 1; r < dimension; r++) {
+                if (Math.abs(matrix[r * width + c]) > Math.abs(matrix[pivot * width + c])) {
+                    pivot = r;
+                }
+            }
+
+            if (Math.abs(matrix[pivot * width + c]) < 1e-12) {
+                return false;
+            }
+
+            for (int j = 0; j < width; j++) {
+                double swap = matrix[c * width + j];
+                matrix[c * width + j] = matrix[pivot * width + j];
+                matrix[pivot * width + j] = swap;
+            }
+
+            for (int r = c + 1; r < dimension; r++) {
+                double factor = matrix[r * width + c] / matrix[c * width + c];
+
+                for (int j = c; j < width; j++) {
+                    matrix[r * width + j] -= factor * matrix[c * width + j];
+                }
+            }
+        }
+
+        for (int r = dimension - 1; r >= 0; r--) {
+            double value = matrix[r * width + dimension];
+
+            for (int j = r + 1; j < dimension; j++) {
+                value -= matrix[r * width + j] * solution[j];
+            }
+
+            solution[r] = value / matrix[r * width + r];
+        }
+
+        return true;
+    }
+
+    private boolean isFeasible(double[] y) {
+        for (int i = 0; i < constraintLhs.length; i++) {
+            double value = 0.0;
+
+            for (int j = 0; j < dimension; j++) {
+                value += constraintLhs[i][j] * y[j];
+            }
+
+            if (value > constraintRhs[i] + 1e-9 * Math.max(1.0, Math.abs(constraintRhs[i]))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns matrix whose element [i][k] is the share of the volume of the weight space in which a_i is
+     * (possibly imprecisely) assigned to class k.
+     */
+    public double[][] getClassAcceptabilityIndices() {
+        double[][] indices = new double[numberOfAlternatives][numberOfClasses];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int k = 0; k < numberOfClasses; k++) {
+                indices[i][k] = classVolumes[i * numberOfClasses + k] / totalVolume;
+            }
+        }
+
+        return indices;
+    }
+
+    /**
+     * Returns the largest (over alternatives) share of the volume in which the assignment has been taken
+     * from the center of a box.
+     */
+    public double getUnresolvedShare() {
+        double max = 0.0;
+
+        for (double volume : unresolvedVolumes) {
+            max = Math.max(max, volume / totalVolume);
+        }
+
+        return max;
+    }
+
+    /**
+     * Returns the share of the volume whose feasibility has been decided by the center of a box.
+     */
+    public double getBoundaryShare() {
+        return boundaryVolume / totalVolume;
+    }
+
+    private static double dot(double[] f, double[] x) {
+        // f[0] is the constant term
+        double value = 0.0;
+
+        for (int i = 0; i < x.length; i++) {
+            value += f[i + 1] * x[i];
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,128 @@
+package polyrun.examples.scoring;
+
+/**
+ * Weighted sum of known marginal values: U(a_i) = sum_j w_j * u_j(a_i), where sample = w.
+ */
+public class WeightedSumModel implements CompactValueModel {
+
+    private final int numberOfAlternatives;
+    private final int numberOfCriteria;
+
+    // marginalValues[i * numberOfCriteria + j] = u_j(a_i)
+    private final double[] marginalValues;
+
+    public WeightedSumModel(double[][] marginalValues) {
+        if (marginalValues == null || marginalValues.length == 0) {
+            throw new IllegalArgumentException("marginalValues");
+        }
+
+        this.numberOfAlternatives = marginalValues.length;
+        this.numberOfCriteria = marginalValues[0].length;
+        this.marginalValues = new double[numberOfAlternatives * numberOfCriteria];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            if (marginalValues[i].length != numberOfCriteria) {
+                throw new IllegalArgumentException("marginalValues");
+            }
+
+            System.arraycopy(marginalValues[i], 0, this.marginalValues, i * numberOfCriteria, numberOfCriteria);
+        }
+    }
+
+    /**
+     * Uses flat row-major marginal values (e.g. a loaded NumericTable) without copying them.
+     */
+    public WeightedSumModel(double[] marginalValues, int numberOfCriteria) {
+        if (numberOfCriteria < 1) {
+            throw new IllegalArgumentException("numberOfCriteria");
+        }
+
+        if (marginalValues == null || marginalValues.length == 0 || marginalValues.length % numberOfCriteria != 0) {
+            throw new IllegalArgumentException("marginalValues");
+        }
+
+        this.numberOfAlternatives = marginalValues.length / numberOfCriteria;
+        this.numberOfCriteria = numberOfCriteria;
+        this.marginalValues = marginalValues;
+    }
+
+    public int getSampleDimension() {
+        return numberOfCriteria;
+    }
+
+    public int getNumberOfAlternatives() {
+        return numberOfAlternatives;
+    }
+
+    public void values(double[] samples, int numberOfSamples, double[] values) {
+        for (int s = 0; s < numberOfSamples; s++) {
+            int sampleOffset = s * numberOfCriteria;
+            int valuesOffset = s * numberOfAlternatives;
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                int alternativeOffset = i * numberOfCriteria;
+                double value = 0.0;
+
+                for (int j = 0; j < numberOfCriteria; j++) {
+                    value += samples[sampleOffset + j] * marginalValues[alternativeOffset + j];
+                }
+
+                values[valuesOffset + i] = value;
+            }
+        }
+    }
+
+    public void values(float[] samples, int offset, int numberOfSamples, double[] values) {
+        for (int s = 0; s < numberOfSamples; s++) {
+            int sampleOffset = offset + s * numberOfCriteria;
+            int valuesOffset = s * numberOfAlternatives;
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                int alternativeOffset = i * numberOfCriteria;
+                double value = 0.0;
+
+                for (int j = 0; j < numberOfCriteria; j++) {
+                    value += samples[sampleOffset + j] * marginalValues[alternativeOffset + j];
+                }
+
+                values[valuesOffset + i] = value;
+            }
+        }
+    }
+
+    public void values(char[] samples, int offset, int numberOfSamples, double[] lows, double[] steps, double[] values) {
+        // U(a_i) = sum_j (low_j + code_j * step_j) * u_j(a_i) = base_i + sum_j code_j * scaled_ij
+        double[] bases = new double[numberOfAlternatives];
+        double[] scaled = new double[marginalValues.length];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            for (int j = 0; j < numberOfCriteria; j++) {
+                bases[i] += lows[j] * marginalValues[i * numberOfCriteria + j];
+                scaled[i * numberOfCriteria + j] = steps[j] * marginalValues[i * numberOfCriteria + j];
+            }
+        }
+
+        // Codes of a sample are converted once and reused for all alternatives
+        double[] sample = new double[numberOfCriteria];
+
+        for (int s = 0; s < numberOfSamples; s++) {
+            int sampleOffset = offset + s * numberOfCriteria;
+            int valuesOffset = s * numberOfAlternatives;
+
+            for (int j = 0; j < numberOfCriteria; j++) {
+                sample[j] = samples[sampleOffset + j];
+            }
+
+            for (int i = 0; i < numberOfAlternatives; i++) {
+                int alternativeOffset = i * numberOfCriteria;
+                double value = bases[i];
+
+                for (int j = 0; j < numberOfCriteria; j++) {
+                    value += sample[j] * scaled[alternativeOffset + j];
+                }
+
+                values[valuesOffset + i] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package polyrun.examples.shard;
+
+import polyrun.examples.random.SplitMix64Random;
+import polyrun.examples.scoring.BlockAccumulator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Splits a job into shards, hands them out to worker processes (ShardWorker) and merges their accumulators.
+ * <p>
+ * Shard s gets the s-th generator split from SplitMix64Random(seed), so shards are independent and their
+ * results do not depend on which worker executes them. Accumulators are merged in shard order, hence the result
+ * is reproducible regardless of the number of workers. Shards of a worker that disconnects are given to
+ * another worker, as are shards whose results are not received within the shard timeout (a hung worker is
+ * disconnected); a shard whose task throws an exception fails the whole job.
+ * <p>
+ * The coordinator starts numberOfLocalWorkers JVMs itself. Workers on other hosts may connect as well
+ * if the coordinator listens on an externally reachable address and a known port (see setBindAddress and setPort).
+ */
+public class ShardCoordinator {
+
+    private static final int POLL_INTERVAL = 200; // ms
+
+    private final int numberOfShards;
+    private final long seed;
+    private final long samplesPerShard;
+
+    private InetAddress bindAddress = InetAddress.getLoopbackAddress();
+    private int port = 0;
+    private int shardTimeout = 10 * 60 * 1000; // ms
+
+    public ShardCoordinator(int numberOfShards, long seed, long samplesPerShard) {
+        if (numberOfShards < 1) {
+            throw new IllegalArgumentException("numberOfShards");
+        }
+
+        if (samplesPerShard < 1) {
+            throw new IllegalArgumentException("samplesPerShard");
+        }
+
+        this.numberOfShards = numberOfShards;
+        this.seed = seed;
+        this.samplesPerShard = samplesPerShard;
+    }
+
+    public void setBindAddress(InetAddress bindAddress) {
+        this.bindAddress = bindAddress;
+    }
+
+    /**
+     * Sets the port to listen on (0 - any free port).
+     */
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Sets the time to wait for a worker's response, i.e. the maximal time of a single shard (0 - no limit).
+     */
+    public void setShardTimeout(int milliseconds) {
+        if (milliseconds < 0) {
+            throw new IllegalArgumentException("milliseconds");
+        }
+
+        this.shardTimeout = milliseconds;
+    }
+
+    public <A extends BlockAccumulator<A>> A run(Class<? extends ShardTask<A>> taskClass,
+                                                 int numberOfLocalWorkers) throws Exception {
+        if (numberOfLocalWorkers < 0) {
+            throw new IllegalArgumentException("numberOfLocalWorkers");
+        }
+
+        ShardTask<A> task = taskClass.getDeclaredConstructor().newInstance();
+
+        // Seed-disjoint generators of the shards
+        SplitMix64Random root = new SplitMix64Random(seed);
+        byte[][] generators = new byte[numberOfShards][];
+        for (int s = 0; s < numberOfShards; s++) {
+            generators[s] = ShardProtocol.stateOf(root.split());
+        }
+
+        Job job = new Job(taskClass.getName(), generators);
+        ServerSocket server = new ServerSocket(port, 50, bindAddress);
+        List<Process> processes = new ArrayList<Process>();
+
+        try {
+            server.setSoTimeout(POLL_INTERVAL);
+
+            for (int i = 0; i < numberOfLocalWorkers; i++) {
+                processes.add(startWorker(server.getLocalPort()));
+            }
+
+            while (!job.remaining.await(0, TimeUnit.MILLISECONDS)) {
+                if (job.failure != null) {
+                    throw new IllegalStateException(job.failure);
+                }
+
+                if (numberOfLocalWorkers > 0 && job.connections.get() == 0 && allExited(processes)) {
+                    throw new IllegalStateException("All workers have exited before finishing the job");
+                }
+
+                try {
+                    Socket socket = server.accept();
+                    job.connections.incrementAndGet();
+                    startHandler(job, socket);
+                } catch (SocketTimeoutException e) {
+                    // Check the state of the job again
+                }
+            }
+        } finally {
+            job.finished = true;
+            server.close();
+
+            for (Process process : processes) {
+                if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            }
+        }
+
+        // Merge in shard order, so that floating-point sums do not depend on the schedule
+        A result = task.createAccumulator();
+        for (int s = 0; s < numberOfShards; s++) {
+            A part = result.emptyCopy();
+            ShardProtocol.restore(part, job.results[s]);
+            result.merge(part);
+        }
+
+        return result;
+    }
+
+    private Process startWorker(int port) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+
+        return new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                ShardWorker.class.getName(), bindAddress.getHostAddress(), String.valueOf(port))
+                .inheritIO()
+                .start();
+    }
+
+    private static boolean allExited(List<Process> processes) {
+        for (Process process : processes) {
+            if (process.isAlive()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private void startHandler(final Job job, final Socket socket) {
+        Thread thread = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    serve(job, socket);
+                } finally {
+                    job.connections.decrementAndGet();
+                }
+            }
+        }, "shard-handler-" + socket.getPort());
+
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void serve(Job job, Socket socket) {
+        Integer shard = null;
+
+        try {
+            // A worker that does not respond in time is treated as disconnected
+            socket.setSoTimeout(shardTimeout);
+
+            DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+            if (input.readInt() != ShardProtocol.MAGIC || input.readInt() != ShardProtocol.VERSION) {
+                return;
+            }
+
+            output.writeUTF(job.taskClassName);
+            output.flush();
+
+            while (!job.finished) {
+                shard = job.pending.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+
+                if (shard == null) {
+                    if (job.remaining.getCount() == 0) {
+                        break;
+                    }
+
+                    continue;
+                }
+
+                output.writeInt(ShardProtocol.SHARD);
+                output.writeInt(shard);
+                output.writeLong(samplesPerShard);
+                ShardProtocol.writeBytes(output, job.generators[shard]);
+                output.flush();
+
+                if (input.readInt() != shard) {
+                    throw new IOException("Unexpected shard index");
+                }
+
+                if (!input.readBoolean()) {
+                    job.failure = "Shard " + shard + " has failed: " + input.readUTF();
+                    shard = null;
+                    break;
+                }
+
+                job.results[shard] = ShardProtocol.readBytes(input);
+                shard = null;
+                job.remaining.countDown();
+            }
+
+            output.writeInt(ShardProtocol.DONE);
+            output.flush();
+        } catch (IOException e) {
+            // Worker is gone or has timed out - give its shard to someone else
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (shard != null) {
+                job.pending.add(shard);
+            }
+
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // Ignore
+            }
+        }
+    }
+
+    private static class Job {
+        final String taskClassName;
+        final byte[][] generators;
+        final byte[][] results;
+        final BlockingQueue<Integer> pending = new LinkedBlockingQueue<Integer>();
+        final CountDownLatch remaining;
+        final AtomicInteger connections = new AtomicInteger();
+        volatile String failure;
+        volatile boolean finished;
+
+        Job(String taskClassName, byte[][] generators) {
+            this.taskClassName = taskClassName;
+            this.generators = generators;
+            this.results = new byte[generators.length][];
+            this.remaining = new CountDownLatch(generators.length);
+
+            for (int s = 0; s < generators.length; s++) {
+                pending.add(s);
+            }
+        }
+    }
+}
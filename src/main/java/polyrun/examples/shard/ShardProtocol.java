@@ -0,0 +1,60 @@
+package polyrun.examples.shard;
+
+import polyrun.examples.checkpoint.Checkpointable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Messages exchanged between the coordinator and workers.
+ * <p>
+ * worker -&gt; coordinator (on connect): MAGIC, VERSION<br>
+ * coordinator -&gt; worker (on connect): task class name<br>
+ * coordinator -&gt; worker: SHARD, shard index, number of samples, generator state | DONE<br>
+ * worker -&gt; coordinator: shard index, true, accumulator state | shard index, false, error message
+ */
+final class ShardProtocol {
+
+    static final int MAGIC = 0x53484152; // "SHAR"
+    static final int VERSION = 1;
+
+    static final int DONE = 0;
+    static final int SHARD = 1;
+
+    private ShardProtocol() {
+    }
+
+    static void writeBytes(DataOutput output, byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    static byte[] readBytes(DataInput input) throws IOException {
+        int length = input.readInt();
+
+        if (length < 0) {
+            throw new IOException("Negative length: " + length);
+        }
+
+        byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return bytes;
+    }
+
+    static byte[] stateOf(Checkpointable checkpointable) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        checkpointable.writeState(output);
+        output.flush();
+        return bytes.toByteArray();
+    }
+
+    static void restore(Checkpointable checkpointable, byte[] state) throws IOException {
+        checkpointable.readState(new DataInputStream(new ByteArrayInputStream(state)));
+    }
+}
@@ -0,0 +1,21 @@
+package polyrun.examples.shard;
+
+import polyrun.examples.random.FastRandom;
+import polyrun.examples.scoring.BlockAccumulator;
+
+/**
+ * Part of a sharded job that is executed by a worker process. Implementations are created by name
+ * in the worker JVM, so they have to be public classes with a public no-argument constructor.
+ */
+public interface ShardTask<A extends BlockAccumulator<A>> {
+
+    /**
+     * Returns an empty accumulator; results of all shards are merged into one of these.
+     */
+    A createAccumulator();
+
+    /**
+     * Generates numberOfSamples samples using the given generator and passes them to the accumulator.
+     */
+    void run(FastRandom random, long numberOfSamples, A accumulator) throws Exception;
+}
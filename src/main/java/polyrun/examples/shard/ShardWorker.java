@@ -0,0 +1,73 @@
+package polyrun.examples.shard;
+
+import polyrun.examples.random.SplitMix64Random;
+import polyrun.examples.scoring.BlockAccumulator;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.net.Socket;
+
+/**
+ * Worker process of a sharded job. It connects to the coordinator, executes shards until it is told
+ * there are none left, and sends the state of every shard's accumulator back.
+ * <p>
+ * Usage: java -cp &lt;classpath&gt; polyrun.examples.shard.ShardWorker &lt;host&gt; &lt;port&gt;
+ */
+public class ShardWorker {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 2) {
+            System.err.println("Usage: ShardWorker <host> <port>");
+            System.exit(2);
+        }
+
+        Socket socket = new Socket(args[0], Integer.parseInt(args[1]));
+
+        try {
+            run(socket);
+        } finally {
+            socket.close();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <A extends BlockAccumulator<A>> void run(Socket socket) throws Exception {
+        DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream output = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        output.writeInt(ShardProtocol.MAGIC);
+        output.writeInt(ShardProtocol.VERSION);
+        output.flush();
+
+        ShardTask<A> task = (ShardTask<A>) Class.forName(input.readUTF()).getDeclaredConstructor().newInstance();
+
+        while (input.readInt() == ShardProtocol.SHARD) {
+            int shard = input.readInt();
+            long numberOfSamples = input.readLong();
+
+            SplitMix64Random random = new SplitMix64Random(0);
+            ShardProtocol.restore(random, ShardProtocol.readBytes(input));
+
+            byte[] state;
+            try {
+                A accumulator = task.createAccumulator();
+                task.run(random, numberOfSamples, accumulator);
+                state = ShardProtocol.stateOf(accumulator);
+            } catch (Exception e) {
+                // Report the failure; the coordinator decides whether to give up
+                output.writeInt(shard);
+                output.writeBoolean(false);
+                output.writeUTF(String.valueOf(e));
+                output.flush();
+                continue;
+            }
+
+            output.writeInt(shard);
+            output.writeBoolean(true);
+            ShardProtocol.writeBytes(output, state);
+            output.flush();
+        }
+    }
+}
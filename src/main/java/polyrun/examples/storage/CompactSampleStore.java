@@ -0,0 +1,112 @@
+package polyrun.examples.storage;
+
+import polyrun.SampleConsumer;
+import polyrun.examples.scoring.BlockBuffer;
+import polyrun.examples.scoring.BlockConsumer;
+import polyrun.examples.scoring.CompactValueModel;
+import polyrun.examples.scoring.ValueBlockConsumer;
+
+/**
+ * Samples collected from a chain and kept in a single flat array of a compact type (instead of a double[]
+ * with an object header per sample). Samples can be decoded into double blocks for any block consumer or
+ * scored by kernels of a CompactValueModel, which read the compact array directly.
+ */
+public abstract class CompactSampleStore implements SampleConsumer {
+
+    protected final int dimension;
+    protected int size;
+
+    private int capacity;
+
+    protected CompactSampleStore(int dimension, int initialCapacity) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension");
+        }
+
+        if (initialCapacity < 1) {
+            throw new IllegalArgumentException("initialCapacity");
+        }
+
+        this.dimension = dimension;
+        this.capacity = initialCapacity;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNumberOfSamples() {
+        return size;
+    }
+
+    /**
+     * Returns the number of bytes used by the stored samples.
+     */
+    public long getSizeInBytes() {
+        return (long) size * dimension * getBytesPerCoordinate();
+    }
+
+    public void consume(double[] sample) {
+        if (sample.length != dimension) {
+            throw new IllegalArgumentException("sample");
+        }
+
+        if (size == capacity) {
+            if (capacity > (Integer.MAX_VALUE - 8) / dimension / 2) {
+                throw new IllegalStateException("Too many samples");
+            }
+
+            capacity *= 2;
+            resize(capacity * dimension);
+        }
+
+        store(sample, size * dimension);
+        size++;
+    }
+
+    /**
+     * Writes samples [from, to) as doubles to block (sample from is stored at the beginning).
+     */
+    public abstract void decode(int from, int to, double[] block);
+
+    /**
+     * Passes all samples to the consumer in decoded blocks of BlockBuffer.DEFAULT_BLOCK_SIZE.
+     */
+    public void consume(BlockConsumer consumer) {
+        int blockSize = BlockBuffer.DEFAULT_BLOCK_SIZE;
+        double[] block = new double[blockSize * dimension];
+
+        for (int from = 0; from < size; from += blockSize) {
+            int to = Math.min(size, from + blockSize);
+            decode(from, to, block);
+            consumer.consume(block, to - from);
+        }
+    }
+
+    /**
+     * Evaluates the model directly on the compact samples and passes blocks of values to the consumer
+     * (which should be built for the same model).
+     */
+    public void consume(CompactValueModel model, ValueBlockConsumer consumer) {
+        if (model.getSampleDimension() != dimension) {
+            throw new IllegalArgumentException("model");
+        }
+
+        int blockSize = BlockBuffer.DEFAULT_BLOCK_SIZE;
+        double[] values = new double[blockSize * model.getNumberOfAlternatives()];
+
+        for (int from = 0; from < size; from += blockSize) {
+            int to = Math.min(size, from + blockSize);
+            values(model, from, to - from, values);
+            consumer.consumeValues(values, to - from);
+        }
+    }
+
+    protected abstract int getBytesPerCoordinate();
+
+    protected abstract void resize(int length);
+
+    protected abstract void store(double[] sample, int offset);
+
+    protected abstract void values(CompactValueModel model, int from, int numberOfSamples, double[] values);
+}
@@ -0,0 +1,58 @@
+package polyrun.examples.storage;
+
+import polyrun.examples.scoring.CompactValueModel;
+
+import java.util.Arrays;
+
+/**
+ * Samples stored as 32-bit floats (relative rounding error below 6e-8, half the memory of doubles).
+ */
+public class FloatSampleStore extends CompactSampleStore {
+
+    // samples[s * dimension + k] - k-th coordinate of sample s
+    private float[] samples;
+
+    public FloatSampleStore(int dimension) {
+        this(dimension, 1024);
+    }
+
+    public FloatSampleStore(int dimension, int initialCapacity) {
+        super(dimension, initialCapacity);
+        this.samples = new float[dimension * initialCapacity];
+    }
+
+    /**
+     * Returns the flat array of samples (only the first getNumberOfSamples() * getDimension() elements are valid).
+     */
+    public float[] getSamples() {
+        return samples;
+    }
+
+    public void decode(int from, int to, double[] block) {
+        if (from < 0 || to < from || to > size) {
+            throw new IllegalArgumentException("to");
+        }
+
+        for (int k = 0, length = (to - from) * dimension, offset = from * dimension; k < length; k++) {
+            block[k] = samples[offset + k];
+        }
+    }
+
+    protected int getBytesPerCoordinate() {
+        return 4;
+    }
+
+    protected void resize(int length) {
+        samples = Arrays.copyOf(samples, length);
+    }
+
+    protected void store(double[] sample, int offset) {
+        for (int k = 0; k < dimension; k++) {
+            samples[offset + k] = (float) sample[k];
+        }
+    }
+
+    protected void values(CompactValueModel model, int from, int numberOfSamples, double[] values) {
+        model.values(samples, from * dimension, numberOfSamples, values);
+    }
+}
@@ -0,0 +1,106 @@
+package polyrun.examples.storage;
+
+import polyrun.examples.scoring.CompactValueModel;
+
+import java.util.Arrays;
+
+/**
+ * Samples stored as unsigned 16-bit codes: coordinate k of a sample is low_k + code * step_k, where
+ * step_k = (high_k - low_k) / 65535. Bounds are given per dimension (e.g. the bounding box of the polytope),
+ * so the absolute error is at most step_k / 2. A quarter of the memory of doubles.
+ */
+public class QuantizedSampleStore extends CompactSampleStore {
+
+    private static final int MAX_CODE = 0xFFFF;
+
+    private final double[] lows;
+    private final double[] steps;
+
+    // codes[s * dimension + k] - code of k-th coordinate of sample s
+    private char[] codes;
+
+    public QuantizedSampleStore(double[] lows, double[] highs) {
+        this(lows, highs, 1024);
+    }
+
+    public QuantizedSampleStore(double[] lows, double[] highs, int initialCapacity) {
+        super(lows.length, initialCapacity);
+
+        if (highs.length != lows.length) {
+            throw new IllegalArgumentException("highs");
+        }
+
+        this.lows = lows.clone();
+        this.steps = new double[dimension];
+
+        for (int k = 0; k < dimension; k++) {
+            if (!(lows[k] <= highs[k])) {
+                throw new IllegalArgumentException("highs");
+            }
+
+            steps[k] = (highs[k] - lows[k]) / MAX_CODE;
+        }
+
+        this.codes = new char[dimension * initialCapacity];
+    }
+
+    /**
+     * Creates a store for samples in the unit cube (e.g. normalized weights).
+     */
+    public static QuantizedSampleStore unit(int dimension) {
+        double[] lows = new double[dimension];
+        double[] highs = new double[dimension];
+        Arrays.fill(highs, 1.0);
+
+        return new QuantizedSampleStore(lows, highs);
+    }
+
+    public double[] getLows() {
+        return lows.clone();
+    }
+
+    public double[] getSteps() {
+        return steps.clone();
+    }
+
+    /**
+     * Returns the flat array of codes (only the first getNumberOfSamples() * getDimension() elements are valid).
+     */
+    public char[] getCodes() {
+        return codes;
+    }
+
+    public void decode(int from, int to, double[] block) {
+        if (from < 0 || to < from || to > size) {
+            throw new IllegalArgumentException("to");
+        }
+
+        for (int s = 0; s < to - from; s++) {
+            int offset = (from + s) * dimension;
+
+            for (int k = 0; k < dimension; k++) {
+                block[s * dimension + k] = lows[k] + codes[offset + k] * steps[k];
+            }
+        }
+    }
+
+    protected int getBytesPerCoordinate() {
+        return 2;
+    }
+
+    protected void resize(int length) {
+        codes = Arrays.copyOf(codes, length);
+    }
+
+    protected void store(double[] sample, int offset) {
+        for (int k = 0; k < dimension; k++) {
+            // Values slightly outside the bounds (rounding errors of the chain) are clamped
+            long code = steps[k] == 0.0 ? 0 : Math.round((sample[k] - lows[k]) / steps[k]);
+            codes[offset + k] = (char) Math.max(0, Math.min(MAX_CODE, code));
+        }
+    }
+
+    protected void values(CompactValueModel model, int from, int numberOfSamples, double[] values) {
+        model.values(codes, from * dimension, numberOfSamples, lows, steps, values);
+    }
+}
@@ -0,0 +1,281 @@
+package polyrun.examples.uncertainty;
+
+import polyrun.examples.scoring.BlockConsumer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates samples of uncertain performance tables. A sample is a flat matrix
+ * (sample[i * numberOfCriteria + j] - performance of a_i on g_j), and samples are written to flat blocks.
+ * <p>
+ * Samples are generated in chunks of CHUNK_SIZE, each drawn from its own random stream derived from the seed
+ * and the chunk index. Results are thus the same no matter how the work is divided between threads or blocks.
+ * Normal variates are generated in pairs (polar method) within a chunk, so none of them is discarded.
+ */
+public class CriteriaSampler {
+
+    public static final int CHUNK_SIZE = 64;
+
+    private final int numberOfAlternatives;
+    private final int numberOfCriteria;
+
+    // distributions[i * numberOfCriteria + j] - distribution of performance of a_i on g_j
+    private final Distribution[] distributions;
+
+    // normals[k] - distributions[k] if it is normal, null otherwise
+    private final NormalDistribution[] normals;
+
+    public CriteriaSampler(Distribution[][] distributions) {
+        if (distributions == null || distributions.length == 0) {
+            throw new IllegalArgumentException("distributions");
+        }
+
+        this.numberOfAlternatives = distributions.length;
+        this.numberOfCriteria = distributions[0].length;
+        this.distributions = new Distribution[numberOfAlternatives * numberOfCriteria];
+
+        for (int i = 0; i < numberOfAlternatives; i++) {
+            if (distributions[i].length != numberOfCriteria) {
+                throw new IllegalArgumentException("distributions");
+            }
+
+            System.arraycopy(distributions[i], 0, this.distributions, i * numberOfCriteria, numberOfCriteria);
+        }
+
+        this.normals = new NormalDistribution[this.distributions.length];
+        for (int k = 0; k < normals.length; k++) {
+            if (this.distributions[k] instanceof NormalDistribution) {
+                normals[k] = (NormalDistribution) this.distributions[k];
+            }
+        }
+    }
+
+    /**
+     * Creates sampler with performances distributed uniformly in [value - halfWidth_j, value + halfWidth_j].
+     */
+    public static CriteriaSampler uniform(double[][] values, double[] halfWidths) {
+        Distribution[][] distributions = new Distribution[values.length][];
+
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].length != halfWidths.length) {
+                throw new IllegalArgumentException("halfWidths");
+            }
+
+            distributions[i] = new Distribution[halfWidths.length];
+
+            for (int j = 0; j < halfWidths.length; j++) {
+                distributions[i][j] = new UniformDistribution(values[i][j] - halfWidths[j], values[i][j] + halfWidths[j]);
+            }
+        }
+
+        return new CriteriaSampler(distributions);
+    }
+
+    public int getNumberOfAlternatives() {
+        return numberOfAlternatives;
+    }
+
+    public int getNumberOfCriteria() {
+        return numberOfCriteria;
+    }
+
+    public int getSampleDimension() {
+        return distributions.length;
+    }
+
+    /**
+     * Writes samples [from, to) of the sequence defined by seed to block (sample from is stored at the beginning).
+     */
+    public void sample(long seed, int from, int to, double[] block) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("to");
+        }
+
+        if (block.length < (to - from) * distributions.length) {
+            throw new IllegalArgumentException("block");
+        }
+
+        int s = from;
+        while (s < to) {
+            int chunk = s / CHUNK_SIZE;
+            int chunkEnd = Math.min(to, (chunk + 1) * CHUNK_SIZE);
+            ChunkStream random = stream(seed, chunk);
+
+            // Skip samples of the chunk that precede from
+            for (int skipped = chunk * CHUNK_SIZE; skipped < s; skipped++) {
+                sample(random, null, 0);
+            }
+
+            for (; s < chunkEnd; s++) {
+                sample(random, block, (s - from) * distributions.length);
+            }
+        }
+    }
+
+    /**
+     * Generates samples in blocks of blockSize and passes them to the consumer, so that only a single block
+     * is kept in memory.
+     */
+    public void stream(long seed, int numberOfSamples, int blockSize, BlockConsumer consumer) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize");
+        }
+
+        double[] block = new double[blockSize * distributions.length];
+
+        for (int from = 0; from < numberOfSamples; from += blockSize) {
+            int to = Math.min(numberOfSamples, from + blockSize);
+            sample(seed, from, to, block);
+            consumer.consume(block, to - from);
+        }
+    }
+
+    /**
+     * Generates numberOfSamples samples into a single block using numberOfThreads threads.
+     */
+    public double[] sample(final long seed, final int numberOfSamples, int numberOfThreads) throws Exception {
+        if (numberOfThreads < 1) {
+            throw new IllegalArgumentException("numberOfThreads");
+        }
+
+        final double[] block = new double[numberOfSamples * distributions.length];
+        final int numberOfChunks = (numberOfSamples + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+
+            for (int t = 0; t < numberOfThreads; t++) {
+                final int firstChunk = (int) ((long) numberOfChunks * t / numberOfThreads);
+                final int lastChunk = (int) ((long) numberOfChunks * (t + 1) / numberOfThreads);
+
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() {
+                        for (int chunk = firstChunk; chunk < lastChunk; chunk++) {
+                            ChunkStream random = stream(seed, chunk);
+                            int end = Math.min(numberOfSamples, (chunk + 1) * CHUNK_SIZE);
+
+                            for (int s = chunk * CHUNK_SIZE; s < end; s++) {
+                                sample(random, block, s * distributions.length);
+                            }
+                        }
+
+                        return null;
+                    }
+                }));
+            }
+
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        return block;
+    }
+
+    /**
+     * Writes samples [from, to) defined by a point set to block: the k-th coordinate of a point is mapped
+     * through the quantile function of the k-th distribution. Compared with independent random streams,
+     * stratified or low-discrepancy point sets (see SamplingDesign) reduce the error of estimates.
+     */
+    public void sample(PointSet points, int from, int to, double[] block) {
+        if (points.getDimension() != distributions.length) {
+            throw new IllegalArgumentException("points");
+        }
+
+        if (block.length < (to - from) * distributions.length) {
+            throw new IllegalArgumentException("block");
+        }
+
+        points.points(from, to, block);
+
+        for (int s = 0; s < to - from; s++) {
+            int offset = s * distributions.length;
+
+            for (int k = 0; k < distributions.length; k++) {
+                block[offset + k] = distributions[k].quantile(block[offset + k]);
+            }
+        }
+    }
+
+    /**
+     * Generates all samples defined by a point set in blocks of blockSize and passes them to the consumer.
+     */
+    public void stream(PointSet points, int blockSize, BlockConsumer consumer) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("blockSize");
+        }
+
+        double[] block = new double[blockSize * distributions.length];
+
+        for (int from = 0; from < points.getNumberOfPoints(); from += blockSize) {
+            int to = Math.min(points.getNumberOfPoints(), from + blockSize);
+            sample(points, from, to, block);
+            consumer.consume(block, to - from);
+        }
+    }
+
+    private void sample(ChunkStream random, double[] block, int offset) {
+        for (int k = 0; k < distributions.length; k++) {
+            double value = normals[k] != null
+                    ? normals[k].fromStandard(random.nextGaussian())
+                    : distributions[k].sample(random.random);
+
+            if (block != null) {
+                block[offset + k] = value;
+            }
+        }
+    }
+
+    private static ChunkStream stream(long seed, int chunk) {
+        return new ChunkStream(new SplittableRandom(Hashing.hash(seed, chunk)));
+    }
+
+    /**
+     * Random stream of a chunk which keeps the second variate of every pair of normal variates.
+     */
+    private static class ChunkStream {
+
+        final SplittableRandom random;
+
+        private double spareGaussian;
+        private boolean hasSpareGaussian;
+
+        ChunkStream(SplittableRandom random) {
+            this.random = random;
+        }
+
+        double nextGaussian() {
+            if (hasSpareGaussian) {
+                hasSpareGaussian = false;
+                return spareGaussian;
+            }
+
+            double u;
+            double v;
+            double s;
+
+            // Marsaglia polar method (as in FastRandom.nextGaussian)
+            do {
+                u = 2.0 * random.nextDouble() - 1.0;
+                v = 2.0 * random.nextDouble() - 1.0;
+                s = u * u + v * v;
+            } while (s >= 1.0 || s == 0.0);
+
+            double multiplier = Math.sqrt(-2.0 * Math.log(s) / s);
+            spareGaussian = v * multiplier;
+            hasSpareGaussian = true;
+
+            return u * multiplier;
+        }
+    }
+}
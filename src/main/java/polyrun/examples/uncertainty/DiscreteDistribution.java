@@ -0,0 +1,65 @@
+package polyrun.examples.uncertainty;
+
+import java.util.SplittableRandom;
+
+public class DiscreteDistribution implements Distribution {
+
+    private final double[] values;
+
+    // cumulativeProbabilities[i] = P(X <= values[i]), normalized so that the last one is 1
+    private final double[] cumulativeProbabilities;
+
+    public DiscreteDistribution(double[] values, double[] probabilities) {
+        if (values == null || values.length == 0) {
+            throw new IllegalArgumentException("values");
+        }
+
+        if (probabilities == null || probabilities.length != values.length) {
+            throw new IllegalArgumentException("probabilities");
+        }
+
+        this.values = values.clone();
+        this.cumulativeProbabilities = new double[values.length];
+
+        double sum = 0.0;
+        for (int i = 0; i < probabilities.length; i++) {
+            if (!(probabilities[i] >= 0.0)) {
+                throw new IllegalArgumentException("probabilities");
+            }
+
+            sum += probabilities[i];
+            cumulativeProbabilities[i] = sum;
+        }
+
+        if (!(sum > 0.0)) {
+            throw new IllegalArgumentException("probabilities");
+        }
+
+        for (int i = 0; i < cumulativeProbabilities.length; i++) {
+            cumulativeProbabilities[i] /= sum;
+        }
+        cumulativeProbabilities[cumulativeProbabilities.length - 1] = 1.0;
+    }
+
+    public double sample(SplittableRandom random) {
+        return quantile(random.nextDouble());
+    }
+
+    public double quantile(double u) {
+        // Find the first index with cumulative probability greater than u
+        int low = 0;
+        int high = cumulativeProbabilities.length - 1;
+
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+
+            if (cumulativeProbabilities[middle] > u) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+
+        return values[low];
+    }
+}
@@ -0,0 +1,18 @@
+package polyrun.examples.uncertainty;
+
+import java.util.SplittableRandom;
+
+/**
+ * Distribution of an uncertain performance of a single alternative on a single criterion.
+ * Implementations are immutable, so they can be used concurrently with separate random streams.
+ */
+public interface Distribution {
+
+    double sample(SplittableRandom random);
+
+    /**
+     * Returns the inverse of the cumulative distribution function at probability in [0, 1),
+     * which maps points of a PointSet to performances.
+     */
+    double quantile(double probability);
+}
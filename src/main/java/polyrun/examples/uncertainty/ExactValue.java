@@ -0,0 +1,24 @@
+package polyrun.examples.uncertainty;
+
+import java.util.SplittableRandom;
+
+public class ExactValue implements Distribution {
+
+    private final double value;
+
+    public ExactValue(double value) {
+        this.value = value;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double sample(SplittableRandom random) {
+        return value;
+    }
+
+    public double quantile(double probability) {
+        return value;
+    }
+}
@@ -0,0 +1,131 @@
+package polyrun.examples.uncertainty;
+
+/**
+ * Randomly scrambled Halton sequence (quasi-Monte Carlo). The k-th coordinate of point p is the radical inverse
+ * of p in the k-th prime base, with every digit position mapped through its own random permutation of digits.
+ * Scrambling keeps the low discrepancy of the sequence, removes the correlation between coordinates with large
+ * bases and makes every point uniformly distributed, so independently scrambled copies give unbiased estimates
+ * whose spread measures the error.
+ */
+public class HaltonPointSet implements PointSet {
+
+    // Digits are generated until the resolution is at least 2^-40
+    private static final double RESOLUTION = 0x1.0p-40;
+
+    private final int dimension;
+    private final int numberOfPoints;
+
+    private final int[] bases;
+    private final int[] numberOfDigits;
+
+    // permutations[permutationOffsets[k] + i * bases[k] + d] - scrambled value of digit d at position i of k-th coordinate
+    private final int[] permutationOffsets;
+    private final int[] permutations;
+
+    public HaltonPointSet(int dimension, int numberOfPoints, long seed) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension");
+        }
+
+        if (numberOfPoints < 0) {
+            throw new IllegalArgumentException("numberOfPoints");
+        }
+
+        this.dimension = dimension;
+        this.numberOfPoints = numberOfPoints;
+        this.bases = primes(dimension);
+        this.numberOfDigits = new int[dimension];
+        this.permutationOffsets = new int[dimension];
+
+        int size = 0;
+        for (int k = 0; k < dimension; k++) {
+            double resolution = 1.0;
+
+            while (resolution > RESOLUTION) {
+                resolution /= bases[k];
+                numberOfDigits[k]++;
+            }
+
+            permutationOffsets[k] = size;
+            size += numberOfDigits[k] * bases[k];
+        }
+
+        this.permutations = new int[size];
+
+        long index = 0;
+        for (int k = 0; k < dimension; k++) {
+            for (int i = 0; i < numberOfDigits[k]; i++) {
+                int offset = permutationOffsets[k] + i * bases[k];
+
+                for (int d = 0; d < bases[k]; d++) {
+                    permutations[offset + d] = d;
+                }
+
+                for (int d = bases[k] - 1; d > 0; d--) {
+                    int e = (int) (Hashing.uniform(seed, index++) * (d + 1));
+                    int swap = permutations[offset + d];
+                    permutations[offset + d] = permutations[offset + e];
+                    permutations[offset + e] = swap;
+                }
+            }
+        }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNumberOfPoints() {
+        return numberOfPoints;
+    }
+
+    public void points(int from, int to, double[] block) {
+        if (from < 0 || to < from || to > numberOfPoints) {
+            throw new IllegalArgumentException("to");
+        }
+
+        for (int p = from; p < to; p++) {
+            int offset = (p - from) * dimension;
+
+            for (int k = 0; k < dimension; k++) {
+                int base = bases[k];
+                int permutationOffset = permutationOffsets[k];
+                double factor = 1.0 / base;
+                double u = 0.0;
+                int remainder = p;
+
+                for (int i = 0; i < numberOfDigits[k]; i++) {
+                    int digit = remainder % base;
+                    remainder /= base;
+
+                    u += permutations[permutationOffset + i * base + digit] * factor;
+                    factor /= base;
+                }
+
+                block[offset + k] = Math.min(u, 0x1.fffffffffffffp-1);
+            }
+        }
+    }
+
+    private static int[] primes(int count) {
+        int[] primes = new int[count];
+        int size = 0;
+
+        for (int candidate = 2; size < count; candidate++) {
+            boolean prime = true;
+
+            for (int i = 0; i < size && primes[i] * primes[i] <= candidate; i++) {
+                if (candidate % primes[i] == 0) {
+                    prime = false;
+                    break;
+                }
+            }
+
+            if (prime) {
+                primes[size++] = candidate;
+            }
+        }
+
+        return primes;
+    }
+}
@@ -0,0 +1,31 @@
+package polyrun.examples.uncertainty;
+
+/**
+ * Counter-based uniform variates: the value for a given seed and index is computed directly,
+ * without a sequential random stream.
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns a 64-bit hash of seed and index (e.g. the seed of the index-th of independent streams).
+     */
+    static long hash(long seed, long index) {
+        return mix64(seed ^ mix64(index + 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Returns a uniform variate in [0, 1) determined by seed and index.
+     */
+    static double uniform(long seed, long index) {
+        return (hash(seed, index) >>> 11) * 0x1.0p-53;
+    }
+}
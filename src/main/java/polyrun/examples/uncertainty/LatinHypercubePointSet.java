@@ -0,0 +1,73 @@
+package polyrun.examples.uncertainty;
+
+/**
+ * Latin hypercube sample: in every coordinate, each of the numberOfPoints equal strata of [0, 1) contains
+ * exactly one point, at a uniformly distributed position. Strata are matched between coordinates by
+ * independent random permutations. The variance of additive parts of the estimated function is removed.
+ */
+public class LatinHypercubePointSet implements PointSet {
+
+    private final int dimension;
+    private final int numberOfPoints;
+    private final long seed;
+
+    // strata[k * numberOfPoints + p] - stratum of the k-th coordinate of point p
+    private final int[] strata;
+
+    public LatinHypercubePointSet(int dimension, int numberOfPoints, long seed) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension");
+        }
+
+        if (numberOfPoints < 0 || (long) dimension * numberOfPoints > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("numberOfPoints");
+        }
+
+        this.dimension = dimension;
+        this.numberOfPoints = numberOfPoints;
+        this.seed = seed;
+        this.strata = new int[dimension * numberOfPoints];
+
+        // Fisher-Yates shuffle of each coordinate
+        long index = 0;
+        for (int k = 0; k < dimension; k++) {
+            int offset = k * numberOfPoints;
+
+            for (int p = 0; p < numberOfPoints; p++) {
+                strata[offset + p] = p;
+            }
+
+            for (int p = numberOfPoints - 1; p > 0; p--) {
+                int q = (int) (Hashing.uniform(~seed, index++) * (p + 1));
+                int swap = strata[offset + p];
+                strata[offset + p] = strata[offset + q];
+                strata[offset + q] = swap;
+            }
+        }
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNumberOfPoints() {
+        return numberOfPoints;
+    }
+
+    public void points(int from, int to, double[] block) {
+        if (from < 0 || to < from || to > numberOfPoints) {
+            throw new IllegalArgumentException("to");
+        }
+
+        double stratumSize = 1.0 / numberOfPoints;
+
+        for (int p = from; p < to; p++) {
+            int offset = (p - from) * dimension;
+
+            for (int k = 0; k < dimension; k++) {
+                double u = (strata[k * numberOfPoints + p] + Hashing.uniform(seed, (long) p * dimension + k)) * stratumSize;
+                block[offset + k] = Math.min(u, 0x1.fffffffffffffp-1);
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package polyrun.examples.uncertainty;
+
+import java.util.SplittableRandom;
+
+public class NormalDistribution implements Distribution {
+
+    // Coefficients of the approximation of the quantile function
+    private static final double P_LOW = 0.02425;
+    private static final double[] A = new double[]{
+            -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00
+    };
+    private static final double[] B = new double[]{
+            -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01
+    };
+    private static final double[] C = new double[]{
+            -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549671010115819e+00, 4.374664141464968e+00, 2.938163982698783e+00
+    };
+    private static final double[] D = new double[]{
+            7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00,
+            3.754408661907416e+00
+    };
+
+    private final double mean;
+    private final double standardDeviation;
+
+    public NormalDistribution(double mean, double standardDeviation) {
+        if (!(standardDeviation >= 0.0)) {
+            throw new IllegalArgumentException("standardDeviation");
+        }
+
+        this.mean = mean;
+        this.standardDeviation = standardDeviation;
+    }
+
+    public double sample(SplittableRandom random) {
+        // Box-Muller transform (1 - u is in (0, 1], so the logarithm is finite). A single variate is returned;
+        // CriteriaSampler generates pairs of standard normal variates itself and uses fromStandard.
+        double u = 1.0 - random.nextDouble();
+        double v = random.nextDouble();
+
+        return mean + standardDeviation * Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2.0 * Math.PI * v);
+    }
+
+    /**
+     * Returns the value corresponding to a standard normal variate.
+     */
+    double fromStandard(double standardNormal) {
+        return mean + standardDeviation * standardNormal;
+    }
+
+    public double quantile(double probability) {
+        // Rational approximation by P. J. Acklam (relative error below 1.2e-9); 0 is mapped to the smallest
+        // positive normal double, so the result is finite
+        double p = Math.max(probability, Double.MIN_NORMAL);
+        double x;
+
+        if (p < P_LOW) {
+            double q = Math.sqrt(-2.0 * Math.log(p));
+            x = (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                    / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1.0);
+        } else if (p <= 1.0 - P_LOW) {
+            double q = p - 0.5;
+            double r = q * q;
+            x = (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q
+                    / (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1.0);
+        } else {
+            double q = Math.sqrt(-2.0 * Math.log(1.0 - p));
+            x = -(((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                    / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1.0);
+        }
+
+        return mean + standardDeviation * x;
+    }
+}
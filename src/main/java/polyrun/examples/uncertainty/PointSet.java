@@ -0,0 +1,17 @@
+package polyrun.examples.uncertainty;
+
+/**
+ * Finite set of points in the unit cube [0, 1)^dimension used in place of independent uniform variates.
+ * Points are accessible by index, so a set can be streamed in blocks or split between threads.
+ */
+public interface PointSet {
+
+    int getDimension();
+
+    int getNumberOfPoints();
+
+    /**
+     * Writes points [from, to) to block (point from is stored at the beginning, point[k] at block[p * dimension + k]).
+     */
+    void points(int from, int to, double[] block);
+}
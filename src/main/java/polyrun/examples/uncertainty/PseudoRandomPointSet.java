@@ -0,0 +1,54 @@
+package polyrun.examples.uncertainty;
+
+/**
+ * Independent uniform points (plain Monte Carlo), optionally in antithetic pairs: point 2p + 1 is the
+ * reflection 1 - u of point 2p. Antithetic pairs cancel the linear part of the estimated function,
+ * so they reduce variance for estimates that are monotone in the uncertain performances.
+ */
+public class PseudoRandomPointSet implements PointSet {
+
+    private final int dimension;
+    private final int numberOfPoints;
+    private final long seed;
+    private final boolean antithetic;
+
+    public PseudoRandomPointSet(int dimension, int numberOfPoints, long seed, boolean antithetic) {
+        if (dimension < 1) {
+            throw new IllegalArgumentException("dimension");
+        }
+
+        if (numberOfPoints < 0) {
+            throw new IllegalArgumentException("numberOfPoints");
+        }
+
+        this.dimension = dimension;
+        this.numberOfPoints = numberOfPoints;
+        this.seed = seed;
+        this.antithetic = antithetic;
+    }
+
+    public int getDimension() {
+        return dimension;
+    }
+
+    public int getNumberOfPoints() {
+        return numberOfPoints;
+    }
+
+    public void points(int from, int to, double[] block) {
+        if (from < 0 || to < from || to > numberOfPoints) {
+            throw new IllegalArgumentException("to");
+        }
+
+        for (int p = from; p < to; p++) {
+            int offset = (p - from) * dimension;
+            long base = (long) (antithetic ? p >>> 1 : p) * dimension;
+
+            for (int k = 0; k < dimension; k++) {
+                double u = Hashing.uniform(seed, base + k);
+                // Reflected variate is in (0, 1], 1 is replaced by the largest double below 1
+                block[offset + k] = antithetic && (p & 1) == 1 ? Math.min(1.0 - u, 0x1.fffffffffffffp-1) : u;
+            }
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package polyrun.examples.uncertainty;
+
+/**
+ * Mean and standard error of a vector estimate (e.g. flattened acceptability indices) computed from
+ * independent replicates, e.g. from point sets created with different seeds. Randomized point sets give
+ * unbiased but correlated samples within a replicate, so the error can only be measured between replicates:
+ * the standard error is the standard deviation of replicate estimates divided by the square root of their number.
+ */
+public class ReplicatedEstimate {
+
+    private final int size;
+    private final double[] means;
+
+    // sumsOfSquares[k] - sum of squared deviations of k-th element from its mean (Welford's algorithm)
+    private final double[] sumsOfSquares;
+
+    private int numberOfReplicates;
+
+    public ReplicatedEstimate(int size) {
+        if (size < 1) {
+            throw new IllegalArgumentException("size");
+        }
+
+        this.size = size;
+        this.means = new double[size];
+        this.sumsOfSquares = new double[size];
+    }
+
+    public void add(double[] estimate) {
+        if (estimate.length != size) {
+            throw new IllegalArgumentException("estimate");
+        }
+
+        numberOfReplicates++;
+
+        for (int k = 0; k < size; k++) {
+            double delta = estimate[k] - means[k];
+            means[k] += delta / numberOfReplicates;
+            sumsOfSquares[k] += delta * (estimate[k] - means[k]);
+        }
+    }
+
+    public int getNumberOfReplicates() {
+        return numberOfReplicates;
+    }
+
+    public double[] getMeans() {
+        return means.clone();
+    }
+
+    /**
+     * Returns standard errors of the means (NaN for less than two replicates).
+     */
+    public double[] getStandardErrors() {
+        double[] errors = new double[size];
+
+        for (int k = 0; k < size; k++) {
+            errors[k] = Math.sqrt(sumsOfSquares[k] / (numberOfReplicates - 1.0) / numberOfReplicates);
+        }
+
+        return errors;
+    }
+
+    public double getMaximalStandardError() {
+        double maximum = 0.0;
+
+        for (double error : getStandardErrors()) {
+            maximum = Math.max(maximum, error);
+        }
+
+        return maximum;
+    }
+
+    /**
+     * Returns the root mean square of standard errors over all elements.
+     */
+    public double getRootMeanSquareStandardError() {
+        double sum = 0.0;
+
+        for (double error : getStandardErrors()) {
+            sum += error * error;
+        }
+
+        return Math.sqrt(sum / size);
+    }
+}
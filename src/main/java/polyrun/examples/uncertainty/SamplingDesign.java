@@ -0,0 +1,52 @@
+package polyrun.examples.uncertainty;
+
+/**
+ * Ways of placing uniform points used by CriteriaSampler.sample(PointSet, ...).
+ */
+public enum SamplingDesign {
+    RANDOM("random") {
+        public PointSet createPointSet(int dimension, int numberOfPoints, long seed) {
+            return new PseudoRandomPointSet(dimension, numberOfPoints, seed, false);
+        }
+    },
+    ANTITHETIC("antithetic") {
+        public PointSet createPointSet(int dimension, int numberOfPoints, long seed) {
+            return new PseudoRandomPointSet(dimension, numberOfPoints, seed, true);
+        }
+    },
+    LATIN_HYPERCUBE("lhs") {
+        public PointSet createPointSet(int dimension, int numberOfPoints, long seed) {
+            return new LatinHypercubePointSet(dimension, numberOfPoints, seed);
+        }
+    },
+    HALTON("halton") {
+        public PointSet createPointSet(int dimension, int numberOfPoints, long seed) {
+            return new HaltonPointSet(dimension, numberOfPoints, seed);
+        }
+    };
+
+    private final String symbol;
+
+    SamplingDesign(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    /**
+     * Creates a randomized point set; point sets created with different seeds are independent.
+     */
+    public abstract PointSet createPointSet(int dimension, int numberOfPoints, long seed);
+
+    public static SamplingDesign parse(String symbol) {
+        for (SamplingDesign design : values()) {
+            if (design.symbol.equals(symbol)) {
+                return design;
+            }
+        }
+
+        throw new IllegalArgumentException("symbol");
+    }
+}
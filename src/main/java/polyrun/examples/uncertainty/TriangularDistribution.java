@@ -0,0 +1,34 @@
+package polyrun.examples.uncertainty;
+
+import java.util.SplittableRandom;
+
+public class TriangularDistribution implements Distribution {
+
+    private final double low;
+    private final double mode;
+    private final double high;
+    private final double modeQuantile;
+
+    public TriangularDistribution(double low, double mode, double high) {
+        if (!(low <= mode && mode <= high && low < high)) {
+            throw new IllegalArgumentException("mode");
+        }
+
+        this.low = low;
+        this.mode = mode;
+        this.high = high;
+        this.modeQuantile = (mode - low) / (high - low);
+    }
+
+    public double sample(SplittableRandom random) {
+        return quantile(random.nextDouble());
+    }
+
+    public double quantile(double u) {
+        if (u < modeQuantile) {
+            return low + Math.sqrt(u * (high - low) * (mode - low));
+        } else {
+            return high - Math.sqrt((1.0 - u) * (high - low) * (high - mode));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package polyrun.examples.uncertainty;
+
+import java.util.SplittableRandom;
+
+public class UniformDistribution implements Distribution {
+
+    private final double low;
+    private final double width;
+
+    public UniformDistribution(double low, double high) {
+        if (!(low <= high)) {
+            throw new IllegalArgumentException("high");
+        }
+
+        this.low = low;
+        this.width = high - low;
+    }
+
+    public double sample(SplittableRandom random) {
+        return quantile(random.nextDouble());
+    }
+
+    public double quantile(double probability) {
+        return low + probability * width;
+    }
+}